@@ -0,0 +1,42 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.poc.CanonicalIngestionEngine.id.IdGenerator;
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generator throughput with 32 request threads generating at once.
+ *
+ *   ./gradlew jmh -Pjmh.includes=IdGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+public class IdGeneratorBenchmark {
+
+    @Param({IdGenerators.TIME_ORDERED, IdGenerators.RANDOM_UUID})
+    public String generator;
+
+    private IdGenerator idGenerator;
+
+    @Setup
+    public void setUp() {
+        idGenerator = IdGenerators.byName(generator);
+    }
+
+    @Benchmark
+    public String nextId() {
+        return idGenerator.nextId();
+    }
+}
@@ -0,0 +1,91 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.poc.CanonicalIngestionEngine.id.IdGenerator;
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary-key insert locality on H2 (Oracle mode): rows keyed by
+ * time-ordered ids append to the right edge of the index, random UUIDs
+ * split pages all over it. The table is pre-filled so the index is
+ * larger than a few pages before measuring.
+ *
+ *   ./gradlew jmh -Pjmh.includes=IdIndexLocalityBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdIndexLocalityBenchmark {
+
+    private static final int PREFILL_ROWS = 200_000;
+
+    @Param({IdGenerators.TIME_ORDERED, IdGenerators.RANDOM_UUID})
+    public String generator;
+
+    private IdGenerator idGenerator;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+
+        idGenerator = IdGenerators.byName(generator);
+
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:idlocality;MODE=Oracle", "sa", "");
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS ID_LOCALITY");
+            ddl.execute("CREATE TABLE ID_LOCALITY ("
+                    + "ID VARCHAR2(50) PRIMARY KEY, "
+                    + "TRAN_ID VARCHAR2(50))");
+        }
+
+        insert = connection.prepareStatement(
+                "INSERT INTO ID_LOCALITY (ID, TRAN_ID) VALUES (?, ?)");
+
+        for (int i = 0; i < PREFILL_ROWS; i++) {
+            insertRow();
+            if (i % 1_000 == 999) {
+                insert.executeBatch();
+            }
+        }
+        insert.executeBatch();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        insert.close();
+        connection.close();
+    }
+
+    private void insertRow() throws Exception {
+        String id = idGenerator.nextId();
+        insert.setString(1, id);
+        insert.setString(2, id);
+        insert.addBatch();
+    }
+
+    @Benchmark
+    public int insertOne() throws Exception {
+        String id = idGenerator.nextId();
+        insert.setString(1, id);
+        insert.setString(2, id);
+        return insert.executeUpdate();
+    }
+}
@@ -0,0 +1,141 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
+import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import com.poc.CanonicalIngestionEngine.model.TransactionEventAxonMessage;
+import com.poc.CanonicalIngestionEngine.service.IngestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost per event: the old multi-parse pipeline versus a
+ * single {@link ParsedEvent} shared by all stages.
+ *
+ * Run with the gc profiler (configured in build.gradle) and compare
+ * "gc.alloc.rate.norm" (bytes allocated per event):
+ *
+ *   ./gradlew jmh -Pjmh.includes=ParsedEventBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParsedEventBenchmark {
+
+    // Representative PAYMENT main-table mapping
+    static final Map<String, String> MAPPING = new LinkedHashMap<>();
+
+    static {
+        MAPPING.put("TRAN_ID", "paymentTransactionId");
+        MAPPING.put("TRAN_TYPE", "transactionType");
+        MAPPING.put("REF_ID", "referenceId");
+        MAPPING.put("TRANFR_ACPT_ID", "partnerId");
+        MAPPING.put("TRANFR_ACPT_NAM", "partnerName");
+        MAPPING.put("ORIG_INST_NAM", "institution");
+        MAPPING.put("NTWRK_CD", "network");
+        MAPPING.put("NTWRK_RESP_CD", "brand");
+        MAPPING.put("NTWRK_RESP_CD_DESC", "acceptanceBrand");
+        MAPPING.put("SW_SER_NUM", "switchSerialNumber");
+        MAPPING.put("CORLTN_ID", "correlationId");
+        MAPPING.put("TRAN_CRTE_DT", "transactionLocalDateTime");
+        MAPPING.put("TRAN_AMT", "paymentAmount.value");
+        MAPPING.put("TRAN_CURR", "paymentAmount.currency");
+        MAPPING.put("SEND_ACCT", "debtorAccountUri");
+        MAPPING.put("RECIP_ACCT", "creditorAccountUri");
+        MAPPING.put("ERR_CD", "responseCode");
+        MAPPING.put("FUND_AVAIL", "paymentStatus.eligible");
+        MAPPING.put("ERR_CD_DESC", "paymentStatus.responseReasonDetail");
+        MAPPING.put("TRAN_INIT_NAM", "debtor.firstName");
+        MAPPING.put("ACCT_HOLD_NAM", "creditor.firstName");
+        MAPPING.put("SEND_EMAIL", "debtor.email");
+        MAPPING.put("RECIP_EMAIL", "creditor.email");
+        MAPPING.put("SEND_CITY", "debtor.address.city");
+        MAPPING.put("RECIP_CITY", "creditor.address.city");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private EventEnvelope envelope;
+    private IngestionService ingestionService;
+    private DataMapper dataMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        try (InputStream in = getClass().getResourceAsStream(
+                "/eventtypes_jason/payment.json")) {
+
+            envelope = objectMapper.readValue(in, EventEnvelope.class);
+        }
+
+        dataMapper = new DataMapper();
+
+        // parse() only needs the ObjectMapper and the config lookup
+        ingestionService = new IngestionService(
+                objectMapper, null, new EventConfigLoader(), dataMapper, null, null
+        );
+    }
+
+    /**
+     * Mirrors the previous pipeline: DTO bind + readTree, metadata
+     * parse, per-column toString/JsonPath re-parse and a fresh
+     * ObjectMapper in the controller to find the transaction id.
+     */
+    @Benchmark
+    public void multiParse(Blackhole bh) throws Exception {
+
+        String payloadJson = envelope.getEventPayload();
+
+        bh.consume(objectMapper.readValue(
+                payloadJson, TransactionEventAxonMessage.class));
+
+        JsonNode payload = objectMapper.readTree(payloadJson);
+
+        bh.consume(objectMapper
+                .readTree(envelope.getEventMetadata())
+                .path("operation")
+                .asText());
+
+        String jsonString = payload.toString();
+
+        for (String path : MAPPING.values()) {
+            try {
+                bh.consume(JsonPath.read(jsonString, "$." + path));
+            } catch (Exception ignored) {
+            }
+        }
+
+        bh.consume(new ObjectMapper()
+                .readTree(payloadJson)
+                .get("paymentTransactionId"));
+    }
+
+    @Benchmark
+    public void parsedEvent(Blackhole bh) {
+
+        ParsedEvent event = ingestionService.parse(envelope);
+
+        bh.consume(dataMapper.map(
+                event.getPayload(), MAPPING, List.of(), false));
+
+        bh.consume(event.getTransactionId());
+    }
+}
@@ -0,0 +1,118 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.poc.CanonicalIngestionEngine.repository.TransactionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the post-ingest readback per response mode, on H2 (Oracle mode):
+ *
+ *   ack            - no readback (ResponseMode.ACK)
+ *   pooledRows     - four selects through the pool (ResponseMode.ROWS)
+ *   driverManager  - the old DbUtils path, one new connection per table
+ *
+ *   ./gradlew jmh -Pjmh.includes=ReadbackBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReadbackBenchmark {
+
+    private static final String URL =
+            "jdbc:h2:mem:readback;MODE=Oracle;DB_CLOSE_DELAY=-1";
+
+    private static final List<String> TABLES = List.of(
+            "SEND_TRANSACTIONS",
+            "SEND_TRAN_DTL",
+            "SEND_RECIP_DTL",
+            "SEND_TRAN_ADDR_DTL"
+    );
+
+    private static final String TRAN_ID = "TXN_READBACK";
+
+    private HikariDataSource dataSource;
+    private TransactionRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             Statement ddl = conn.createStatement()) {
+
+            for (String table : TABLES) {
+                ddl.execute("DROP TABLE IF EXISTS " + table);
+                ddl.execute("CREATE TABLE " + table + " ("
+                        + "ID VARCHAR2(50), TRAN_ID VARCHAR2(50), "
+                        + "STATUS VARCHAR2(20), AMOUNT NUMBER(12,2))");
+                ddl.execute("INSERT INTO " + table + " VALUES "
+                        + "('" + table + "_1', '" + TRAN_ID + "', 'INIT', 10.50)");
+            }
+        }
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(4);
+
+        repository = new TransactionRepository(
+                new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int ack() {
+        return TRAN_ID.length();
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, Object>>> pooledRows() {
+        return repository.findAllRelatedData(TRAN_ID);
+    }
+
+    @Benchmark
+    public int driverManager() throws Exception {
+
+        int columns = 0;
+
+        for (String table : TABLES) {
+
+            try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT * FROM " + table + " WHERE TRAN_ID = ?")) {
+
+                stmt.setString(1, TRAN_ID);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        columns += rs.getMetaData().getColumnCount();
+                    }
+                }
+            }
+        }
+
+        return columns;
+    }
+}
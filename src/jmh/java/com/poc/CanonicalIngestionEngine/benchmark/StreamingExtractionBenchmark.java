@@ -0,0 +1,120 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jayway.jsonpath.JsonPath;
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload extraction cost for one PAYMENT main-table row:
+ *
+ *   perColumnJsonPath - JsonPath.read on the payload text per column
+ *   tree              - one readTree + compiled paths on the tree
+ *   streaming         - one parser pass projected onto the path trie
+ *
+ * "embeddedKb" pads originalRequestPayload / originalResponsePayload,
+ * which no mapping reads, to show the cost of unreferenced content.
+ *
+ *   ./gradlew jmh -Pjmh.includes=StreamingExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamingExtractionBenchmark {
+
+    @Param({"0", "64"})
+    public int embeddedKb;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private String payloadJson;
+    private EventConfig config;
+    private DataMapper dataMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        EventEnvelope envelope;
+
+        try (InputStream in = getClass().getResourceAsStream(
+                "/eventtypes_jason/payment.json")) {
+
+            envelope = objectMapper.readValue(in, EventEnvelope.class);
+        }
+
+        ObjectNode payload =
+                (ObjectNode) objectMapper.readTree(envelope.getEventPayload());
+
+        if (embeddedKb > 0) {
+            String filler = "x".repeat(embeddedKb * 1024);
+            payload.put("originalRequestPayload", filler);
+            payload.put("originalResponsePayload", filler);
+        }
+
+        payloadJson = objectMapper.writeValueAsString(payload);
+
+        TableConfig table = new TableConfig();
+        table.setTableName("SEND_TRANSACTIONS");
+        table.setMapping(ParsedEventBenchmark.MAPPING);
+
+        config = new EventConfig();
+        config.setEventName("PAYMENT");
+        config.setTables(List.of(table));
+
+        dataMapper = new DataMapper();
+        dataMapper.precompile(config);
+    }
+
+    @Benchmark
+    public void perColumnJsonPath(Blackhole bh) {
+
+        for (String path : ParsedEventBenchmark.MAPPING.values()) {
+            try {
+                bh.consume(JsonPath.read(payloadJson, "$." + path));
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public void tree(Blackhole bh) throws Exception {
+
+        JsonNode payload = objectMapper.readTree(payloadJson);
+
+        bh.consume(dataMapper.map(
+                payload, ParsedEventBenchmark.MAPPING, List.of(), false));
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) throws Exception {
+
+        JsonNode payload;
+
+        try (JsonParser parser = objectMapper.createParser(payloadJson)) {
+            payload = dataMapper.project(parser, config, List.of());
+        }
+
+        bh.consume(dataMapper.map(
+                payload, ParsedEventBenchmark.MAPPING, List.of(), false));
+    }
+}
@@ -0,0 +1,128 @@
+package com.poc.CanonicalIngestionEngine.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for the virtual-thread profile: EVENTS blocking "ingests"
+ * (H2 query on a pooled connection plus simulated Oracle latency) pushed
+ * through
+ *
+ *   platform - a fixed pool of 200 platform threads (Tomcat default)
+ *   virtual  - one virtual thread per event, capped by a semaphore the
+ *              size of the connection pool (DbConcurrencyLimiter)
+ *
+ * Both share a Hikari pool of POOL_SIZE connections. The virtual case
+ * needs a Java 21+ JVM:
+ *
+ *   ./gradlew jmh -PjavaVersion=21 -Pjmh.includes=VirtualThreadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadBenchmark {
+
+    private static final int EVENTS = 2_000;
+    private static final int POOL_SIZE = 20;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long DB_LATENCY_MS = 2;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private HikariDataSource dataSource;
+    private ExecutorService platformPool;
+    private AsyncTaskExecutor executor;
+    private Semaphore dbPermits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:vthreads;MODE=Oracle;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+
+        if ("virtual".equals(threads)) {
+            // Spring's adapter keeps this compiling on a Java 17 toolchain
+            executor = new VirtualThreadTaskExecutor("bench-");
+            dbPermits = new Semaphore(POOL_SIZE);
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            executor = new TaskExecutorAdapter(platformPool);
+            dbPermits = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+        dataSource.close();
+    }
+
+    private int ingestOne() throws Exception {
+
+        if (dbPermits != null) {
+            dbPermits.acquire();
+        }
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM DUAL");
+             ResultSet rs = stmt.executeQuery()) {
+
+            rs.next();
+            Thread.sleep(DB_LATENCY_MS);
+            return rs.getInt(1);
+
+        } finally {
+            if (dbPermits != null) {
+                dbPermits.release();
+            }
+        }
+    }
+
+    /** One op = EVENTS events ingested concurrently. */
+    @Benchmark
+    public int ingestEvents() throws Exception {
+
+        List<Future<Integer>> futures = new ArrayList<>(EVENTS);
+
+        for (int i = 0; i < EVENTS; i++) {
+            futures.add(executor.submit(this::ingestOne));
+        }
+
+        int sum = 0;
+
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+
+        return sum;
+    }
+}
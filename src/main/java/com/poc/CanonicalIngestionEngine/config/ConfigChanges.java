@@ -0,0 +1,43 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Event types a reload replaced or added, and those it dropped because
+ * their file is gone from the config server.
+ */
+public final class ConfigChanges {
+
+    public static final ConfigChanges NONE =
+            new ConfigChanges(Set.of(), Set.of());
+
+    private final Set<String> changed;
+    private final Set<String> removed;
+
+    public ConfigChanges(
+            Set<String> changed,
+            Set<String> removed
+    ) {
+        this.changed = Collections.unmodifiableSet(new LinkedHashSet<>(changed));
+        this.removed = Collections.unmodifiableSet(new LinkedHashSet<>(removed));
+    }
+
+    public Set<String> getChanged() {
+        return changed;
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "changed=" + changed + " removed=" + removed;
+    }
+}
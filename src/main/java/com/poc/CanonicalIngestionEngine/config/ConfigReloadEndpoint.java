@@ -0,0 +1,59 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.poc.CanonicalIngestionEngine.rules.RuleLoader;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * /actuator/configreload: GET shows the loaded event types and the last
+ * reload; POST reloads changed event configs and rules from the config
+ * server, and the table metadata from the database.
+ *
+ * Not exposed over HTTP by default: it changes what the service writes,
+ * so add it to management.endpoints.web.exposure.include only where the
+ * actuator is behind authentication.
+ */
+@Component
+@Endpoint(id = "configreload")
+public class ConfigReloadEndpoint {
+
+    private final ConfigReloader configReloader;
+    private final EventConfigLoader eventConfigLoader;
+    private final RuleLoader ruleLoader;
+
+    public ConfigReloadEndpoint(
+            ConfigReloader configReloader,
+            EventConfigLoader eventConfigLoader,
+            RuleLoader ruleLoader
+    ) {
+        this.configReloader = configReloader;
+        this.eventConfigLoader = eventConfigLoader;
+        this.ruleLoader = ruleLoader;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("configVersion", eventConfigLoader.getVersion());
+        body.put("eventConfigs", eventConfigLoader.getAllConfigs().stream()
+                .map(EventConfig::getEventName)
+                .sorted()
+                .toList());
+        body.put("rules", new TreeSet<>(ruleLoader.getLoadedEventTypes()));
+        body.put("lastReload", configReloader.getLastReload());
+
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        return configReloader.reload();
+    }
+}
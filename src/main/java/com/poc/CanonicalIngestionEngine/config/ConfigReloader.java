@@ -0,0 +1,199 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.rules.RuleLoader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hot reload of event configs and rules without a restart.
+ *
+ * Triggered by the configreload actuator endpoint, every
+ * config.reload.poll-interval when that is positive, and once after the
+ * context is refreshed when a loader booted from its snapshot. Each loader
+ * rebuilds only the files whose source changed and publishes them
+ * with one atomic swap; see {@link EventConfigLoader#reload()} and
+ * {@link RuleLoader#reload()}.
+ *
+ * The endpoint also reloads the table metadata (after a DDL change, say);
+ * the new metadata version makes the compiled plans and SQL templates
+ * rebuild on next use. Polling leaves the metadata alone, since a refresh
+ * drops those caches even when nothing changed.
+ */
+@Component
+public class ConfigReloader {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ConfigReloader.class);
+
+    private final EventConfigLoader eventConfigLoader;
+    private final RuleLoader ruleLoader;
+    private final TableMetadataRegistry metadataRegistry;
+    private final Duration pollInterval;
+
+    // Polling and the warm-start reconcile
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "config-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final AtomicBoolean reconciled = new AtomicBoolean();
+
+    private volatile Map<String, Object> lastReload = Map.of();
+
+    @Autowired
+    public ConfigReloader(
+            EventConfigLoader eventConfigLoader,
+            RuleLoader ruleLoader,
+            TableMetadataRegistry metadataRegistry,
+            @Value("${config.reload.poll-interval:0s}") Duration pollInterval
+    ) {
+        this.eventConfigLoader = eventConfigLoader;
+        this.ruleLoader = ruleLoader;
+        this.metadataRegistry = metadataRegistry;
+        this.pollInterval = pollInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (pollInterval == null
+                || pollInterval.isZero()
+                || pollInterval.isNegative()) {
+            return;
+        }
+
+        scheduler.scheduleWithFixedDelay(
+                this::poll,
+                pollInterval.toMillis(),
+                pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+
+        log.info(
+                "Polling config server for changes every {}",
+                pollInterval
+        );
+    }
+
+    /**
+     * A loader that booted from its snapshot serves the last known
+     * configs until the config server has been read; do that once,
+     * off the startup thread.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void reconcileSnapshots() {
+
+        if (!eventConfigLoader.isWarmStarted()
+                && !ruleLoader.isWarmStarted()) {
+            return;
+        }
+
+        if (reconciled.compareAndSet(false, true)) {
+            scheduler.execute(this::poll);
+        }
+    }
+
+    /**
+     * Reloads event configs, then rules, then the table metadata.
+     *
+     * @return the changed and removed event types, and the resulting
+     *         config and metadata versions
+     */
+    public Map<String, Object> reload() {
+        return reload(true);
+    }
+
+    private synchronized Map<String, Object> reload(boolean refreshMetadata) {
+
+        ConfigChanges events = eventConfigLoader.reload();
+        ConfigChanges rules = ruleLoader.reload();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("at", Instant.now().toString());
+        result.put("eventConfigs", describe(events));
+        result.put("rules", describe(rules));
+        result.put("configVersion", eventConfigLoader.getVersion());
+
+        if (refreshMetadata) {
+            result.put("tableMetadata", refreshMetadata());
+        }
+
+        lastReload = result;
+
+        return result;
+    }
+
+    private Map<String, Object> refreshMetadata() {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+
+        try {
+
+            metadataRegistry.refresh();
+
+        } catch (DataAccessException e) {
+
+            // The configs are already swapped; the old metadata stays
+            log.error("Table metadata reload failed", e);
+
+            body.put("error", e.getMessage());
+        }
+
+        body.put("version", metadataRegistry.getVersion());
+
+        return body;
+    }
+
+    private static Map<String, Object> describe(ConfigChanges changes) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("changed", changes.getChanged());
+        body.put("removed", changes.getRemoved());
+
+        return body;
+    }
+
+    /** Result of the last reload, empty before the first one. */
+    public Map<String, Object> getLastReload() {
+        return lastReload;
+    }
+
+    private void poll() {
+
+        try {
+
+            reload(false);
+
+        } catch (RuntimeException e) {
+
+            // Keep polling; the current configs stay in place
+            log.error("Config reload failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        scheduler.shutdownNow();
+    }
+}
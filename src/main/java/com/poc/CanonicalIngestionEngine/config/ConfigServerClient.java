@@ -0,0 +1,236 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reads property sources from the Spring Cloud Config server.
+ *
+ * All requested files are fetched concurrently, each bounded by the
+ * connect and read timeouts, so a full load costs about one round trip
+ * instead of one per file. A file that fails or has no property source
+ * is logged and left out of the result; {@link #fetch} also tells a
+ * file the server does not have (404, no property source) from one
+ * that could not be read.
+ *
+ * One instance per loader, reused for every fetch; {@link #close()}
+ * stops the threads its HttpClient runs on.
+ */
+public final class ConfigServerClient implements AutoCloseable {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ConfigServerClient.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final Duration readTimeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public ConfigServerClient(
+            String baseUrl,
+            Duration connectTimeout,
+            Duration readTimeout
+    ) {
+        this.baseUrl = baseUrl;
+        this.readTimeout = readTimeout;
+
+        // Owned, so close() can stop it (HttpClient has no close on 17)
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "config-server-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * What one fetch of a list of files returned.
+     */
+    public static final class Fetched {
+
+        private final Map<String, Map<String, Object>> sources;
+        private final Set<String> absent;
+
+        Fetched(
+                Map<String, Map<String, Object>> sources,
+                Set<String> absent
+        ) {
+            this.sources = Collections.unmodifiableMap(sources);
+            this.absent = Collections.unmodifiableSet(absent);
+        }
+
+        /**
+         * File name -> "source" map of its first property source, in
+         * request order, for every file that could be read.
+         */
+        public Map<String, Map<String, Object>> getSources() {
+            return sources;
+        }
+
+        /**
+         * Files the server answered for but does not have. Files that
+         * failed (timeout, 5xx, bad body) are in neither set.
+         */
+        public Set<String> getAbsent() {
+            return absent;
+        }
+    }
+
+    /**
+     * @return file name -> "source" map of its first property source,
+     *         in request order, for every file that could be read
+     */
+    public Map<String, Map<String, Object>> fetchSources(
+            List<String> names
+    ) {
+        return fetch(names).getSources();
+    }
+
+    public Fetched fetch(List<String> names) {
+
+        Map<String, CompletableFuture<Map<String, Object>>> pending =
+                new LinkedHashMap<>();
+
+        for (String name : names) {
+            pending.put(name, fetchSource(name));
+        }
+
+        Map<String, Map<String, Object>> sources =
+                new LinkedHashMap<>();
+
+        Set<String> absent = new LinkedHashSet<>();
+
+        pending.forEach((name, future) -> {
+
+            try {
+
+                Map<String, Object> source = future.join();
+
+                if (source != null) {
+                    sources.put(name, source);
+                } else {
+                    absent.add(name);
+                }
+
+            } catch (CompletionException e) {
+
+                log.error(
+                        "Could not fetch {} from config server: {}",
+                        name,
+                        e.getCause() != null
+                                ? e.getCause().toString()
+                                : e.toString()
+                );
+            }
+        });
+
+        return new Fetched(sources, absent);
+    }
+
+    private CompletableFuture<Map<String, Object>> fetchSource(
+            String name
+    ) {
+
+        String url = baseUrl + "/" + name + "/default";
+
+        log.info("Fetching config from: {}", url);
+
+        try {
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(readTimeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+
+            return httpClient
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> source(name, response));
+
+        } catch (IllegalArgumentException e) {
+
+            // Malformed base URL
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<String, Object> source(
+            String name,
+            HttpResponse<byte[]> response
+    ) {
+
+        if (response.statusCode() == 404) {
+
+            log.warn(
+                    "No config on server for: {}",
+                    name
+            );
+
+            return null;
+        }
+
+        if (response.statusCode() != 200) {
+            throw new CompletionException(new IOException(
+                    "HTTP " + response.statusCode() + " for " + response.uri()
+            ));
+        }
+
+        Map<String, Object> body;
+
+        try {
+            body = MAPPER.readValue(response.body(), Map.class);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> propertySources =
+                (List<Map<String, Object>>) body.get("propertySources");
+
+        if (propertySources == null || propertySources.isEmpty()) {
+
+            log.warn(
+                    "No property sources found for: {}",
+                    name
+            );
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> source =
+                (Map<String, Object>) propertySources.get(0).get("source");
+
+        return source;
+    }
+}
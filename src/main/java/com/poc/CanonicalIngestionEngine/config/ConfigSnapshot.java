@@ -0,0 +1,139 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local copy of the property sources last read from the config server,
+ * one JSON file per loader. Lets a restart bind its configs without
+ * waiting for the server; the loader reconciles afterwards.
+ *
+ * Holds the raw "source" maps, so a snapshot binds exactly like a
+ * server response. A missing or unreadable file reads as empty.
+ */
+public final class ConfigSnapshot {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Map<String, Object>>> SOURCES =
+            new TypeReference<>() {
+            };
+
+    // null = snapshots disabled
+    private final Path file;
+
+    public ConfigSnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @param dir snapshot directory; null or blank disables snapshots
+     */
+    public static ConfigSnapshot in(String dir, String fileName) {
+        return new ConfigSnapshot(
+                dir == null || dir.isBlank()
+                        ? null
+                        : Path.of(dir, fileName)
+        );
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /** File name -> source map; empty if there is no usable snapshot. */
+    public Map<String, Map<String, Object>> read() {
+
+        if (file == null || !Files.isRegularFile(file)) {
+            return Map.of();
+        }
+
+        try {
+
+            return MAPPER.readValue(file.toFile(), SOURCES);
+
+        } catch (IOException e) {
+
+            log.warn(
+                    "Ignoring unreadable config snapshot {}: {}",
+                    file,
+                    e.getMessage()
+            );
+
+            return Map.of();
+        }
+    }
+
+    /**
+     * Replaces the snapshot; written to a temp file and moved into place
+     * so a crash never leaves a partial file. Failures are only logged.
+     */
+    public void write(Map<String, Map<String, Object>> sources) {
+
+        if (file == null) {
+            return;
+        }
+
+        try {
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+
+            Path temp = Files.createTempFile(
+                    file.toAbsolutePath().getParent(),
+                    file.getFileName().toString(),
+                    ".tmp"
+            );
+
+            try {
+
+                MAPPER.writeValue(temp.toFile(), new LinkedHashMap<>(sources));
+
+                try {
+                    Files.move(
+                            temp,
+                            file,
+                            StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE
+                    );
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            log.info(
+                    "Wrote config snapshot {} ({} source(s))",
+                    file,
+                    sources.size()
+            );
+
+        } catch (IOException e) {
+
+            log.warn(
+                    "Could not write config snapshot {}: {}",
+                    file,
+                    e.getMessage()
+            );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file != null ? file.toString() : "(disabled)";
+    }
+}
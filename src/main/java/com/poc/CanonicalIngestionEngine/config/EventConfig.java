@@ -12,6 +12,18 @@ public class EventConfig {
     private String description;      // Human-readable description
     private List<TableConfig> tables;  // All tables for this event
 
+    // Payload validation strategy (full-bind / streaming-check / off)
+    private PayloadValidationMode payloadValidation =
+            PayloadValidationMode.FULL_BIND;
+
+    // Payload extraction strategy (tree / streaming)
+    private PayloadExtractionMode payloadExtraction =
+            PayloadExtractionMode.TREE;
+
+    // Payload paths holding the transaction id, tried in order;
+    // unset = EventPlan.DEFAULT_TRANSACTION_ID_PATHS
+    private List<String> transactionIdPaths;
+
     public String getEventName() {
         return eventName;
     }
@@ -35,4 +47,28 @@ public class EventConfig {
     public void setTables(List<TableConfig> tables) {
         this.tables = tables;
     }
-}
\ No newline at end of file
+
+    public PayloadValidationMode getPayloadValidation() {
+        return payloadValidation;
+    }
+
+    public void setPayloadValidation(PayloadValidationMode payloadValidation) {
+        this.payloadValidation = payloadValidation;
+    }
+
+    public PayloadExtractionMode getPayloadExtraction() {
+        return payloadExtraction;
+    }
+
+    public void setPayloadExtraction(PayloadExtractionMode payloadExtraction) {
+        this.payloadExtraction = payloadExtraction;
+    }
+
+    public List<String> getTransactionIdPaths() {
+        return transactionIdPaths;
+    }
+
+    public void setTransactionIdPaths(List<String> transactionIdPaths) {
+        this.transactionIdPaths = transactionIdPaths;
+    }
+}
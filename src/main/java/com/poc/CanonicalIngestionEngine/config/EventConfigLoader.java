@@ -1,29 +1,79 @@
 package com.poc.CanonicalIngestionEngine.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
 
-import java.net.URL;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class EventConfigLoader {
+public class EventConfigLoader implements SmartInitializingSingleton {
 
     private static final Logger log =
             LoggerFactory.getLogger(EventConfigLoader.class);
 
-    private final Map<String, EventConfig> configCache =
+    /**
+     * Everything loaded from the config server at one point in time.
+     * Never modified: a reload builds the next catalog and publishes it
+     * with a single volatile write, so a reader sees either the old or
+     * the new set of configs, never a mix.
+     */
+    private static final class Catalog {
+
+        static final Catalog EMPTY =
+                new Catalog(Map.of(), Map.of(), Map.of(), 0);
+
+        // EVENT_NAME (upper case) -> config
+        final Map<String, EventConfig> configs;
+
+        // Event file -> property source it was bound from (for diffing)
+        final Map<String, Map<String, Object>> sources;
+
+        // Event file -> EVENT_NAME it bound to
+        final Map<String, String> events;
+
+        final long version;
+
+        Catalog(
+                Map<String, EventConfig> configs,
+                Map<String, Map<String, Object>> sources,
+                Map<String, String> events,
+                long version
+        ) {
+            this.configs = Collections.unmodifiableMap(configs);
+            this.sources = Collections.unmodifiableMap(sources);
+            this.events = Collections.unmodifiableMap(events);
+            this.version = version;
+        }
+    }
+
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    // Execution plan per event, compiled from the current catalog
+    private final Map<String, EventPlan> planCache =
             new ConcurrentHashMap<>();
 
     private static final List<String> EVENT_FILES = List.of(
@@ -43,9 +93,36 @@ public class EventConfigLoader {
             "PAY_event"
     );
 
+    private static final String SNAPSHOT_FILE = "event-configs.json";
+
     @Value("${config.server.url:http://localhost:8888}")
     private String configServerUrl;
 
+    @Value("${config.server.connect-timeout:2s}")
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    @Value("${config.server.read-timeout:5s}")
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    // Blank = no snapshot (cold start from the config server only)
+    @Value("${config.snapshot.dir:}")
+    private String snapshotDir;
+
+    private ConfigServerClient client;
+
+    private volatile boolean warmStarted;
+
+    // Optional so the loader can still be created with new in tests
+    @Autowired(required = false)
+    private DataMapper dataMapper;
+
+    // Providers: the registry itself depends on this loader
+    @Autowired(required = false)
+    private ObjectProvider<TableMetadataRegistry> metadataRegistry;
+
+    @Autowired(required = false)
+    private ObjectProvider<DynamicSqlBuilder> sqlBuilder;
+
     @PostConstruct
     public void init() {
 
@@ -53,49 +130,183 @@ public class EventConfigLoader {
         log.info("EventConfigLoader: Loading Event Configurations");
         log.info("========================================");
 
-        ObjectMapper mapper = new ObjectMapper();
+        StopWatch phases = new StopWatch("EventConfigLoader");
 
-        for (String eventFile : EVENT_FILES) {
+        ConfigSnapshot snapshot = snapshot();
 
-            String url =
-                    configServerUrl + "/" + eventFile + "/default";
+        phases.start("snapshot-read");
+        Map<String, Map<String, Object>> cached = snapshot.read();
+        phases.stop();
 
-            log.info("Fetching config from: {}", url);
+        if (!cached.isEmpty()) {
 
-            try {
+            // Warm start: serve the last known configs right away
+            phases.start("bind");
+            publish(cached, Set.of());
+            phases.stop();
 
-                Map<String, Object> response =
-                        mapper.readValue(new URL(url), Map.class);
+            log.info(
+                    "Booted from config snapshot {}, reconciling after startup",
+                    snapshot
+            );
 
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> propertySources =
-                        (List<Map<String, Object>>)
-                                response.get("propertySources");
+            warmStarted = true;
 
-                if (propertySources == null ||
-                        propertySources.isEmpty()) {
+        } else {
 
-                    log.warn(
-                            "No property sources found for: {}",
-                            eventFile
-                    );
+            phases.start("fetch");
+            Map<String, Map<String, Object>> fetched =
+                    client().fetchSources(EVENT_FILES);
+            phases.stop();
 
-                    continue;
-                }
+            phases.start("bind");
+            publish(fetched, Set.of());
+            phases.stop();
+
+            if (!fetched.isEmpty()) {
+                phases.start("snapshot-write");
+                snapshot.write(catalog.sources);
+                phases.stop();
+            }
+        }
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> source =
-                        (Map<String, Object>)
-                                propertySources.get(0).get("source");
+        log.info("========================================");
+        log.info(
+                "Loaded {} event configuration(s)",
+                catalog.configs.size()
+        );
+        log.info("========================================");
+        log.info(
+                "Startup phases\n{}",
+                phases.prettyPrint(TimeUnit.MILLISECONDS)
+        );
+    }
 
-                Binder binder = new Binder(
-                        new MapConfigurationPropertySource(source)
-                );
+    /**
+     * True if init() booted from the snapshot, which still has to be
+     * reconciled with the config server; {@link ConfigReloader} does that
+     * once the context is refreshed.
+     */
+    public boolean isWarmStarted() {
+        return warmStarted;
+    }
+
+    // =====================================================
+    // RELOAD
+    // =====================================================
+
+    /**
+     * Fetches every event file and rebinds only the ones whose source
+     * differs from the current catalog. A file the server no longer has
+     * drops its event; a file that could not be read keeps its current
+     * version. The changes are published with one atomic swap and the
+     * snapshot is rewritten.
+     *
+     * Events already parsed keep the plan they were parsed with, so they
+     * finish on the previous version.
+     *
+     * @return the events whose config was replaced, added or dropped
+     */
+    public synchronized ConfigChanges reload() {
+
+        long start = System.nanoTime();
+
+        ConfigServerClient.Fetched result =
+                client().fetch(EVENT_FILES);
+
+        Map<String, Map<String, Object>> fetched =
+                result.getSources();
+
+        if (fetched.isEmpty()) {
+
+            log.warn(
+                    "Config server returned no event configs, keeping current"
+            );
+
+            return ConfigChanges.NONE;
+        }
 
-                EventConfig config = binder.bind(
-                        "",
-                        Bindable.of(EventConfig.class)
-                ).orElse(null);
+        Map<String, Map<String, Object>> changed =
+                new LinkedHashMap<>();
+
+        Catalog current = catalog;
+
+        fetched.forEach((name, source) -> {
+            if (!source.equals(current.sources.get(name))) {
+                changed.put(name, source);
+            }
+        });
+
+        Set<String> gone = new LinkedHashSet<>(result.getAbsent());
+        gone.retainAll(current.sources.keySet());
+
+        ConfigChanges events = changed.isEmpty() && gone.isEmpty()
+                ? ConfigChanges.NONE
+                : publish(changed, gone);
+
+        if (!events.isEmpty()) {
+            snapshot().write(catalog.sources);
+        }
+
+        log.info(
+                "Reloaded event configs | fetched={} | changed={} | gone={} | events={} | version={} | {}ms",
+                fetched.size(),
+                changed.keySet(),
+                gone,
+                events,
+                catalog.version,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return events;
+    }
+
+    /**
+     * Drops the events of the gone files, binds the given sources on top
+     * of the current catalog and swaps the result in. An event whose
+     * file now binds to another name is dropped under its old name.
+     * Plans and compiled paths of the replaced and dropped configs are
+     * released; every other event keeps its caches.
+     *
+     * @return names of the events that were bound or dropped
+     */
+    private synchronized ConfigChanges publish(
+            Map<String, Map<String, Object>> sources,
+            Set<String> goneFiles
+    ) {
+
+        Catalog current = catalog;
+
+        Map<String, EventConfig> configs =
+                new LinkedHashMap<>(current.configs);
+
+        Map<String, Map<String, Object>> bound =
+                new LinkedHashMap<>(current.sources);
+
+        Map<String, String> fileEvents =
+                new LinkedHashMap<>(current.events);
+
+        Set<String> events = new LinkedHashSet<>();
+
+        // Names no file binds to any more, checked once all are bound
+        Set<String> orphans = new LinkedHashSet<>();
+
+        for (String eventFile : goneFiles) {
+
+            bound.remove(eventFile);
+
+            String key = fileEvents.remove(eventFile);
+
+            if (key != null) {
+                orphans.add(key);
+            }
+        }
+
+        sources.forEach((eventFile, source) -> {
+
+            try {
+
+                EventConfig config = bind(source);
 
                 if (config == null) {
 
@@ -104,22 +315,19 @@ public class EventConfigLoader {
                             eventFile
                     );
 
-                    continue;
+                    return;
                 }
 
-                if (config.getTables() != null) {
+                String key = config.getEventName().toUpperCase();
+                String previous = fileEvents.put(eventFile, key);
 
-                    config.getTables().sort(
-                            Comparator.comparingInt(
-                                    TableConfig::getOrder
-                            )
-                    );
+                if (previous != null && !previous.equals(key)) {
+                    orphans.add(previous);
                 }
 
-                configCache.put(
-                        config.getEventName().toUpperCase(),
-                        config
-                );
+                configs.put(key, config);
+                bound.put(eventFile, source);
+                events.add(key);
 
                 log.info(
                         "Loaded Event Configuration: {}",
@@ -134,14 +342,200 @@ public class EventConfigLoader {
                         ex
                 );
             }
+        });
+
+        Set<String> removed = new LinkedHashSet<>();
+
+        for (String key : orphans) {
+            if (!fileEvents.containsValue(key)
+                    && configs.remove(key) != null) {
+                removed.add(key);
+            }
+        }
+
+        if (events.isEmpty() && removed.isEmpty()) {
+            return ConfigChanges.NONE;
+        }
+
+        catalog = new Catalog(configs, bound, fileEvents, current.version + 1);
+
+        for (String key : events) {
+
+            // Recompiled from the new config on next use
+            planCache.remove(key);
+
+            if (dataMapper != null) {
+                dataMapper.release(
+                        current.configs.get(key),
+                        configs.get(key)
+                );
+            }
+        }
+
+        for (String key : removed) {
+
+            planCache.remove(key);
+
+            if (dataMapper != null) {
+                dataMapper.release(current.configs.get(key), null);
+            }
+
+            log.info("Removed Event Configuration: {}", key);
+        }
+
+        return new ConfigChanges(events, removed);
+    }
+
+    // =====================================================
+    // BIND
+    // =====================================================
+
+    private EventConfig bind(Map<String, Object> source) {
+
+        Binder binder = new Binder(
+                new MapConfigurationPropertySource(source)
+        );
+
+        EventConfig config = binder.bind(
+                "",
+                Bindable.of(EventConfig.class)
+        ).orElse(null);
+
+        if (config == null) {
+            return null;
+        }
+
+        if (config.getTables() != null) {
+
+            config.getTables().sort(
+                    Comparator.comparingInt(
+                            TableConfig::getOrder
+                    )
+            );
+        }
+
+        if (dataMapper != null) {
+            dataMapper.precompile(config);
+        }
+
+        return config;
+    }
+
+    private ConfigSnapshot snapshot() {
+        return ConfigSnapshot.in(snapshotDir, SNAPSHOT_FILE);
+    }
+
+    // Built on first use, once the @Value fields are set
+    private synchronized ConfigServerClient client() {
+
+        if (client == null) {
+            client = new ConfigServerClient(
+                    configServerUrl,
+                    connectTimeout,
+                    readTimeout
+            );
+        }
+
+        return client;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+
+        if (client != null) {
+            client.close();
+            client = null;
+        }
+    }
+
+    // =====================================================
+    // EXECUTION PLANS
+    // =====================================================
+
+    /**
+     * Compiles every loaded config once all beans exist, so the column
+     * metadata preloaded by TableMetadataRegistry is available.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        long start = System.nanoTime();
+
+        for (EventConfig config : catalog.configs.values()) {
+            compilePlan(config);
         }
 
-        log.info("========================================");
         log.info(
-                "Loaded {} event configuration(s)",
-                configCache.size()
+                "Compiled {} event plan(s) in {}ms",
+                planCache.size(),
+                (System.nanoTime() - start) / 1_000_000
         );
-        log.info("========================================");
+    }
+
+    /**
+     * Compiled plan for an event, or null if the event is not
+     * configured. Recompiled when the config has been reloaded or the
+     * table metadata refreshed since.
+     */
+    public EventPlan getPlan(String eventName) {
+
+        if (eventName == null) {
+            return null;
+        }
+
+        String key = eventName.toUpperCase();
+
+        EventConfig config = catalog.configs.get(key);
+
+        if (config == null) {
+            return null;
+        }
+
+        EventPlan plan = planCache.get(key);
+
+        // Identity: a plan compiled from a replaced config is stale
+        if (plan != null
+                && plan.getConfig() == config
+                && !isStale(plan)) {
+            return plan;
+        }
+
+        return compilePlan(config);
+    }
+
+    private EventPlan compilePlan(EventConfig config) {
+
+        EventPlan plan = EventPlan.compile(
+                config,
+                metadataRegistry != null
+                        ? metadataRegistry.getIfAvailable()
+                        : null,
+                sqlBuilder != null
+                        ? sqlBuilder.getIfAvailable()
+                        : null
+        );
+
+        planCache.put(
+                config.getEventName().toUpperCase(),
+                plan
+        );
+
+        log.debug("Compiled event plan {}", plan);
+
+        return plan;
+    }
+
+    private boolean isStale(EventPlan plan) {
+
+        if (metadataRegistry == null) {
+            return false;
+        }
+
+        TableMetadataRegistry registry =
+                metadataRegistry.getIfAvailable();
+
+        return registry != null
+                && registry.getVersion() != plan.getMetadataVersion();
     }
 
     public EventConfig get(String eventName) {
@@ -150,13 +544,13 @@ public class EventConfigLoader {
             return null;
         }
 
-        return configCache.get(
+        return catalog.configs.get(
                 eventName.toUpperCase()
         );
     }
 
     public Collection<EventConfig> getAllConfigs() {
-        return configCache.values();
+        return catalog.configs.values();
     }
 
     public boolean contains(String eventName) {
@@ -165,8 +559,13 @@ public class EventConfigLoader {
             return false;
         }
 
-        return configCache.containsKey(
+        return catalog.configs.containsKey(
                 eventName.toUpperCase()
         );
     }
+
+    /** Incremented by every reload that replaced at least one config. */
+    public long getVersion() {
+        return catalog.version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.poc.CanonicalIngestionEngine.mapping.CompiledPath;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An {@link EventConfig} compiled for execution: table roles, the update
+ * target, the update flow, the transaction-id paths and the payload
+ * paths the flows read are all decided once here, so the insert and
+ * update flows do no string dispatch per event.
+ *
+ * Built by {@link EventConfigLoader}; immutable.
+ */
+public final class EventPlan {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(EventPlan.class);
+
+    /**
+     * What an update ("U") event does.
+     */
+    public enum UpdateFlow {
+
+        /** Fills SW_SER_NUM of an existing transaction (AIS2). */
+        SWITCH_SERIAL_ENRICHMENT,
+
+        /** Status transition check, null-field merge, status update. */
+        CLEARING
+    }
+
+    // Payload fields that may carry the transaction id, in priority
+    // order; used when the event configures no transactionIdPaths
+    public static final List<String> DEFAULT_TRANSACTION_ID_PATHS = List.of(
+            "accountInformationId",
+            "paymentTransactionId",
+            "transactionId",
+            "authorizationId",
+            "fundingTransactionId",
+            "avsTranId",
+            "nvsTranId",
+            "refundTransactionId",
+            "reversalTransactionId",
+            "settlementTransactionId"
+    );
+
+    // Payload fields read by the update flows themselves
+    private static final List<String> FLOW_PATHS = List.of(
+            "status",
+            "switchSerialNumber"
+    );
+
+    private static final List<CompiledPath> DEFAULT_COMPILED_ID_PATHS =
+            compileAll(DEFAULT_TRANSACTION_ID_PATHS);
+
+    private final EventConfig config;
+    private final List<TablePlan> tables;
+    private final TablePlan updateTable;
+    private final UpdateFlow updateFlow;
+    private final PayloadValidationMode validationMode;
+    private final List<CompiledPath> transactionIdPaths;
+    private final List<String> projectedPaths;
+    private final long metadataVersion;
+
+    private EventPlan(
+            EventConfig config,
+            List<TablePlan> tables,
+            UpdateFlow updateFlow,
+            PayloadValidationMode validationMode,
+            List<CompiledPath> transactionIdPaths,
+            List<String> projectedPaths,
+            long metadataVersion
+    ) {
+        this.config = config;
+        this.tables = List.copyOf(tables);
+        this.updateTable = this.tables.stream()
+                .filter(t -> t.getRole().isUpdateTarget())
+                .findFirst()
+                .orElse(null);
+        this.updateFlow = updateFlow;
+        this.validationMode = validationMode;
+        this.transactionIdPaths = List.copyOf(transactionIdPaths);
+        this.projectedPaths = List.copyOf(projectedPaths);
+        this.metadataVersion = metadataVersion;
+    }
+
+    // =====================================================
+    // COMPILE
+    // =====================================================
+
+    /**
+     * @param registry   validates mapped columns; may be null
+     * @param sqlBuilder resolves the per-table templates; may be null
+     */
+    public static EventPlan compile(
+            EventConfig config,
+            TableMetadataRegistry registry,
+            DynamicSqlBuilder sqlBuilder
+    ) {
+
+        List<TablePlan> tables = new ArrayList<>();
+
+        if (config.getTables() != null) {
+            for (TableConfig table : config.getTables()) {
+                tables.add(TablePlan.compile(table, registry, sqlBuilder));
+            }
+        }
+
+        List<String> idPaths =
+                config.getTransactionIdPaths() == null
+                        || config.getTransactionIdPaths().isEmpty()
+                        ? DEFAULT_TRANSACTION_ID_PATHS
+                        : config.getTransactionIdPaths();
+
+        Set<String> projected = new LinkedHashSet<>(idPaths);
+        projected.addAll(FLOW_PATHS);
+
+        UpdateFlow updateFlow =
+                "AIS2".equalsIgnoreCase(config.getEventName())
+                        ? UpdateFlow.SWITCH_SERIAL_ENRICHMENT
+                        : UpdateFlow.CLEARING;
+
+        return new EventPlan(
+                config,
+                tables,
+                updateFlow,
+                validationMode(config),
+                idPaths == DEFAULT_TRANSACTION_ID_PATHS
+                        ? DEFAULT_COMPILED_ID_PATHS
+                        : compileAll(idPaths),
+                new ArrayList<>(projected),
+                registry != null ? registry.getVersion() : -1
+        );
+    }
+
+    /**
+     * FULL_BIND needs the whole payload bound, which would parse a
+     * STREAMING payload a second time and cost more than the tree path.
+     * Streaming events are checked against the DTO schema in a token
+     * pass instead (PayloadSchema rejects what binding would).
+     */
+    private static PayloadValidationMode validationMode(EventConfig config) {
+
+        PayloadValidationMode mode =
+                config.getPayloadValidation() != null
+                        ? config.getPayloadValidation()
+                        : PayloadValidationMode.FULL_BIND;
+
+        if (mode == PayloadValidationMode.FULL_BIND
+                && config.getPayloadExtraction() == PayloadExtractionMode.STREAMING) {
+
+            log.warn(
+                    "Event {} uses streaming extraction; validating with {} instead of {}",
+                    config.getEventName(),
+                    PayloadValidationMode.STREAMING_CHECK,
+                    PayloadValidationMode.FULL_BIND
+            );
+
+            return PayloadValidationMode.STREAMING_CHECK;
+        }
+
+        return mode;
+    }
+
+    private static List<CompiledPath> compileAll(List<String> paths) {
+        return paths.stream()
+                .map(CompiledPath::compile)
+                .toList();
+    }
+
+    /**
+     * Transaction-id paths for a payload of an unconfigured event.
+     */
+    public static List<CompiledPath> defaultTransactionIdPaths() {
+        return DEFAULT_COMPILED_ID_PATHS;
+    }
+
+    // =====================================================
+    // ACCESSORS
+    // =====================================================
+
+    public String getEventName() {
+        return config.getEventName();
+    }
+
+    /** The config this plan was compiled from (do not modify). */
+    public EventConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * The configured mode, except that a STREAMING event never binds
+     * (see {@link #validationMode}).
+     */
+    public PayloadValidationMode getValidationMode() {
+        return validationMode;
+    }
+
+    public PayloadExtractionMode getExtractionMode() {
+        return config.getPayloadExtraction() != null
+                ? config.getPayloadExtraction()
+                : PayloadExtractionMode.TREE;
+    }
+
+    /** Every table in processing order. */
+    public List<TablePlan> getTables() {
+        return tables;
+    }
+
+    /**
+     * First table that is neither address nor child, or null when the
+     * event has none.
+     */
+    public TablePlan getUpdateTable() {
+        return updateTable;
+    }
+
+    public UpdateFlow getUpdateFlow() {
+        return updateFlow;
+    }
+
+    /** Paths tried in order for the transaction id. */
+    public List<CompiledPath> getTransactionIdPaths() {
+        return transactionIdPaths;
+    }
+
+    /**
+     * Paths the flows read besides the table mappings; kept when the
+     * payload is projected (PayloadExtractionMode.STREAMING).
+     */
+    public List<String> getProjectedPaths() {
+        return projectedPaths;
+    }
+
+    /**
+     * TableMetadataRegistry version the columns were validated against,
+     * -1 when compiled without metadata.
+     */
+    public long getMetadataVersion() {
+        return metadataVersion;
+    }
+
+    @Override
+    public String toString() {
+        return getEventName() + " " + tables;
+    }
+}
@@ -1,41 +1,97 @@
-//package com.poc.CanonicalIngestionEngine.config;
-//
-//
-//import org.apache.kafka.clients.consumer.ConsumerConfig;
-//import org.apache.kafka.common.serialization.StringDeserializer;
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
-//import org.springframework.kafka.core.ConsumerFactory;
-//import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-//
-//import java.util.HashMap;
-//import java.util.Map;
-//
-//@Configuration
-//public class KafkaConsumerConfig {
-//    @Bean
-//    public ConsumerFactory<String, String> consumerFactory() {
-//
-//        Map<String, Object> config = new HashMap<>();
-//
-//        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-//        config.put(ConsumerConfig.GROUP_ID_CONFIG, "canonical-group");
-//        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-//        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-//        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-//
-//        return new DefaultKafkaConsumerFactory<>(config);
-//    }
-//
-//    @Bean
-//    public ConcurrentKafkaListenerContainerFactory<String, String>
-//    kafkaListenerContainerFactory() {
-//
-//        ConcurrentKafkaListenerContainerFactory<String, String> factory =
-//                new ConcurrentKafkaListenerContainerFactory<>();
-//
-//        factory.setConsumerFactory(consumerFactory());
-//        return factory;
-//    }
-//}
+package com.poc.CanonicalIngestionEngine.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Batch consumer for canonical events.
+ *
+ * Values are read as raw bytes and deserialized by the listener, so one
+ * bad record cannot fail the whole poll. Auto-commit is off: the listener
+ * acknowledges a batch only after its DB transaction has committed, and a
+ * batch that fails is redelivered (retried every backoffMs until the DB
+ * is back) instead of being skipped.
+ */
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(prefix = "ingestion.kafka", name = "enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    @Value("${ingestion.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${ingestion.kafka.group-id:canonical-group}")
+    private String groupId;
+
+    @Value("${ingestion.kafka.concurrency:3}")
+    private int concurrency;
+
+    @Value("${ingestion.kafka.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${ingestion.kafka.fetch-min-bytes:1}")
+    private int fetchMinBytes;
+
+    @Value("${ingestion.kafka.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    @Value("${ingestion.kafka.max-partition-fetch-bytes:1048576}")
+    private int maxPartitionFetchBytes;
+
+    @Value("${ingestion.kafka.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Bean
+    public ConsumerFactory<String, byte[]> consumerFactory() {
+
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, maxPartitionFetchBytes);
+
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]>
+    kafkaListenerContainerFactory() {
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties()
+                .setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        // Redeliver the whole batch until it commits; never skip events
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(retryBackoffMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
+
+        return factory;
+    }
+}
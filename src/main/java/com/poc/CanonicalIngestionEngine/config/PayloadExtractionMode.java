@@ -0,0 +1,24 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+/**
+ * How an event's payload is read before mapping.
+ *
+ * Configured per event type via "payloadExtraction" in the event config
+ * (e.g. payloadExtraction: streaming).
+ */
+public enum PayloadExtractionMode {
+
+    /** Parse the whole payload into a JsonNode tree. */
+    TREE,
+
+    /**
+     * One forward parser pass keeping only the fields referenced by the
+     * event's mappings; unreferenced subtrees are skipped unparsed.
+     * FULL_BIND validation becomes STREAMING_CHECK for these events.
+     *
+     * Business rules get no parsed "payload" fact for these events, since
+     * the projection lacks every unmapped field; rules that inspect the
+     * payload must use the eventPayload text.
+     */
+    STREAMING
+}
@@ -0,0 +1,19 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+/**
+ * How an event's payload is validated against TransactionEventAxonMessage.
+ *
+ * Configured per event type via "payloadValidation" in the event config
+ * (e.g. payloadValidation: streaming-check).
+ */
+public enum PayloadValidationMode {
+
+    /** Bind the payload into the DTO (strictest, most expensive). */
+    FULL_BIND,
+
+    /** One token pass against a schema derived from the DTO, no binding. */
+    STREAMING_CHECK,
+
+    /** No payload validation. */
+    OFF
+}
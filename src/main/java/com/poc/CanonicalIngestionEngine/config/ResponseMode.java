@@ -0,0 +1,26 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+/**
+ * What POST /api/v1/ingestion returns on success.
+ *
+ * Configured with ingestion.response-mode (default ACK).
+ */
+public enum ResponseMode {
+
+    /**
+     * Status and eventId only. No reads after the write.
+     */
+    ACK,
+
+    /**
+     * Status plus the stored rows of every table, read back through the
+     * connection pool.
+     */
+    ROWS,
+
+    /**
+     * Status plus a readbackUrl pointing at
+     * GET /api/v1/ingestion/transactions/{tranId}.
+     */
+    LINK
+}
@@ -14,6 +14,8 @@ public class TableConfig {
     private String type;                // main, detail, recipient, address
     private String parentIdField;       // e.g., "TRAN_ID" for child tables
     private boolean autoGenerateId;     // Whether to add UUID for ID column
+    private String idGenerator;         // time-ordered (default), random-uuid, or class name
+    private UpsertStrategy upsertStrategy = UpsertStrategy.EXISTS_CHECK;
 
     // Mapping: column_name -> jsonPath
     private Map<String, String> mapping;
@@ -66,6 +68,22 @@ public class TableConfig {
         this.autoGenerateId = autoGenerateId;
     }
 
+    public String getIdGenerator() {
+        return idGenerator;
+    }
+
+    public void setIdGenerator(String idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    public UpsertStrategy getUpsertStrategy() {
+        return upsertStrategy;
+    }
+
+    public void setUpsertStrategy(UpsertStrategy upsertStrategy) {
+        this.upsertStrategy = upsertStrategy;
+    }
+
     public Map<String, String> getMapping() {
         return mapping;
     }
@@ -0,0 +1,513 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.poc.CanonicalIngestionEngine.id.IdGenerator;
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One configured table, resolved for execution: its role, the mapping
+ * reduced to columns the table really has, the id generator and the
+ * SQL templates for the row the insert flow writes (one per address
+ * type for an address table).
+ *
+ * Immutable; part of an {@link EventPlan}.
+ */
+public final class TablePlan {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TablePlan.class);
+
+    public static final String TRANSACTION_TABLE = "SEND_TRANSACTIONS";
+
+    private static final String KEY_COLUMN = "TRAN_ID";
+
+    // Set by DataMapper.mapAddress besides the field mapping
+    private static final String ADDRESS_TYPE_COLUMN = "ADDR_TYPE";
+
+    // Columns every inserted row carries besides its mapping
+    // (IngestionService.applyDefaults)
+    private static final List<String> ROW_DEFAULTS = List.of(
+            "CUR_STAT",
+            "NON_FIN_TXN",
+            "RPLCTN_UPDT_TS"
+    );
+
+    private final TableConfig config;
+    private final TableRole role;
+    private final boolean transactionTable;
+    private final Map<String, String> mapping;
+    private final List<String> mandatory;
+
+    // Set only for a table-specific generator that resolved
+    private final IdGenerator idGenerator;
+
+    // Columns of a fully mapped row and the statements for exactly
+    // that set; null when they could not be resolved at compile time
+    private final Set<String> rowColumns;
+    private final SqlTemplate insertTemplate;
+    private final SqlTemplate mergeTemplate;
+
+    // Address tables only, in configured order
+    private final List<AddressPlan> addresses;
+
+    private TablePlan(
+            TableConfig config,
+            TableRole role,
+            Map<String, String> mapping,
+            IdGenerator idGenerator,
+            Set<String> rowColumns,
+            SqlTemplate insertTemplate,
+            SqlTemplate mergeTemplate,
+            List<AddressPlan> addresses
+    ) {
+        this.config = config;
+        this.role = role;
+        this.transactionTable =
+                TRANSACTION_TABLE.equalsIgnoreCase(config.getTableName());
+        this.mapping = mapping;
+        this.mandatory = config.getMandatory() == null
+                ? List.of()
+                : List.copyOf(config.getMandatory());
+        this.idGenerator = idGenerator;
+        this.rowColumns = rowColumns;
+        this.insertTemplate = insertTemplate;
+        this.mergeTemplate = mergeTemplate;
+        this.addresses = addresses;
+    }
+
+    // =====================================================
+    // COMPILE
+    // =====================================================
+
+    /**
+     * @param registry   column metadata; null keeps the mapping as is
+     * @param sqlBuilder resolves the row templates; null skips them
+     */
+    public static TablePlan compile(
+            TableConfig table,
+            TableMetadataRegistry registry,
+            DynamicSqlBuilder sqlBuilder
+    ) {
+
+        TableRole role =
+                TableRole.of(table.getType(), table.getTableName());
+
+        TableMetadata metadata = metadata(table, registry);
+
+        Map<String, String> mapping =
+                validatedMapping(table, table.getMapping(), metadata);
+
+        Set<String> rowColumns =
+                rowColumns(table, mapping);
+
+        SqlTemplate insertTemplate = null;
+        SqlTemplate mergeTemplate = null;
+
+        if (sqlBuilder != null && role != TableRole.ADDRESS) {
+
+            try {
+
+                insertTemplate = sqlBuilder.buildInsertTemplate(
+                        table.getTableName(),
+                        rowColumns,
+                        table.isAutoGenerateId()
+                );
+
+                if (table.getUpsertStrategy() == UpsertStrategy.MERGE
+                        && rowColumns.contains(KEY_COLUMN)) {
+
+                    mergeTemplate = sqlBuilder.buildMergeTemplate(
+                            table.getTableName(),
+                            rowColumns,
+                            KEY_COLUMN,
+                            table.isAutoGenerateId()
+                    );
+                }
+
+            } catch (RuntimeException e) {
+
+                // Built per event instead, where the error surfaces
+                log.warn(
+                        "Could not resolve SQL for table={}: {}",
+                        table.getTableName(),
+                        e.getMessage()
+                );
+            }
+        }
+
+        List<AddressPlan> addresses = role == TableRole.ADDRESS
+                ? addressPlans(table, metadata, sqlBuilder)
+                : List.of();
+
+        return new TablePlan(
+                table,
+                role,
+                mapping,
+                idGenerator(table),
+                Collections.unmodifiableSet(rowColumns),
+                insertTemplate,
+                mergeTemplate,
+                addresses
+        );
+    }
+
+    /**
+     * Drops mapped columns the table does not have, so they are never
+     * extracted. TRAN_ID and mandatory columns are always kept; without
+     * metadata (no registry, unknown table) the mapping is unchanged.
+     */
+    private static Map<String, String> validatedMapping(
+            TableConfig table,
+            Map<String, String> configured,
+            TableMetadata metadata
+    ) {
+
+        if (configured == null) {
+            return Map.of();
+        }
+
+        Map<String, String> mapping =
+                new LinkedHashMap<>(configured);
+
+        if (metadata == null || !metadata.exists()) {
+            return Collections.unmodifiableMap(mapping);
+        }
+
+        Set<String> dropped = new LinkedHashSet<>();
+
+        mapping.keySet().removeIf(column -> {
+
+            boolean drop = !metadata.hasColumn(column)
+                    && !KEY_COLUMN.equalsIgnoreCase(column)
+                    && (table.getMandatory() == null
+                    || !table.getMandatory().contains(column));
+
+            if (drop) {
+                dropped.add(column);
+            }
+
+            return drop;
+        });
+
+        if (!dropped.isEmpty()) {
+            log.warn(
+                    "Ignoring mapped columns {} not present in table={}",
+                    dropped,
+                    table.getTableName()
+            );
+        }
+
+        return Collections.unmodifiableMap(mapping);
+    }
+
+    private static TableMetadata metadata(
+            TableConfig table,
+            TableMetadataRegistry registry
+    ) {
+
+        if (registry == null || table.getTableName() == null) {
+            return null;
+        }
+
+        try {
+            return registry.table(table.getTableName());
+        } catch (RuntimeException e) {
+            log.warn(
+                    "No metadata for table={}, mapping kept as configured: {}",
+                    table.getTableName(),
+                    e.getMessage()
+            );
+            return null;
+        }
+    }
+
+    private static Set<String> rowColumns(
+            TableConfig table,
+            Map<String, String> mapping
+    ) {
+
+        Set<String> columns = new LinkedHashSet<>(mapping.keySet());
+
+        if (table.isAutoGenerateId()) {
+            columns.add("ID");
+        }
+
+        columns.addAll(ROW_DEFAULTS);
+
+        if (TRANSACTION_TABLE.equalsIgnoreCase(table.getTableName())) {
+            columns.add("STATUS");
+        }
+
+        return columns;
+    }
+
+    /**
+     * One plan per configured address type: its validated field mapping,
+     * the columns of the row DataMapper.mapAddress returns once the id
+     * and parent column are set, and the insert for them.
+     */
+    private static List<AddressPlan> addressPlans(
+            TableConfig table,
+            TableMetadata metadata,
+            DynamicSqlBuilder sqlBuilder
+    ) {
+
+        if (table.getAddressTypes() == null) {
+            return List.of();
+        }
+
+        List<AddressPlan> plans = new ArrayList<>();
+
+        for (TableConfig.AddressTypeMapping addr : table.getAddressTypes()) {
+
+            Map<String, String> fields =
+                    validatedMapping(table, addr.getFields(), metadata);
+
+            Set<String> columns = new LinkedHashSet<>(fields.keySet());
+            columns.add("ID");
+            columns.add(ADDRESS_TYPE_COLUMN);
+            columns.add(table.getParentIdField());
+
+            SqlTemplate insertTemplate = null;
+
+            if (sqlBuilder != null) {
+
+                try {
+
+                    insertTemplate = sqlBuilder.buildInsertTemplate(
+                            table.getTableName(),
+                            columns,
+                            true
+                    );
+
+                } catch (RuntimeException e) {
+
+                    log.warn(
+                            "Could not resolve SQL for table={} address={}: {}",
+                            table.getTableName(),
+                            addr.getType(),
+                            e.getMessage()
+                    );
+                }
+            }
+
+            plans.add(new AddressPlan(
+                    addr,
+                    fields,
+                    Collections.unmodifiableSet(columns),
+                    insertTemplate
+            ));
+        }
+
+        return List.copyOf(plans);
+    }
+
+    private static IdGenerator idGenerator(TableConfig table) {
+
+        if (table.getIdGenerator() == null) {
+            return null;
+        }
+
+        try {
+            return IdGenerators.byName(table.getIdGenerator());
+        } catch (IllegalArgumentException e) {
+            // Reported by DataMapper.precompile; fails the event in nextId
+            return null;
+        }
+    }
+
+    // =====================================================
+    // EXECUTION
+    // =====================================================
+
+    /**
+     * Insert statement for the given columns; the precompiled one when
+     * they are the planned row, otherwise built (and cached) per call.
+     */
+    public String insertSql(
+            Set<String> columns,
+            DynamicSqlBuilder sqlBuilder
+    ) {
+
+        if (insertTemplate != null && rowColumns.equals(columns)) {
+            return insertTemplate.getSql();
+        }
+
+        for (AddressPlan address : addresses) {
+            if (address.insertTemplate != null && address.columns.equals(columns)) {
+                return address.insertTemplate.getSql();
+            }
+        }
+
+        // Address rows always carry a generated ID
+        return sqlBuilder.buildInsertSql(
+                getTableName(),
+                columns,
+                isAutoGenerateId() || role == TableRole.ADDRESS
+        );
+    }
+
+    /** MERGE keyed on TRAN_ID; same reuse rule as {@link #insertSql}. */
+    public SqlTemplate mergeTemplate(
+            Set<String> columns,
+            DynamicSqlBuilder sqlBuilder
+    ) {
+
+        if (mergeTemplate != null && rowColumns.equals(columns)) {
+            return mergeTemplate;
+        }
+
+        return sqlBuilder.buildMergeTemplate(
+                getTableName(),
+                columns,
+                KEY_COLUMN,
+                isAutoGenerateId()
+        );
+    }
+
+    /**
+     * True when the table names its own id generator; the mapper's
+     * default generator is not used for it then.
+     */
+    public boolean hasTableIdGenerator() {
+        return config.isAutoGenerateId()
+                && config.getIdGenerator() != null;
+    }
+
+    /**
+     * Next id from the table's generator (the default one when none is
+     * configured).
+     *
+     * @throws IllegalArgumentException if the configured generator is
+     *         invalid
+     */
+    public String nextId() {
+        return idGenerator != null
+                ? idGenerator.nextId()
+                : IdGenerators.byName(config.getIdGenerator()).nextId();
+    }
+
+    // =====================================================
+    // ACCESSORS
+    // =====================================================
+
+    /** The table config this plan was compiled from (do not modify). */
+    public TableConfig getConfig() {
+        return config;
+    }
+
+    public TableRole getRole() {
+        return role;
+    }
+
+    public String getTableName() {
+        return config.getTableName();
+    }
+
+    /** SEND_TRANSACTIONS, the table holding STATUS. */
+    public boolean isTransactionTable() {
+        return transactionTable;
+    }
+
+    /** Column -> path, only columns present in the table. */
+    public Map<String, String> getMapping() {
+        return mapping;
+    }
+
+    public List<String> getMandatory() {
+        return mandatory;
+    }
+
+    public boolean isAutoGenerateId() {
+        return config.isAutoGenerateId();
+    }
+
+    public UpsertStrategy getUpsertStrategy() {
+        return config.getUpsertStrategy();
+    }
+
+    /** Columns of a fully mapped insert row. */
+    public Set<String> getRowColumns() {
+        return rowColumns;
+    }
+
+    public SqlTemplate getInsertTemplate() {
+        return insertTemplate;
+    }
+
+    public SqlTemplate getMergeTemplate() {
+        return mergeTemplate;
+    }
+
+    /** Address types of an address table; empty for other roles. */
+    public List<AddressPlan> getAddresses() {
+        return addresses;
+    }
+
+    @Override
+    public String toString() {
+        return getTableName() + " (" + role + ")";
+    }
+
+    // =====================================================
+    // ADDRESS TYPE
+    // =====================================================
+
+    /** One address type of an address table, resolved like the table. */
+    public static final class AddressPlan {
+
+        private final String type;
+        private final String rootPath;
+        private final Map<String, String> fields;
+        private final Set<String> columns;
+        private final SqlTemplate insertTemplate;
+
+        private AddressPlan(
+                TableConfig.AddressTypeMapping config,
+                Map<String, String> fields,
+                Set<String> columns,
+                SqlTemplate insertTemplate
+        ) {
+            this.type = config.getType();
+            this.rootPath = config.getRootPath();
+            this.fields = fields;
+            this.columns = columns;
+            this.insertTemplate = insertTemplate;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getRootPath() {
+            return rootPath;
+        }
+
+        /** Column -> path, only columns present in the table. */
+        public Map<String, String> getFields() {
+            return fields;
+        }
+
+        /** Columns of a fully mapped address row. */
+        public Set<String> getColumns() {
+            return columns;
+        }
+
+        public SqlTemplate getInsertTemplate() {
+            return insertTemplate;
+        }
+    }
+}
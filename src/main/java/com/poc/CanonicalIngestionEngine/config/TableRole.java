@@ -0,0 +1,52 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+/**
+ * What a configured table does in the insert and update flows.
+ *
+ * Derived once per table from its "type" (and, for clearing, its name)
+ * when the event plan is compiled; see {@link #of}.
+ */
+public enum TableRole {
+
+    /** Transaction header; its TRAN_ID becomes the parent id. */
+    MAIN,
+
+    /** Further rows written by the insert flow (detail, recipient, ...). */
+    DETAIL,
+
+    /** One row per configured address type, keyed by the parent id. */
+    ADDRESS,
+
+    /** Not written by the insert flow, never the update target. */
+    CHILD,
+
+    /** Skipped by the insert flow; may be the update target. */
+    CLEARING;
+
+    public static TableRole of(String type, String tableName) {
+
+        if ("clearing".equalsIgnoreCase(type)
+                || "CLEARING".equalsIgnoreCase(tableName)) {
+            return CLEARING;
+        }
+
+        if ("child".equalsIgnoreCase(type)) {
+            return CHILD;
+        }
+
+        if ("address".equalsIgnoreCase(type)) {
+            return ADDRESS;
+        }
+
+        if ("main".equalsIgnoreCase(type)) {
+            return MAIN;
+        }
+
+        return DETAIL;
+    }
+
+    /** Candidate for the table the update flow merges into. */
+    public boolean isUpdateTarget() {
+        return this != ADDRESS && this != CHILD;
+    }
+}
@@ -0,0 +1,22 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+/**
+ * How the insert flow writes a row whose TRAN_ID may already exist.
+ *
+ * Configured per table via "upsertStrategy" in the event config
+ * (e.g. upsertStrategy: merge).
+ */
+public enum UpsertStrategy {
+
+    /**
+     * EXISTS query, then INSERT or fill null columns with an UPDATE.
+     * Two round trips; a concurrent duplicate insert is skipped.
+     */
+    EXISTS_CHECK,
+
+    /**
+     * One MERGE statement: INSERT when the TRAN_ID is new, otherwise
+     * fill only the null / blank columns of the existing row.
+     */
+    MERGE
+}
@@ -1,22 +1,36 @@
 package com.poc.CanonicalIngestionEngine.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.ResponseMode;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
 import com.poc.CanonicalIngestionEngine.model.IngestionResponse;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.InvalidEventException;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.QueueFullException;
+import com.poc.CanonicalIngestionEngine.service.BulkIngestionService;
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter;
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter.NoCapacityException;
 import com.poc.CanonicalIngestionEngine.service.IngestionService;
-import com.poc.CanonicalIngestionEngine.testutil.DbUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -27,9 +41,44 @@ public class IngestController {
             LoggerFactory.getLogger(IngestController.class);
 
     private final IngestionService ingestionService;
+    private final BulkIngestionService bulkIngestionService;
+    private final AsyncIngestionService asyncIngestionService;
+    private final ResponseMode responseMode;
+    private final long retryAfterSeconds;
+    private final DbConcurrencyLimiter dbLimiter;
+
+    public IngestController(
+            IngestionService ingestionService,
+            BulkIngestionService bulkIngestionService,
+            AsyncIngestionService asyncIngestionService,
+            ResponseMode responseMode,
+            long retryAfterSeconds
+    ) {
+        this(
+                ingestionService,
+                bulkIngestionService,
+                asyncIngestionService,
+                responseMode,
+                retryAfterSeconds,
+                DbConcurrencyLimiter.unlimited()
+        );
+    }
 
-    public IngestController(IngestionService ingestionService) {
+    @Autowired
+    public IngestController(
+            IngestionService ingestionService,
+            BulkIngestionService bulkIngestionService,
+            AsyncIngestionService asyncIngestionService,
+            @Value("${ingestion.response-mode:ACK}") ResponseMode responseMode,
+            @Value("${ingestion.async.retry-after-seconds:1}") long retryAfterSeconds,
+            DbConcurrencyLimiter dbLimiter
+    ) {
         this.ingestionService = ingestionService;
+        this.bulkIngestionService = bulkIngestionService;
+        this.asyncIngestionService = asyncIngestionService;
+        this.responseMode = responseMode;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.dbLimiter = dbLimiter;
     }
 
     @PostMapping
@@ -46,137 +95,58 @@ public class IngestController {
                     envelope.getEventName()
             );
 
-            // =====================================================
-            // PROCESS EVENT
-            // =====================================================
-
-            ingestionService.ingest(envelope);
-
-            log.info(
-                    "Ingestion successful | eventId={}",
-                    envelope.getEventId()
-            );
+            if (asyncIngestionService.isEnabled()) {
+                return enqueue(envelope);
+            }
 
             // =====================================================
-            // READ eventPayload
+            // PROCESS EVENT
             // =====================================================
 
-            ObjectMapper mapper = new ObjectMapper();
-
-            JsonNode payload =
-                    mapper.readTree(envelope.getEventPayload());
+            ParsedEvent event =
+                    ingestionService.parse(envelope);
 
             // =====================================================
-            // DYNAMIC TRANSACTION ID
+            // TRANSACTION ID (resolved once while parsing)
+            // Only ROWS and LINK answer with it; checked before the
+            // commit so a missing id never fails a written event
             // =====================================================
 
-            String tranId = null;
-
-            if (payload.has("accountInformationId")) {
-
-                tranId =
-                        payload.get("accountInformationId")
-                                .asText();
-
-            } else if (payload.has("paymentTransactionId")) {
-
-                tranId =
-                        payload.get("paymentTransactionId")
-                                .asText();
-
-            }
-            else if (payload.has("transactionId")) {
-
-                tranId =
-                        payload.get("transactionId")
-                                .asText();
-
-            }
-            else if (payload.has("authorizationId")) {
-
-                tranId =
-                        payload.get("authorizationId")
-                                .asText();
-
-            }
-            else if (payload.has("fundingTransactionId")) {
-
-                tranId =
-                        payload.get("fundingTransactionId")
-                                .asText();
-
-            }
-            else if (payload.has("avsTranId")) {
-
-                tranId =
-                        payload.get("avsTranId")
-                                .asText();
+            String tranId = event.getTransactionId();
 
-            }
-            else if (payload.has("nvsTranId")) {
-
-                tranId =
-                        payload.get("nvsTranId")
-                                .asText();
-
-            }
-            else if (payload.has("refundTransactionId")) {
-
-                tranId =
-                        payload.get("refundTransactionId")
-                                .asText();
-
-            }
-            else if (payload.has("reversalTransactionId")) {
-
-                tranId =
-                        payload.get("reversalTransactionId")
-                                .asText();
-
-            }
-            else if (payload.has("settlementTransactionId")) {
-
-                tranId =
-                        payload.get("settlementTransactionId")
-                                .asText();
-
-            }
-            else {
+            if (tranId == null && responseMode != ResponseMode.ACK) {
 
                 throw new RuntimeException(
                         "Transaction ID not found in payload"
                 );
             }
 
+            dbLimiter.run(() -> ingestionService.ingest(event));
+
+            log.info(
+                    "Ingestion successful | eventId={}",
+                    envelope.getEventId()
+            );
 
             // =====================================================
-            // FETCH DB DATA
+            // READBACK (per response mode)
             // =====================================================
 
-            DbUtils dbUtils = new DbUtils();
+            Map<String, Object> dbData = null;
+            String readbackUrl = null;
 
-            Map<String, Object> dbData =
-                    new HashMap<>();
+            switch (responseMode) {
 
-            dbData.put(
-                    "SEND_TRANSACTIONS",
-                    dbUtils.getTransaction(tranId)
-            );
+                case ROWS -> dbData = new HashMap<>(
+                        dbLimiter.call(() -> ingestionService.readback(tranId)));
 
-            dbData.put(
-                    "SEND_TRAN_DTL",
-                    dbUtils.getTransactionDetails(tranId)
-            );
-
-            dbData.put(
-                    "SEND_RECIP_DTL",
-                    dbUtils.getRecipientDetails(tranId)
-            );
+                case LINK -> readbackUrl =
+                        "/api/v1/ingestion/transactions/" + tranId;
 
-            dbData.put(
-                    "SEND_TRAN_ADDR_DTL",
-                    dbUtils.getAddressDetails(tranId)
-            );
+                default -> {
+                    // ACK: status only
+                }
+            }
 
             // =====================================================
             // FINAL RESPONSE
@@ -190,10 +160,24 @@ public class IngestController {
                             dbData
                     );
 
+            response.setReadbackUrl(readbackUrl);
+
             return ResponseEntity
                     .accepted()
                     .body(response);
 
+        } catch (NoCapacityException e) {
+
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(new IngestionResponse(
+                            "REJECTED",
+                            envelope.getEventId(),
+                            e.getMessage(),
+                            null
+                    ));
+
         } catch (Exception e) {
 
             log.error(
@@ -218,5 +202,137 @@ public class IngestController {
             MDC.clear();
         }
     }
-}
 
+    // =====================================================
+    // ASYNC (receipts)
+    // =====================================================
+
+    private ResponseEntity<IngestionResponse> enqueue(EventEnvelope envelope) {
+
+        try {
+
+            String receiptId =
+                    asyncIngestionService.submit(envelope);
+
+            IngestionResponse response =
+                    new IngestionResponse(
+                            EventResult.PENDING,
+                            envelope.getEventId(),
+                            "Event queued for processing",
+                            null
+                    );
+
+            response.setReceiptId(receiptId);
+
+            return ResponseEntity
+                    .accepted()
+                    .header(HttpHeaders.LOCATION, "/api/v1/ingestion/" + receiptId)
+                    .body(response);
+
+        } catch (InvalidEventException e) {
+
+            log.warn(
+                    "Event does not parse, rejecting | eventId={} | error={}",
+                    envelope.getEventId(),
+                    e.getMessage()
+            );
+
+            return ResponseEntity
+                    .badRequest()
+                    .body(new IngestionResponse(
+                            "FAILED",
+                            envelope.getEventId(),
+                            e.getMessage(),
+                            null
+                    ));
+
+        } catch (QueueFullException e) {
+
+            log.warn(
+                    "Ingestion queue full, rejecting | eventId={}",
+                    envelope.getEventId()
+            );
+
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(new IngestionResponse(
+                            "REJECTED",
+                            envelope.getEventId(),
+                            e.getMessage(),
+                            null
+                    ));
+        }
+    }
+
+    @GetMapping("/{receiptId}")
+    public ResponseEntity<EventResult> receipt(
+            @PathVariable String receiptId) {
+
+        EventResult result =
+                asyncIngestionService.getReceipt(receiptId);
+
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
+    // =====================================================
+    // READBACK
+    // =====================================================
+
+    /**
+     * Full rows of a transaction, for ROWS and LINK clients. Not served
+     * in ACK mode, where nothing points clients here.
+     */
+    @GetMapping("/transactions/{tranId}")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> readback(
+            @PathVariable String tranId) {
+
+        if (responseMode == ResponseMode.ACK) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, List<Map<String, Object>>> rows =
+                dbLimiter.call(() -> ingestionService.readback(tranId));
+
+        if (rows.get("SEND_TRANSACTIONS").isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(rows);
+    }
+
+    // =====================================================
+    // BULK (NDJSON)
+    // =====================================================
+
+    /**
+     * One EventEnvelope per line in, one EventResult per line out.
+     * The body is read while results are streamed back, so neither side
+     * is buffered in full.
+     */
+    @PostMapping(
+            path = "/bulk",
+            consumes = {
+                    MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.TEXT_PLAIN_VALUE
+            },
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> ingestBulk(
+            HttpServletRequest request) {
+
+        log.info("Received bulk ingestion request");
+
+        StreamingResponseBody body = out ->
+                bulkIngestionService.ingest(request.getInputStream(), out);
+
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -1,8 +1,10 @@
 package com.poc.CanonicalIngestionEngine.global;
 
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter.NoCapacityException;
 import com.poc.CanonicalIngestionEngine.service.IngestionService.IngestionProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +33,21 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    // ================= NO DB CAPACITY =================
+
+    @ExceptionHandler(NoCapacityException.class)
+    public ResponseEntity<Map<String, String>> handleNoCapacity(NoCapacityException ex) {
+
+        Map<String, String> response = new HashMap<>();
+        response.put("errorCode", "DB-503");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     // ================= GENERIC ERROR =================
 
     @ExceptionHandler(Exception.class)
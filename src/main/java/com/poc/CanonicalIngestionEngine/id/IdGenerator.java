@@ -0,0 +1,13 @@
+package com.poc.CanonicalIngestionEngine.id;
+
+/**
+ * Source of generated row ids (ID, PARENT_ID).
+ *
+ * Implementations must be thread-safe and should not block: they are
+ * called on request threads for every generated row. Selected per table
+ * via "idGenerator" in the table config, see {@link IdGenerators}.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,69 @@
+package com.poc.CanonicalIngestionEngine.id;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the "idGenerator" name of a table config.
+ *
+ *   (unset) / time-ordered  -> {@link TimeOrderedIdGenerator}
+ *   random-uuid             -> {@link RandomUuidGenerator}
+ *   fully qualified class   -> custom {@link IdGenerator} (no-arg constructor)
+ */
+public final class IdGenerators {
+
+    public static final String TIME_ORDERED = "time-ordered";
+    public static final String RANDOM_UUID = "random-uuid";
+
+    private static final IdGenerator DEFAULT = new TimeOrderedIdGenerator();
+
+    private static final Map<String, IdGenerator> GENERATORS =
+            new ConcurrentHashMap<>(Map.of(
+                    TIME_ORDERED, DEFAULT,
+                    RANDOM_UUID, new RandomUuidGenerator()
+            ));
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator defaultGenerator() {
+        return DEFAULT;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name is neither built in
+     *         nor a loadable IdGenerator class
+     */
+    public static IdGenerator byName(String name) {
+
+        if (name == null || name.isBlank()) {
+            return DEFAULT;
+        }
+
+        return GENERATORS.computeIfAbsent(
+                name.trim(),
+                IdGenerators::instantiate
+        );
+    }
+
+    private static IdGenerator instantiate(String className) {
+
+        try {
+
+            Class<?> type = Class.forName(className);
+
+            if (!IdGenerator.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException(
+                        className + " is not an IdGenerator"
+                );
+            }
+
+            return (IdGenerator) type.getDeclaredConstructor().newInstance();
+
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    "Unknown idGenerator: " + className, e
+            );
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.poc.CanonicalIngestionEngine.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs — the previous behaviour.
+ *
+ * Draws from the shared SecureRandom and scatters keys across the
+ * primary-key index; kept for tables that must not expose creation time.
+ */
+public final class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
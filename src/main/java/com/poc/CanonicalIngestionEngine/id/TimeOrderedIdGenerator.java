@@ -0,0 +1,69 @@
+package com.poc.CanonicalIngestionEngine.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered UUIDs in the version 7 layout:
+ *
+ *   48 bits unix epoch millis | 4 bits version (7) | 12 bits sequence |
+ *   2 bits variant | 62 bits random
+ *
+ * Ids created close in time share a key prefix, so inserts land on the
+ * right-hand edge of the primary-key B-tree instead of random leaf blocks.
+ *
+ * All state is per thread (last millis + sequence) and randomness comes
+ * from ThreadLocalRandom, so there is no lock or CAS between threads.
+ * Within one thread ids are strictly increasing: the sequence starts at a
+ * random value each millisecond and, if it runs out, borrows the next
+ * millisecond.
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int SEQUENCE_MAX = (1 << SEQUENCE_BITS) - 1;
+
+    // Start sequences in the lower half to leave room before a borrow
+    private static final int SEQUENCE_START_RANGE = 1 << (SEQUENCE_BITS - 1);
+
+    private static final class State {
+        private long lastMillis = -1;
+        private int sequence;
+    }
+
+    private static final ThreadLocal<State> STATE =
+            ThreadLocal.withInitial(State::new);
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.currentTimeMillis();
+
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            state.sequence = random.nextInt(SEQUENCE_START_RANGE);
+        } else if (state.sequence < SEQUENCE_MAX) {
+            state.sequence++;
+        } else {
+            // Sequence exhausted (or clock went back): move forward
+            state.lastMillis++;
+            state.sequence = random.nextInt(SEQUENCE_START_RANGE);
+        }
+
+        long msb = (state.lastMillis << 16)
+                | (0x7L << 12)
+                | state.sequence;
+
+        long lsb = (random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL)
+                | 0x8000_0000_0000_0000L;
+
+        return new UUID(msb, lsb);
+    }
+}
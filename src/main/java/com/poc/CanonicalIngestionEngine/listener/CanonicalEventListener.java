@@ -1,51 +1,112 @@
-//package com.poc.CanonicalIngestionEngine.listener;
-//
-//import com.fasterxml.jackson.databind.ObjectMapper;
-//import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
-//import com.poc.CanonicalIngestionEngine.service.IngestionService;
-//import org.slf4j.Logger;
-//import org.slf4j.LoggerFactory;
-//import org.slf4j.MDC;
-//import org.springframework.kafka.annotation.KafkaListener;
-//import org.springframework.stereotype.Component;
-//
-//@Component
-//public class CanonicalEventListener {
-//
-//    private static final Logger log =
-//            LoggerFactory.getLogger(CanonicalEventListener.class);
-//
-//    private final ObjectMapper objectMapper;
-//    private final IngestionService ingestionService;
-//
-//    public CanonicalEventListener(ObjectMapper objectMapper,
-//                                  IngestionService ingestionService) {
-//        this.objectMapper = objectMapper;
-//        this.ingestionService = ingestionService;
-//    }
-//
-//    @KafkaListener(topics = "canonical-topic", groupId = "canonical-group")
-//    public void listen(String eventJson) {
-//
-//        try {
-//            // Convert JSON → DTO
-//            EventEnvelope envelope =
-//                    objectMapper.readValue(eventJson, EventEnvelope.class);
-//
-//            // Add correlationId to MDC
-//            MDC.put("correlationId", envelope.getCorrelationId());
-//
-//            log.info("Kafka event received | eventId={} | correlationId={}",
-//                    envelope.getEventId(),
-//                    envelope.getCorrelationId());
-//
-//            ingestionService.ingest(envelope);
-//
-//        } catch (Exception e) {
-//            log.error("Kafka processing failed", e);
-//            // later → send to DLQ here
-//        } finally {
-//            MDC.clear();
-//        }
-//    }
-//}
\ No newline at end of file
+package com.poc.CanonicalIngestionEngine.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter;
+import com.poc.CanonicalIngestionEngine.service.IngestionService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes canonical events a poll at a time.
+ *
+ * Every poll goes through {@link IngestionService#ingestBatch} as one
+ * transaction. Offsets are acknowledged only once that call returns,
+ * i.e. after the commit; if it throws, nothing is acknowledged and the
+ * container redelivers the batch.
+ *
+ * Records that cannot be deserialized and events that fail on their own
+ * are logged with their offset and acknowledged with the batch, so they
+ * cannot block the partition.
+ *
+ * Each batch holds a {@link DbConcurrencyLimiter} permit, so consumers
+ * share the connection budget with the REST endpoints. A batch that
+ * gets no permit in time throws and is redelivered like a failed
+ * commit.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ingestion.kafka", name = "enabled", havingValue = "true")
+public class CanonicalEventListener {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(CanonicalEventListener.class);
+
+    private final ObjectReader envelopeReader;
+    private final IngestionService ingestionService;
+    private final DbConcurrencyLimiter dbLimiter;
+
+    public CanonicalEventListener(ObjectMapper objectMapper,
+                                  IngestionService ingestionService,
+                                  DbConcurrencyLimiter dbLimiter) {
+        this.envelopeReader = objectMapper.readerFor(EventEnvelope.class);
+        this.ingestionService = ingestionService;
+        this.dbLimiter = dbLimiter;
+    }
+
+    @KafkaListener(
+            topics = "${ingestion.kafka.topic:canonical-topic}",
+            groupId = "${ingestion.kafka.group-id:canonical-group}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void listen(List<ConsumerRecord<String, byte[]>> records,
+                       Acknowledgment acknowledgment) {
+
+        List<EventEnvelope> envelopes = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+
+            try {
+
+                envelopes.add(envelopeReader.readValue(record.value()));
+
+            } catch (IOException | RuntimeException e) {
+
+                log.error(
+                        "Skipping undeserializable record | topic={} | partition={} | offset={} | error={}",
+                        record.topic(),
+                        record.partition(),
+                        record.offset(),
+                        e.getMessage()
+                );
+            }
+        }
+
+        if (!envelopes.isEmpty()) {
+
+            // Returns after commit; throws (no ack) if the batch could not commit
+            List<EventResult> results =
+                    dbLimiter.call(() -> ingestionService.ingestBatch(envelopes));
+
+            for (EventResult result : results) {
+
+                if (result.isFailed()) {
+
+                    log.error(
+                            "Kafka event failed | eventId={} | error={}",
+                            result.getEventId(),
+                            result.getMessage()
+                    );
+                }
+            }
+        }
+
+        acknowledgment.acknowledge();
+
+        log.info(
+                "Kafka batch committed | records={} | events={}",
+                records.size(),
+                envelopes.size()
+        );
+    }
+}
@@ -0,0 +1,293 @@
+package com.poc.CanonicalIngestionEngine.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A mapping path compiled once at config load.
+ *
+ * Plain dotted / indexed paths ("a.b", "$.a[0].b", "$['a']") are
+ * resolved directly against the Jackson tree: one get() per segment,
+ * no exceptions on missing nodes. Anything else (wildcards, filters,
+ * deep scan, functions) falls back to Jayway JsonPath on the same tree.
+ */
+public final class CompiledPath {
+
+    private static final Configuration JSON_NODE_CONFIG =
+            Configuration.builder()
+                    .jsonProvider(new JacksonJsonNodeJsonProvider())
+                    .mappingProvider(new JacksonMappingProvider())
+                    .options(Option.SUPPRESS_EXCEPTIONS)
+                    .build();
+
+    private enum Kind {
+        NODE,
+        JSON_PATH,
+        INVALID
+    }
+
+    private final String expression;
+    private final Kind kind;
+
+    // String = field name, Integer = array index
+    // (for JSON_PATH only the plain prefix of the expression)
+    private final Object[] segments;
+
+    // JSON_PATH: fallback for non-simple expressions
+    private final JsonPath jsonPath;
+
+    private CompiledPath(
+            String expression,
+            Kind kind,
+            Object[] segments,
+            JsonPath jsonPath
+    ) {
+        this.expression = expression;
+        this.kind = kind;
+        this.segments = segments;
+        this.jsonPath = jsonPath;
+    }
+
+    // =====================================================
+    // COMPILE
+    // =====================================================
+
+    public static CompiledPath compile(String expression) {
+
+        List<Object> segments = new ArrayList<>();
+
+        if (parseSimple(expression, segments)) {
+            return new CompiledPath(
+                    expression,
+                    Kind.NODE,
+                    segments.toArray(),
+                    null
+            );
+        }
+
+        try {
+
+            String fullPath =
+                    expression.startsWith("$")
+                            ? expression
+                            : "$." + expression;
+
+            return new CompiledPath(
+                    expression,
+                    Kind.JSON_PATH,
+                    segments.toArray(),
+                    JsonPath.compile(fullPath)
+            );
+
+        } catch (Exception e) {
+
+            return new CompiledPath(
+                    expression,
+                    Kind.INVALID,
+                    segments.toArray(),
+                    null
+            );
+        }
+    }
+
+    /**
+     * Splits a path into field / index segments. Returns false if the
+     * path needs full JsonPath semantics; segments then holds the
+     * plain prefix before the first wildcard, filter or function.
+     */
+    private static boolean parseSimple(
+            String expression,
+            List<Object> segments
+    ) {
+
+        if (expression == null || expression.isBlank()) {
+            return false;
+        }
+
+        String path = expression.trim();
+        int pos = 0;
+
+        if (path.charAt(0) == '$') {
+            pos = 1;
+        } else {
+            path = "." + path;
+        }
+
+        int length = path.length();
+
+        while (pos < length) {
+
+            char c = path.charAt(pos);
+
+            if (c == '.') {
+
+                int start = ++pos;
+
+                if (start < length && path.charAt(start) == '.') {
+                    return false; // deep scan
+                }
+
+                while (pos < length
+                        && path.charAt(pos) != '.'
+                        && path.charAt(pos) != '[') {
+                    pos++;
+                }
+
+                String name = path.substring(start, pos);
+
+                if (name.isEmpty()
+                        || name.equals("*")
+                        || name.indexOf('(') >= 0
+                        || name.indexOf('@') >= 0) {
+                    return false; // wildcard / function
+                }
+
+                segments.add(name);
+
+            } else if (c == '[') {
+
+                int end = path.indexOf(']', pos);
+
+                if (end < 0) {
+                    return false;
+                }
+
+                String inner = path.substring(pos + 1, end).trim();
+                pos = end + 1;
+
+                if (inner.length() >= 2
+                        && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+                        && inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+
+                    String name = inner.substring(1, inner.length() - 1);
+
+                    if (name.indexOf('\'') >= 0 || name.indexOf('"') >= 0) {
+                        return false; // multi-property selection
+                    }
+
+                    segments.add(name);
+                    continue;
+                }
+
+                if (!isInteger(inner)) {
+                    return false; // wildcard, filter, slice, union
+                }
+
+                segments.add(Integer.valueOf(inner));
+
+            } else {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isInteger(String text) {
+
+        if (text.isEmpty() || text.length() > 9) {
+            return false;
+        }
+
+        int start = text.charAt(0) == '-' ? 1 : 0;
+
+        if (start == text.length()) {
+            return false;
+        }
+
+        for (int i = start; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // =====================================================
+    // READ
+    // =====================================================
+
+    /**
+     * Resolves the path against the payload tree.
+     *
+     * @return the matched JsonNode (or JsonPath result for fallback
+     *         paths), or null when nothing matches
+     */
+    public Object read(JsonNode root) {
+
+        return switch (kind) {
+            case NODE -> readNode(root);
+            case JSON_PATH -> JsonPath
+                    .using(JSON_NODE_CONFIG)
+                    .parse(root)
+                    .read(jsonPath);
+            case INVALID -> null;
+        };
+    }
+
+    private JsonNode readNode(JsonNode root) {
+
+        JsonNode node = root;
+
+        for (Object segment : segments) {
+
+            if (node == null) {
+                return null;
+            }
+
+            if (segment instanceof Integer index) {
+
+                if (!node.isArray()) {
+                    return null;
+                }
+
+                int i = index < 0 ? node.size() + index : index;
+                node = node.get(i);
+
+            } else {
+
+                node = node.get((String) segment);
+            }
+        }
+
+        if (node == null || node.isMissingNode()) {
+            return null;
+        }
+
+        return node;
+    }
+
+    public boolean isSimple() {
+        return kind == Kind.NODE;
+    }
+
+    public boolean isValid() {
+        return kind != Kind.INVALID;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Field / index segments of a simple path; empty for the root.
+     * For a JsonPath fallback these are the plain leading segments
+     * before the first wildcard, filter or function.
+     */
+    public List<Object> getSegments() {
+        return segments == null ? List.of() : List.of(segments);
+    }
+
+    @Override
+    public String toString() {
+        return expression + " (" + kind + ")";
+    }
+}
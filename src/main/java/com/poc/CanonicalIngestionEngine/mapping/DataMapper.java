@@ -1,20 +1,30 @@
 package com.poc.CanonicalIngestionEngine.mapping;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.jayway.jsonpath.JsonPath;
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import com.poc.CanonicalIngestionEngine.id.IdGenerator;
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class DataMapper {
@@ -22,6 +32,248 @@ public class DataMapper {
     private static final Logger log =
             LoggerFactory.getLogger(DataMapper.class);
 
+    // =====================================================
+    // Paths evaluate directly on the Jackson tree, so the
+    // payload parsed once per event is shared by every table
+    // and address mapping. Simple paths walk the tree node by
+    // node; only wildcard / filter paths go through JsonPath.
+    // =====================================================
+
+    // Compiled path per mapping expression (config driven, bounded)
+    private final Map<String, CompiledPath> compiledPathCache =
+            new ConcurrentHashMap<>();
+
+    // Path trie per loaded EventConfig instance (identity keyed)
+    private final Map<EventConfig, PathTrie> pathTrieCache =
+            new ConcurrentHashMap<>();
+
+    // Generates ID for autoGenerateId tables
+    private final IdGenerator idGenerator;
+
+    public DataMapper() {
+        this(IdGenerators.defaultGenerator());
+    }
+
+    public DataMapper(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    // =====================================================
+    // PRECOMPILE (CONFIG LOAD)
+    // =====================================================
+
+    /**
+     * Compiles every mapping path of an event up front, so the
+     * node-walk / JsonPath decision is made once per path, and the
+     * date / non-date decision once per column, at config load
+     * instead of on the first event.
+     */
+    public void precompile(EventConfig config) {
+
+        if (config == null || config.getTables() == null) {
+            return;
+        }
+
+        int simple = 0;
+        int fallback = 0;
+        int dates = 0;
+
+        for (TableConfig table : config.getTables()) {
+
+            try {
+                IdGenerators.byName(table.getIdGenerator());
+            } catch (IllegalArgumentException e) {
+                log.error(
+                        "Invalid idGenerator={} in table={}",
+                        table.getIdGenerator(),
+                        table.getTableName()
+                );
+            }
+
+            for (String column : mappedColumns(table)) {
+                if (dateColumn(column).date) {
+                    dates++;
+                }
+            }
+
+            for (String path : mappingPaths(table)) {
+
+                CompiledPath compiled = compiledPath(path);
+
+                if (!compiled.isValid()) {
+                    log.warn(
+                            "Invalid mapping path={} in table={}",
+                            path,
+                            table.getTableName()
+                    );
+                } else if (compiled.isSimple()) {
+                    simple++;
+                } else {
+                    fallback++;
+                }
+            }
+        }
+
+        log.info(
+                "Compiled paths for event={} simple={} jsonPath={} dateColumns={}",
+                config.getEventName(),
+                simple,
+                fallback,
+                dates
+        );
+    }
+
+    /**
+     * Drops what was compiled for a config that has been replaced by a
+     * reload: its path trie, and the compiled paths it used that the
+     * replacement no longer does. Paths still used by another event are
+     * simply recompiled on their next use.
+     */
+    public void release(
+            EventConfig previous,
+            EventConfig replacement
+    ) {
+
+        if (previous == null) {
+            return;
+        }
+
+        pathTrieCache.remove(previous);
+
+        if (previous.getTables() == null) {
+            return;
+        }
+
+        Set<String> kept = new HashSet<>();
+
+        if (replacement != null && replacement.getTables() != null) {
+            for (TableConfig table : replacement.getTables()) {
+                kept.addAll(mappingPaths(table));
+            }
+        }
+
+        int evicted = 0;
+
+        for (TableConfig table : previous.getTables()) {
+            for (String path : mappingPaths(table)) {
+                if (!kept.contains(path)
+                        && compiledPathCache.remove(path) != null) {
+                    evicted++;
+                }
+            }
+        }
+
+        log.info(
+                "Released compiled paths for event={} evicted={}",
+                previous.getEventName(),
+                evicted
+        );
+    }
+
+    private List<String> mappedColumns(TableConfig table) {
+
+        List<String> columns = new ArrayList<>();
+
+        if (table.getMapping() != null) {
+            columns.addAll(table.getMapping().keySet());
+        }
+
+        if (table.getAddressTypes() != null) {
+
+            for (TableConfig.AddressTypeMapping addr :
+                    table.getAddressTypes()) {
+
+                if (addr.getFields() != null) {
+                    columns.addAll(addr.getFields().keySet());
+                }
+            }
+        }
+
+        return columns;
+    }
+
+    private List<String> mappingPaths(TableConfig table) {
+
+        List<String> paths = new ArrayList<>();
+
+        if (table.getMapping() != null) {
+            paths.addAll(table.getMapping().values());
+        }
+
+        if (table.getAddressTypes() != null) {
+
+            for (TableConfig.AddressTypeMapping addr :
+                    table.getAddressTypes()) {
+
+                paths.add(addr.getRootPath());
+
+                if (addr.getFields() != null) {
+                    paths.addAll(addr.getFields().values());
+                }
+            }
+        }
+
+        paths.removeIf(Objects::isNull);
+
+        return paths;
+    }
+
+    // =====================================================
+    // STREAMING PROJECTION
+    // =====================================================
+
+    /**
+     * Reads the payload in one forward pass, keeping only the values
+     * referenced by the event's table and address mappings plus
+     * requiredPaths. The returned sparse tree is passed to
+     * {@link #map} / {@link #mapAddress} like a fully parsed payload.
+     *
+     * requiredPaths must be the same for every call with a given config:
+     * they are folded into the trie cached for that config.
+     */
+    public JsonNode project(
+            JsonParser parser,
+            EventConfig config,
+            Collection<String> requiredPaths
+    ) throws IOException {
+
+        PathTrie trie =
+                pathTrieCache.computeIfAbsent(
+                        config,
+                        c -> buildTrie(c, requiredPaths)
+                );
+
+        return trie.project(parser);
+    }
+
+    private PathTrie buildTrie(
+            EventConfig config,
+            Collection<String> requiredPaths
+    ) {
+
+        PathTrie trie = new PathTrie();
+
+        if (config.getTables() != null) {
+            for (TableConfig table : config.getTables()) {
+                for (String path : mappingPaths(table)) {
+                    trie.add(compiledPath(path));
+                }
+            }
+        }
+
+        for (String path : requiredPaths) {
+            trie.add(compiledPath(path));
+        }
+
+        log.info(
+                "Built path trie for event={} with {} paths",
+                config.getEventName(),
+                trie.getPathCount()
+        );
+
+        return trie;
+    }
+
     public Map<String, Object> map(
             JsonNode payload,
             Map<String, String> columnMappings,
@@ -31,14 +283,12 @@ public class DataMapper {
 
         log.info("Mapping JSON to columns");
 
-        String jsonString = payload.toString();
-
         Map<String, Object> result =
-                processMappings(jsonString, columnMappings);
+                processMappings(payload, columnMappings);
 
         if (autoGenerateId) {
             String generatedId =
-                    UUID.randomUUID().toString();
+                    idGenerator.nextId();
 
             result.put("ID", generatedId);
 
@@ -74,9 +324,7 @@ public class DataMapper {
                 addressType
         );
 
-        String jsonString = payload.toString();
-
-        if (!pathExists(jsonString, rootPath)) {
+        if (!pathExists(payload, rootPath)) {
 
             log.warn(
                     "Address data not found at path={}",
@@ -87,13 +335,9 @@ public class DataMapper {
         }
 
         Map<String, Object> result =
-                processMappings(jsonString, fieldMappings);
-
-        result.put(
-                "ID",
-                UUID.randomUUID().toString()
-        );
+                processMappings(payload, fieldMappings);
 
+        // ID comes from the address table's generator (TablePlan.nextId)
         result.put(
                 "ADDR_TYPE",
                 addressType
@@ -119,7 +363,7 @@ public class DataMapper {
     // =====================================================
 
     private Map<String, Object> processMappings(
-            String jsonString,
+            JsonNode payload,
             Map<String, String> mappings
     ) {
 
@@ -137,7 +381,7 @@ public class DataMapper {
 
             Object mappedValue =
                     extractValue(
-                            jsonString,
+                            payload,
                             columnName,
                             jsonPath
                     );
@@ -152,23 +396,17 @@ public class DataMapper {
     }
 
     private Object extractValue(
-            String jsonString,
+            JsonNode payload,
             String columnName,
             String jsonPath
     ) {
 
         try {
 
-            String fullPath =
-                    jsonPath.startsWith("$")
-                            ? jsonPath
-                            : "$." + jsonPath;
-
+            // A missing path resolves to null; the catch only
+            // covers value conversion (e.g. unparseable dates)
             Object value =
-                    JsonPath.read(
-                            jsonString,
-                            fullPath
-                    );
+                    compiledPath(jsonPath).read(payload);
 
             return processValue(
                     columnName,
@@ -187,11 +425,23 @@ public class DataMapper {
         }
     }
 
+    private CompiledPath compiledPath(String jsonPath) {
+
+        return compiledPathCache.computeIfAbsent(
+                jsonPath,
+                CompiledPath::compile
+        );
+    }
+
     private Object processValue(
             String columnName,
             Object value
     ) {
 
+        if (value instanceof JsonNode node) {
+            value = unwrapNode(node);
+        }
+
         if (value == null) {
             return null;
         }
@@ -220,18 +470,40 @@ public class DataMapper {
         return value.toString();
     }
 
+    private Object unwrapNode(JsonNode node) {
+
+        if (node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+
+        return node;
+    }
+
     private boolean pathExists(
-            String jsonString,
+            JsonNode payload,
             String rootPath
     ) {
 
         try {
 
             Object value =
-                    JsonPath.read(
-                            jsonString,
-                            rootPath
-                    );
+                    compiledPath(rootPath).read(payload);
+
+            if (value instanceof JsonNode node) {
+                return !node.isNull() && !node.isMissingNode();
+            }
 
             return value != null;
 
@@ -245,18 +517,133 @@ public class DataMapper {
     // DATE NORMALIZATION
     // =====================================================
 
+    /**
+     * Date formats accepted for date columns. Formatters are built once;
+     * the shape of the value (length and separator positions) picks the
+     * candidate, so a valid value is normally parsed on the first try.
+     */
+    private enum DateFormat {
+
+        ISO_LOCAL("yyyy-MM-dd'T'HH:mm:ss"),
+        SPACE_SEPARATED("yyyy-MM-dd HH:mm:ss"),
+        DAY_FIRST("dd-MM-yyyy HH:mm:ss"),
+        DATE_ONLY("yyyy-MM-dd"),
+        INSTANT(null);
+
+        private final DateTimeFormatter formatter;
+        private final boolean hasTime;
+
+        DateFormat(String pattern) {
+            this.formatter =
+                    pattern == null
+                            ? null
+                            : DateTimeFormatter.ofPattern(pattern);
+            this.hasTime =
+                    pattern == null || pattern.contains("HH");
+        }
+
+        /** Returns the parsed timestamp, or null if value does not match. */
+        private Timestamp parse(String value) {
+
+            try {
+
+                if (formatter == null) {
+                    return Timestamp.from(Instant.parse(value));
+                }
+
+                if (hasTime) {
+                    return Timestamp.valueOf(
+                            LocalDateTime.parse(value, formatter)
+                    );
+                }
+
+                return Timestamp.valueOf(
+                        LocalDate.parse(value, formatter).atStartOfDay()
+                );
+
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private static DateFormat byShape(String value) {
+
+            int length = value.length();
+
+            if (length == 10
+                    && value.charAt(4) == '-'
+                    && value.charAt(7) == '-') {
+                return DATE_ONLY;
+            }
+
+            if (length == 19) {
+
+                if (value.charAt(4) == '-' && value.charAt(7) == '-') {
+
+                    char separator = value.charAt(10);
+
+                    if (separator == 'T') {
+                        return ISO_LOCAL;
+                    }
+
+                    if (separator == ' ') {
+                        return SPACE_SEPARATED;
+                    }
+                }
+
+                if (value.charAt(2) == '-'
+                        && value.charAt(5) == '-'
+                        && value.charAt(10) == ' ') {
+                    return DAY_FIRST;
+                }
+            }
+
+            if (length > 19 && value.charAt(10) == 'T') {
+                return INSTANT; // zone / fraction suffix
+            }
+
+            return null;
+        }
+    }
+
+    /** Per mapped column: date or not (decided once) and last format hit. */
+    private static final class DateColumn {
+
+        private final boolean date;
+        private volatile DateFormat lastFormat;
+
+        private DateColumn(boolean date) {
+            this.date = date;
+        }
+    }
+
+    private static final DateColumn NOT_DATE = new DateColumn(false);
+
+    // Column name -> date handling (config driven, bounded)
+    private final Map<String, DateColumn> dateColumnCache =
+            new ConcurrentHashMap<>();
+
+    private DateColumn dateColumn(String columnName) {
+
+        return dateColumnCache.computeIfAbsent(
+                columnName,
+                name -> name.endsWith("_TS")
+                        || name.endsWith("_DT")
+                        || name.contains("DATE")
+                        || name.endsWith("_DOB")
+                        ? new DateColumn(true)
+                        : NOT_DATE
+        );
+    }
+
     private Object convertDateToStandard(
             String columnName,
             String value
     ) {
 
-        boolean isDateOrTs =
-                columnName.endsWith("_TS")
-                        || columnName.endsWith("_DT")
-                        || columnName.contains("DATE")
-                        || columnName.endsWith("_DOB");
+        DateColumn column = dateColumn(columnName);
 
-        if (!isDateOrTs) {
+        if (!column.date) {
             return value;
         }
 
@@ -264,54 +651,44 @@ public class DataMapper {
             return null;
         }
 
-        String[] formats = {
-                "yyyy-MM-dd'T'HH:mm:ss",
-                "yyyy-MM-dd HH:mm:ss",
-                "dd-MM-yyyy HH:mm:ss",
-                "yyyy-MM-dd"
-        };
-
-        for (String format : formats) {
-
-            try {
+        // 1. format that last worked for this column
+        DateFormat learned = column.lastFormat;
 
-                DateTimeFormatter formatter =
-                        DateTimeFormatter.ofPattern(format);
+        if (learned != null) {
 
-                if (format.contains("HH")) {
+            Timestamp parsed = learned.parse(value);
 
-                    LocalDateTime localDateTime =
-                            LocalDateTime.parse(
-                                    value,
-                                    formatter
-                            );
+            if (parsed != null) {
+                return parsed;
+            }
+        }
 
-                    return Timestamp.valueOf(
-                            localDateTime
-                    );
-                }
+        // 2. format implied by the value's shape
+        DateFormat shaped = DateFormat.byShape(value);
 
-                LocalDate localDate =
-                        LocalDate.parse(
-                                value,
-                                formatter
-                        );
+        if (shaped != null && shaped != learned) {
 
-                return Timestamp.valueOf(
-                        localDate.atStartOfDay()
-                );
+            Timestamp parsed = shaped.parse(value);
 
-            } catch (Exception ignored) {
+            if (parsed != null) {
+                column.lastFormat = shaped;
+                return parsed;
             }
         }
 
-        try {
+        // 3. unusual shapes (e.g. wider years): remaining formats in order
+        for (DateFormat format : DateFormat.values()) {
 
-            return Timestamp.from(
-                    Instant.parse(value)
-            );
+            if (format == learned || format == shaped) {
+                continue;
+            }
+
+            Timestamp parsed = format.parse(value);
 
-        } catch (Exception ignored) {
+            if (parsed != null) {
+                column.lastFormat = format;
+                return parsed;
+            }
         }
 
         throw new RuntimeException(
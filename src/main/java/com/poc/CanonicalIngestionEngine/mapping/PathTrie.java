@@ -0,0 +1,192 @@
+package com.poc.CanonicalIngestionEngine.mapping;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Union of the mapping paths of one event, as a trie of field names and
+ * array indexes.
+ *
+ * {@link #project(JsonParser)} reads a payload in one forward pass and
+ * builds a sparse tree holding only the referenced values; every other
+ * subtree is skipped with skipChildren() and never materialized. The
+ * sparse tree answers the same {@link CompiledPath}s as the full one.
+ */
+public final class PathTrie {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private static final class Node {
+
+        // Keep the whole value (leaf of a path, or a JsonPath subtree)
+        private boolean captureAll;
+
+        private Map<String, Node> fields;
+        private Map<Integer, Node> indexes;
+        private int maxIndex = -1;
+    }
+
+    private final Node root = new Node();
+
+    private int pathCount;
+
+    // =====================================================
+    // BUILD (ONCE PER EVENT CONFIG)
+    // =====================================================
+
+    public void add(CompiledPath path) {
+
+        if (!path.isValid()) {
+            return;
+        }
+
+        List<Object> segments = path.getSegments();
+
+        Node node = root;
+
+        for (Object segment : segments) {
+
+            if (node.captureAll) {
+                break; // already kept whole
+            }
+
+            if (segment instanceof Integer index) {
+
+                if (index < 0) {
+                    break; // counted from the end: keep the whole array
+                }
+
+                if (node.indexes == null) {
+                    node.indexes = new HashMap<>();
+                }
+
+                node.maxIndex = Math.max(node.maxIndex, index);
+                node = node.indexes.computeIfAbsent(index, i -> new Node());
+
+            } else {
+
+                if (node.fields == null) {
+                    node.fields = new HashMap<>();
+                }
+
+                node = node.fields.computeIfAbsent(
+                        (String) segment,
+                        name -> new Node()
+                );
+            }
+        }
+
+        // A simple path keeps its leaf; a JsonPath fallback keeps the
+        // subtree under its plain prefix and is evaluated on that
+        node.captureAll = true;
+        node.fields = null;
+        node.indexes = null;
+
+        pathCount++;
+    }
+
+    public int getPathCount() {
+        return pathCount;
+    }
+
+    // =====================================================
+    // PROJECT (ONCE PER EVENT)
+    // =====================================================
+
+    /**
+     * Projects the document read from the parser onto this trie.
+     *
+     * The parser must have an ObjectCodec (e.g. created through an
+     * ObjectMapper) — kept values are read with readValueAsTree().
+     */
+    public JsonNode project(JsonParser parser) throws IOException {
+
+        JsonToken token = parser.nextToken();
+
+        if (token == null) {
+            return MissingNode.getInstance();
+        }
+
+        return read(parser, token, root);
+    }
+
+    private static JsonNode read(
+            JsonParser parser,
+            JsonToken token,
+            Node node
+    ) throws IOException {
+
+        if (node.captureAll || token.isScalarValue()) {
+            return parser.readValueAsTree();
+        }
+
+        if (token == JsonToken.START_OBJECT) {
+
+            ObjectNode object = NODES.objectNode();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                String name = parser.currentName();
+
+                JsonToken valueToken = parser.nextToken();
+
+                Node child =
+                        node.fields == null
+                                ? null
+                                : node.fields.get(name);
+
+                if (child == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                object.set(name, read(parser, valueToken, child));
+            }
+
+            return object;
+        }
+
+        // START_ARRAY
+        ArrayNode array = NODES.arrayNode();
+
+        int index = 0;
+        JsonToken elementToken;
+
+        while ((elementToken = parser.nextToken())
+                != JsonToken.END_ARRAY) {
+
+            Node child =
+                    node.indexes == null
+                            ? null
+                            : node.indexes.get(index);
+
+            if (child == null) {
+
+                parser.skipChildren();
+
+                // Placeholder keeps later indexes in position
+                if (index < node.maxIndex) {
+                    array.addNull();
+                }
+
+            } else {
+
+                array.add(read(parser, elementToken, child));
+            }
+
+            index++;
+        }
+
+        return array;
+    }
+}
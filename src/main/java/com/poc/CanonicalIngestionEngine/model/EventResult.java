@@ -0,0 +1,64 @@
+package com.poc.CanonicalIngestionEngine.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Outcome of one event of a batch or asynchronous ingest.
+ *
+ * Status is SUCCESS, IGNORED (dropped by the rule engine) or FAILED, or
+ * PENDING for an async receipt whose event is still queued;
+ * a failed event's writes were rolled back without affecting the rest
+ * of the batch.
+ */
+public final class EventResult {
+
+    public static final String PENDING = "PENDING";
+    public static final String SUCCESS = "SUCCESS";
+    public static final String IGNORED = "IGNORED";
+    public static final String FAILED = "FAILED";
+
+    private final String eventId;
+    private final String status;
+    private final String transactionId;
+    private final String message;
+
+    public EventResult(
+            String eventId,
+            String status,
+            String transactionId,
+            String message
+    ) {
+        this.eventId = eventId;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /** Transaction id resolved from the payload; null if unparsable. */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /** Error message for FAILED, otherwise null. */
+    public String getMessage() {
+        return message;
+    }
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return FAILED.equals(status);
+    }
+
+    @Override
+    public String toString() {
+        return eventId + ":" + status;
+    }
+}
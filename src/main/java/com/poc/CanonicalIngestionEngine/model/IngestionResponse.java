@@ -1,5 +1,7 @@
 package com.poc.CanonicalIngestionEngine.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Map;
 
 public class IngestionResponse {
@@ -10,6 +12,14 @@ public class IngestionResponse {
 
     private Map<String, Object> dbData;
 
+    // Set only in LINK response mode
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String readbackUrl;
+
+    // Set only for asynchronously accepted events
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String receiptId;
+
     public IngestionResponse() {
     }
 
@@ -56,4 +66,20 @@ public class IngestionResponse {
     public void setDbData(Map<String, Object> dbData) {
         this.dbData = dbData;
     }
-}
\ No newline at end of file
+
+    public String getReadbackUrl() {
+        return readbackUrl;
+    }
+
+    public void setReadbackUrl(String readbackUrl) {
+        this.readbackUrl = readbackUrl;
+    }
+
+    public String getReceiptId() {
+        return receiptId;
+    }
+
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+}
@@ -0,0 +1,101 @@
+package com.poc.CanonicalIngestionEngine.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.poc.CanonicalIngestionEngine.config.EventPlan;
+
+/**
+ * An event envelope with its metadata and payload parsed exactly once.
+ *
+ * Built at the entry point (controller / listener) and handed to the
+ * rule engine, the mapper and the insert/update flows so no stage has
+ * to parse the JSON strings of the envelope again.
+ *
+ * The JsonNode trees must be treated as read-only.
+ */
+public final class ParsedEvent {
+
+    private final EventEnvelope envelope;
+    private final JsonNode metadata;
+    private final JsonNode payload;
+    private final String transactionId;
+    private final String operation;
+    private final EventPlan plan;
+
+    public ParsedEvent(
+            EventEnvelope envelope,
+            JsonNode metadata,
+            JsonNode payload,
+            String transactionId,
+            String operation
+    ) {
+        this(envelope, metadata, payload, transactionId, operation, null);
+    }
+
+    public ParsedEvent(
+            EventEnvelope envelope,
+            JsonNode metadata,
+            JsonNode payload,
+            String transactionId,
+            String operation,
+            EventPlan plan
+    ) {
+        this.envelope = envelope;
+        this.metadata = metadata;
+        this.payload = payload;
+        this.transactionId = transactionId;
+        this.operation = operation;
+        this.plan = plan;
+    }
+
+    public EventEnvelope getEnvelope() {
+        return envelope;
+    }
+
+    public JsonNode getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Payload tree. For events configured with streaming extraction this
+     * is a projection holding only the mapped fields; the full payload
+     * text stays available on the envelope.
+     */
+    public JsonNode getPayload() {
+        return payload;
+    }
+
+    /**
+     * Transaction id resolved from the payload, or null if none of the
+     * known id fields is present.
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Value of eventMetadata.operation ("A", "U", ...), or empty string.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Plan the event was parsed with, or null if its event type was not
+     * configured at parse time.
+     */
+    public EventPlan getPlan() {
+        return plan;
+    }
+
+    public boolean isUpdateOperation() {
+        return "U".equalsIgnoreCase(operation);
+    }
+
+    public String getEventName() {
+        return envelope.getEventName();
+    }
+
+    public String getEventId() {
+        return envelope.getEventId();
+    }
+}
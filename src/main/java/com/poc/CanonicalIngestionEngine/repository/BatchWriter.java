@@ -0,0 +1,205 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The inserts of one transaction, held back and written as JDBC
+ * batches: rows that share an INSERT statement go out in one batch,
+ * across all the events of the transaction.
+ *
+ * Bound to the caller's transaction by
+ * {@link TransactionRepository#beginBatch()} and flushed on the
+ * caller's thread, so the batches run on the transaction's connection
+ * and commit or roll back with it. Tables are flushed in the order they
+ * were first written to, so parent rows always go out before their
+ * children. Rows still pending at commit are flushed before it.
+ *
+ * The repository flushes early only for a statement that would read or
+ * modify pending rows (see {@link #isPending}, {@link #isPendingKey},
+ * {@link #hasPending}), so the rows of many events share one batch.
+ *
+ * Confined to the transaction's thread; nothing here is synchronized.
+ */
+final class BatchWriter implements TransactionSynchronization {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BatchWriter.class);
+
+    // Key this writer is bound under for its transaction
+    private final Object resourceKey;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int maxRows;
+
+    // TABLE -> (INSERT sql -> rows), tables in first-write order
+    private Map<String, Map<String, List<Map<String, Object>>>> pending =
+            new LinkedHashMap<>();
+
+    // TABLE -> TRAN_IDs of its pending rows
+    private final Map<String, Set<String>> pendingKeys = new HashMap<>();
+
+    private int pendingRows;
+
+    BatchWriter(
+            Object resourceKey,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            int maxRows
+    ) {
+        this.resourceKey = resourceKey;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Queues one normalized row; flushes everything once maxRows are
+     * pending.
+     */
+    void add(
+            String tableName,
+            String sql,
+            Map<String, Object> normalized
+    ) {
+        String table = tableName.toUpperCase();
+
+        pending.computeIfAbsent(table, t -> new LinkedHashMap<>())
+                .computeIfAbsent(sql, s -> new ArrayList<>())
+                .add(normalized);
+
+        Object tranId = normalized.get(TransactionKeyCache.KEY_COLUMN);
+
+        if (tranId != null) {
+            pendingKeys.computeIfAbsent(table, t -> new HashSet<>())
+                    .add(tranId.toString());
+        }
+
+        if (++pendingRows >= maxRows) {
+            flush();
+        }
+    }
+
+    /** True if a pending row of the table has this TRAN_ID. */
+    boolean isPending(String tableName, String tranId) {
+
+        Set<String> keys = pendingKeys.get(tableName.toUpperCase());
+
+        return keys != null && keys.contains(tranId);
+    }
+
+    /** True if a pending row of any table has this TRAN_ID. */
+    boolean isPendingKey(String tranId) {
+
+        for (Set<String> keys : pendingKeys.values()) {
+            if (keys.contains(tranId)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /** True if the table has any pending row. */
+    boolean hasPending(String tableName) {
+        return pending.containsKey(tableName.toUpperCase());
+    }
+
+    boolean isEmpty() {
+        return pendingRows == 0;
+    }
+
+    /** Writes every pending row, one JDBC batch per INSERT statement. */
+    void flush() {
+
+        if (pendingRows == 0) {
+            return;
+        }
+
+        Map<String, Map<String, List<Map<String, Object>>>> tables = pending;
+        int rows = pendingRows;
+
+        // Cleared first: a failed flush must not be written again
+        discard();
+
+        for (Map.Entry<String, Map<String, List<Map<String, Object>>>> table :
+                tables.entrySet()) {
+
+            for (Map.Entry<String, List<Map<String, Object>>> statement :
+                    table.getValue().entrySet()) {
+
+                write(table.getKey(), statement.getKey(), statement.getValue());
+            }
+        }
+
+        log.debug(
+                "Flushed {} batched row(s) into {} table(s)",
+                rows,
+                tables.size()
+        );
+    }
+
+    /** Drops every pending row without writing it. */
+    void discard() {
+        pending = new LinkedHashMap<>();
+        pendingKeys.clear();
+        pendingRows = 0;
+    }
+
+    private void write(
+            String table,
+            String sql,
+            List<Map<String, Object>> rows
+    ) {
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new MapSqlParameterSource(rows.get(i));
+        }
+
+        try {
+
+            jdbcTemplate.batchUpdate(sql, batch);
+
+        } catch (Exception e) {
+
+            log.error(
+                    "Batched INSERT failed | table={} | rows={} | sql={}",
+                    table,
+                    rows.size(),
+                    sql,
+                    e
+            );
+
+            throw new IllegalStateException(
+                    "Batched INSERT failed for table: " + table,
+                    e
+            );
+        }
+    }
+
+    // =====================================================
+    // TRANSACTION SYNCHRONIZATION
+    // =====================================================
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        flush();
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+    }
+}
@@ -0,0 +1,167 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Parameter converter for one database column, chosen once from the
+ * column's USER_TAB_COLUMNS type (DATA_TYPE, DATA_LENGTH, DATA_PRECISION,
+ * DATA_SCALE).
+ *
+ * Only String values are converted; anything else is already typed by
+ * the mapper and is bound as-is. A String that does not fit the column
+ * type is also bound as-is, so the database reports the error exactly as
+ * before.
+ */
+public final class ColumnBinder {
+
+    enum Kind {
+        TEXT,
+        DATE,
+        TIMESTAMP,
+        INTEGER,
+        DECIMAL,
+        OTHER
+    }
+
+    private final Kind kind;
+    private final Integer maxLength;
+
+    private ColumnBinder(Kind kind, Integer maxLength) {
+        this.kind = kind;
+        this.maxLength = maxLength;
+    }
+
+    public static ColumnBinder of(
+            String dataType,
+            Integer dataLength,
+            Integer precision,
+            Integer scale
+    ) {
+        String type =
+                dataType == null ? "" : dataType.toUpperCase();
+
+        if (type.equals("VARCHAR2")
+                || type.equals("CHAR")
+                || type.equals("NVARCHAR2")
+                || type.equals("NCHAR")) {
+            return new ColumnBinder(Kind.TEXT, dataLength);
+        }
+
+        if (type.equals("CLOB") || type.equals("NCLOB")) {
+            return new ColumnBinder(Kind.TEXT, null);
+        }
+
+        if (type.equals("DATE")) {
+            return new ColumnBinder(Kind.DATE, null);
+        }
+
+        if (type.startsWith("TIMESTAMP")) {
+            return new ColumnBinder(Kind.TIMESTAMP, null);
+        }
+
+        if (type.equals("NUMBER")) {
+
+            boolean integral =
+                    precision != null
+                            && precision <= 9
+                            && (scale == null || scale == 0);
+
+            return new ColumnBinder(
+                    integral ? Kind.INTEGER : Kind.DECIMAL,
+                    null
+            );
+        }
+
+        if (type.equals("FLOAT")
+                || type.equals("BINARY_FLOAT")
+                || type.equals("BINARY_DOUBLE")) {
+            return new ColumnBinder(Kind.DECIMAL, null);
+        }
+
+        return new ColumnBinder(Kind.OTHER, null);
+    }
+
+    /** Max length for character columns, null otherwise. */
+    public Integer getMaxLength() {
+        return kind == Kind.TEXT ? maxLength : null;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    public Object bind(Object value) {
+
+        if (!(value instanceof String str)) {
+            return value;
+        }
+
+        return switch (kind) {
+            case TEXT, OTHER -> str;
+            case DATE -> toDateTime(str, false);
+            case TIMESTAMP -> toDateTime(str, true);
+            case INTEGER -> toInteger(str);
+            case DECIMAL -> toDecimal(str);
+        };
+    }
+
+    // =====================================================
+    // CONVERTERS
+    // =====================================================
+
+    private static Object toDateTime(String str, boolean timestampOnly) {
+
+        try {
+
+            int length = str.length();
+
+            if (length == 19 && str.charAt(4) == '-' && str.charAt(7) == '-'
+                    && (str.charAt(10) == 'T' || str.charAt(10) == ' ')) {
+                return Timestamp.valueOf(str.replace('T', ' '));
+            }
+
+            if (length == 10 && str.charAt(4) == '-' && str.charAt(7) == '-') {
+                return timestampOnly
+                        ? Timestamp.valueOf(str + " 00:00:00")
+                        : Date.valueOf(str);
+            }
+
+        } catch (IllegalArgumentException e) {
+            return str;
+        }
+
+        return str;
+    }
+
+    private static Object toInteger(String str) {
+
+        String trimmed = str.trim();
+
+        if (trimmed.isEmpty()) {
+            return str;
+        }
+
+        try {
+            return Integer.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            return toDecimal(str);
+        }
+    }
+
+    private static Object toDecimal(String str) {
+
+        String trimmed = str.trim();
+
+        if (trimmed.isEmpty()) {
+            return str;
+        }
+
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            return str;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+/**
+ * One column of a table as described by USER_TAB_COLUMNS, plus whether
+ * it is part of the primary key. Immutable.
+ */
+public final class ColumnMetadata {
+
+    private final String name;
+    private final String dataType;
+    private final Integer dataLength;
+    private final Integer precision;
+    private final Integer scale;
+    private final boolean nullable;
+    private final boolean primaryKey;
+    private final ColumnBinder binder;
+
+    public ColumnMetadata(
+            String name,
+            String dataType,
+            Integer dataLength,
+            Integer precision,
+            Integer scale,
+            boolean nullable,
+            boolean primaryKey
+    ) {
+        this.name = name;
+        this.dataType = dataType;
+        this.dataLength = dataLength;
+        this.precision = precision;
+        this.scale = scale;
+        this.nullable = nullable;
+        this.primaryKey = primaryKey;
+        this.binder = ColumnBinder.of(dataType, dataLength, precision, scale);
+    }
+
+    /** Upper-case column name. */
+    public String getName() {
+        return name;
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public Integer getDataLength() {
+        return dataLength;
+    }
+
+    public Integer getPrecision() {
+        return precision;
+    }
+
+    public Integer getScale() {
+        return scale;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    /** CHAR / VARCHAR2 / CLOB family, i.e. columns that can hold blanks. */
+    public boolean isCharacter() {
+        return binder.getKind() == ColumnBinder.Kind.TEXT;
+    }
+
+    public ColumnBinder getBinder() {
+        return binder;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + dataType;
+    }
+}
@@ -0,0 +1,99 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columns of one table in COLUMN_ID order, with the lookups the SQL
+ * builder and the repository need precomputed. Immutable; an unknown
+ * table is represented by an instance without columns.
+ */
+public final class TableMetadata {
+
+    private final String tableName;
+    private final Map<String, ColumnMetadata> columns;
+    private final List<String> columnNames;
+    private final List<String> primaryKey;
+    private final Map<String, ColumnBinder> binders;
+    private final Map<String, Integer> maxLengths;
+
+    public TableMetadata(
+            String tableName,
+            List<ColumnMetadata> columns
+    ) {
+        this.tableName = tableName;
+
+        Map<String, ColumnMetadata> byName = new LinkedHashMap<>();
+        List<String> pk = new ArrayList<>();
+        Map<String, ColumnBinder> binderMap = new HashMap<>();
+        Map<String, Integer> lengthMap = new HashMap<>();
+
+        for (ColumnMetadata column : columns) {
+
+            byName.putIfAbsent(column.getName(), column);
+
+            if (column.isPrimaryKey()) {
+                pk.add(column.getName());
+            }
+
+            binderMap.put(column.getName(), column.getBinder());
+
+            if (column.getBinder().getMaxLength() != null) {
+                lengthMap.put(
+                        column.getName(),
+                        column.getBinder().getMaxLength()
+                );
+            }
+        }
+
+        this.columns = Collections.unmodifiableMap(byName);
+        this.columnNames = List.copyOf(byName.keySet());
+        this.primaryKey = List.copyOf(pk);
+        this.binders = Collections.unmodifiableMap(binderMap);
+        this.maxLengths = Collections.unmodifiableMap(lengthMap);
+    }
+
+    /** Upper-case table name. */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public boolean exists() {
+        return !columns.isEmpty();
+    }
+
+    /** Column names in COLUMN_ID order. */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public boolean hasColumn(String columnName) {
+        return columnName != null
+                && columns.containsKey(columnName.toUpperCase());
+    }
+
+    /** Column by name (case-insensitive), or null. */
+    public ColumnMetadata getColumn(String columnName) {
+        return columnName == null
+                ? null
+                : columns.get(columnName.toUpperCase());
+    }
+
+    public List<String> getPrimaryKey() {
+        return primaryKey;
+    }
+
+    /** COLUMN_NAME -> binder for every column. */
+    public Map<String, ColumnBinder> getBinders() {
+        return binders;
+    }
+
+    /** COLUMN_NAME -> max length for character columns. */
+    public Map<String, Integer> getMaxLengths() {
+        return maxLengths;
+    }
+}
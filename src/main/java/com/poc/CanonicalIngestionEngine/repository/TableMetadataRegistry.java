@@ -0,0 +1,222 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Column metadata (names, types, lengths, nullability, primary key) for
+ * every table the event configurations write to.
+ *
+ * All configured tables are loaded with one dictionary query at startup,
+ * so no event pays a USER_TAB_COLUMNS round trip on the request thread.
+ * A table that is not configured is loaded on first use.
+ *
+ * {@link #refresh()} reloads everything and bumps {@link #getVersion()};
+ * dependants compare the version to drop caches derived from the old
+ * metadata. Besides the startup preload it runs on a POST to the
+ * configreload actuator endpoint (see ConfigReloader).
+ */
+@Component
+public class TableMetadataRegistry {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TableMetadataRegistry.class);
+
+    private static final String METADATA_SQL = """
+            SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.DATA_LENGTH,
+                   c.DATA_PRECISION, c.DATA_SCALE, c.NULLABLE,
+                   CASE WHEN pk.COLUMN_NAME IS NULL THEN 'N' ELSE 'Y' END AS PK
+            FROM USER_TAB_COLUMNS c
+            LEFT JOIN (
+                SELECT cc.TABLE_NAME, cc.COLUMN_NAME
+                FROM USER_CONSTRAINTS uc
+                JOIN USER_CONS_COLUMNS cc
+                  ON cc.CONSTRAINT_NAME = uc.CONSTRAINT_NAME
+                WHERE uc.CONSTRAINT_TYPE = 'P'
+            ) pk
+              ON pk.TABLE_NAME = c.TABLE_NAME
+             AND pk.COLUMN_NAME = c.COLUMN_NAME
+            WHERE c.TABLE_NAME IN (:tableNames)
+            ORDER BY c.TABLE_NAME, c.COLUMN_ID
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EventConfigLoader eventConfigLoader;
+
+    // Swapped as a whole on refresh; lazily extended for unknown tables
+    private volatile Map<String, TableMetadata> tables =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public TableMetadataRegistry(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            EventConfigLoader eventConfigLoader
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventConfigLoader = eventConfigLoader;
+    }
+
+    // =====================================================
+    // STARTUP PRELOAD
+    // =====================================================
+
+    @PostConstruct
+    public void preload() {
+
+        try {
+
+            refresh();
+
+        } catch (DataAccessException e) {
+
+            // Tables are then loaded one by one on first use
+            log.warn(
+                    "Table metadata preload failed, loading lazily: {}",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Reloads every configured and previously seen table in one query,
+     * swaps the snapshot and bumps the version.
+     */
+    public void refresh() {
+
+        Set<String> names = new TreeSet<>(tables.keySet());
+        names.addAll(configuredTables());
+
+        Map<String, TableMetadata> loaded =
+                new ConcurrentHashMap<>(load(names));
+
+        tables = loaded;
+
+        long current = version.incrementAndGet();
+
+        log.info(
+                "Loaded metadata for {} table(s), version={}",
+                loaded.size(),
+                current
+        );
+    }
+
+    // =====================================================
+    // LOOKUP
+    // =====================================================
+
+    /**
+     * Metadata for a table (case-insensitive). Never null; a table
+     * without columns means it does not exist or is not visible.
+     */
+    public TableMetadata table(String tableName) {
+
+        String key = tableName.toUpperCase();
+
+        TableMetadata cached = tables.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        // Queried outside computeIfAbsent so no map bin lock is held
+        // across JDBC (that would pin virtual threads)
+        TableMetadata loaded = load(List.of(key)).get(key);
+        TableMetadata raced = tables.putIfAbsent(key, loaded);
+
+        return raced != null ? raced : loaded;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    // =====================================================
+    // LOAD
+    // =====================================================
+
+    private Set<String> configuredTables() {
+
+        Set<String> names = new TreeSet<>();
+
+        for (EventConfig config : eventConfigLoader.getAllConfigs()) {
+
+            if (config.getTables() == null) {
+                continue;
+            }
+
+            for (TableConfig table : config.getTables()) {
+
+                if (table.getTableName() != null) {
+                    names.add(table.getTableName().toUpperCase());
+                }
+            }
+        }
+
+        return names;
+    }
+
+    private Map<String, TableMetadata> load(Collection<String> tableNames) {
+
+        Map<String, TableMetadata> result = new HashMap<>();
+
+        if (tableNames.isEmpty()) {
+            return result;
+        }
+
+        Map<String, List<ColumnMetadata>> columns = new HashMap<>();
+
+        for (String name : tableNames) {
+            columns.put(name, new ArrayList<>());
+        }
+
+        jdbcTemplate.query(
+                METADATA_SQL,
+                Map.of("tableNames", tableNames),
+                rs -> {
+                    columns.computeIfAbsent(
+                            rs.getString("TABLE_NAME"),
+                            t -> new ArrayList<>()
+                    ).add(new ColumnMetadata(
+                            rs.getString("COLUMN_NAME").toUpperCase(),
+                            rs.getString("DATA_TYPE"),
+                            nullableInt(rs, "DATA_LENGTH"),
+                            nullableInt(rs, "DATA_PRECISION"),
+                            nullableInt(rs, "DATA_SCALE"),
+                            !"N".equals(rs.getString("NULLABLE")),
+                            "Y".equals(rs.getString("PK"))
+                    ));
+                }
+        );
+
+        columns.forEach((name, cols) ->
+                result.put(name, new TableMetadata(name, cols)));
+
+        return result;
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column)
+            throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,174 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TRAN_IDs known to exist in SEND_TRANSACTIONS, so the insert flow's
+ * exists() check skips its SELECT for a transaction written moments ago.
+ *
+ * Keys are added when {@link TransactionRepository} inserts or merges a
+ * row, or finds one with exists(). Rows are never deleted, so a key only
+ * leaves by size or age. No column values are cached.
+ *
+ * Inside a Spring transaction, keys are held per transaction and only
+ * published when it commits. A rollback to savepoint drops the keys
+ * added after its {@link #mark()}, so a failed event of a batch
+ * transaction only loses its own keys.
+ *
+ * Hit / miss / eviction metrics are published as cache.* meters with
+ * cache=transactionKeys.
+ */
+@Component
+public class TransactionKeyCache {
+
+    public static final String TABLE = "SEND_TRANSACTIONS";
+    public static final String KEY_COLUMN = "TRAN_ID";
+
+    private final Cache<String, Boolean> keys;
+
+    public TransactionKeyCache(
+            long maxSize,
+            Duration ttl
+    ) {
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Autowired
+    public TransactionKeyCache(
+            @Value("${ingestion.key-cache.max-size:10000}") long maxSize,
+            @Value("${ingestion.key-cache.ttl:5m}") Duration ttl,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(maxSize, ttl);
+
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, keys, "transactionKeys"));
+    }
+
+    /**
+     * True if the row is known to exist; false means "ask the database".
+     */
+    public boolean contains(String tranId) {
+
+        PendingKeys pending = pendingKeys(false);
+
+        if (pending != null && pending.keys.contains(tranId)) {
+            return true;
+        }
+
+        return keys.getIfPresent(tranId) != null;
+    }
+
+    /** The row exists (written or found in this transaction). */
+    public void add(String tranId) {
+
+        PendingKeys pending = pendingKeys(true);
+
+        if (pending == null) {
+            keys.put(tranId, Boolean.TRUE);
+            return;
+        }
+
+        if (pending.keys.add(tranId)) {
+            pending.added.add(tranId);
+        }
+    }
+
+    // =====================================================
+    // SAVEPOINTS
+    // =====================================================
+
+    /**
+     * Position of this transaction's key list; take it together with a
+     * savepoint and pass it to {@link #rollbackTo} when rolling back.
+     */
+    public int mark() {
+
+        PendingKeys pending = pendingKeys(false);
+
+        return pending != null ? pending.added.size() : 0;
+    }
+
+    /** Forgets the keys added since the mark. */
+    public void rollbackTo(int mark) {
+
+        PendingKeys pending = pendingKeys(false);
+
+        if (pending == null) {
+            return;
+        }
+
+        while (pending.added.size() > mark) {
+            pending.keys.remove(
+                    pending.added.remove(pending.added.size() - 1));
+        }
+    }
+
+    public long size() {
+        return keys.estimatedSize();
+    }
+
+    // =====================================================
+    // TRANSACTION SCOPE
+    // =====================================================
+
+    private PendingKeys pendingKeys(boolean create) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        PendingKeys pending = (PendingKeys)
+                TransactionSynchronizationManager.getResource(this);
+
+        if (pending == null && create) {
+
+            pending = new PendingKeys();
+
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        return pending;
+    }
+
+    private final class PendingKeys implements TransactionSynchronization {
+
+        private final Set<String> keys = new HashSet<>();
+
+        // Insertion order, for rollbackTo
+        private final List<String> added = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+
+            TransactionSynchronizationManager.unbindResourceIfPossible(
+                    TransactionKeyCache.this);
+
+            if (status == STATUS_COMMITTED) {
+                for (String key : added) {
+                    TransactionKeyCache.this.keys.put(key, Boolean.TRUE);
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.poc.CanonicalIngestionEngine.repository;
 
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,6 +39,42 @@ public class TransactionRepository {
     private final Map<String, Map<String, Integer>> columnLengthCache =
             new ConcurrentHashMap<>();
 
+    // =====================================================
+    // CACHE: tableName -> { columnName -> binder }
+    // One USER_TAB_COLUMNS query per table; the converter for
+    // each column is chosen from its real type, once.
+    // =====================================================
+    private final Map<String, Map<String, ColumnBinder>> columnBinderCache =
+            new ConcurrentHashMap<>();
+
+    // =====================================================
+    // CACHE: SQL text -> table name it writes to
+    // =====================================================
+    private final Map<String, String> tableNameCache =
+            new ConcurrentHashMap<>();
+
+    // Fallback type guessing for columns without metadata
+    private static final Pattern TIMESTAMP_T_PATTERN =
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}");
+
+    private static final Pattern TIMESTAMP_PATTERN =
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}");
+
+    private static final Pattern DATE_PATTERN =
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    // Tables keyed by TRAN_ID, in readback order
+    private static final List<String> RELATED_TABLES = List.of(
+            "SEND_TRANSACTIONS",
+            "SEND_TRAN_DTL",
+            "SEND_RECIP_DTL",
+            "SEND_TRAN_ADDR_DTL"
+    );
+
+    // Plain column name, safe to splice into a SELECT list
+    private static final Pattern IDENTIFIER_PATTERN =
+            Pattern.compile("[A-Z][A-Z0-9_$#]*");
+
     // Regex to extract table name from INSERT / UPDATE SQL
     private static final Pattern INSERT_TABLE_PATTERN =
             Pattern.compile(
@@ -43,10 +90,50 @@ public class TransactionRepository {
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
+    // Shared column metadata; null when built standalone (tests),
+    // in which case the per-table caches above are used
+    private final TableMetadataRegistry metadataRegistry;
+
+    // TRAN_IDs known to be in SEND_TRANSACTIONS; null when built
+    // standalone (tests)
+    private final TransactionKeyCache keyCache;
+
+    // Rows held per transaction by beginBatch() before a flush;
+    // 0 disables batching
+    private final int batchMaxRows;
+
     public TransactionRepository(
             NamedParameterJdbcTemplate jdbcTemplate
+    ) {
+        this(jdbcTemplate, null, null);
+    }
+
+    public TransactionRepository(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TableMetadataRegistry metadataRegistry
+    ) {
+        this(jdbcTemplate, metadataRegistry, null);
+    }
+
+    public TransactionRepository(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TableMetadataRegistry metadataRegistry,
+            TransactionKeyCache keyCache
+    ) {
+        this(jdbcTemplate, metadataRegistry, keyCache, 500);
+    }
+
+    @Autowired
+    public TransactionRepository(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TableMetadataRegistry metadataRegistry,
+            TransactionKeyCache keyCache,
+            @Value("${ingestion.batch.max-rows:500}") int batchMaxRows
     ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.metadataRegistry = metadataRegistry;
+        this.keyCache = keyCache;
+        this.batchMaxRows = batchMaxRows;
     }
 
     // =====================================================
@@ -57,10 +144,33 @@ public class TransactionRepository {
             String sql,
             Map<String, Object> params
     ) {
+        insert(sql, extractTableName(sql, INSERT_TABLE_PATTERN), params);
+    }
+
+    public void insert(
+            SqlTemplate template,
+            Map<String, Object> params
+    ) {
+        insert(template.getSql(), template.getTableName(), params);
+    }
+
+    private void insert(
+            String sql,
+            String tableName,
+            Map<String, Object> params
+    ) {
+        BatchWriter writer = batchWriter();
+
         try {
-            String tableName = extractTableName(sql, INSERT_TABLE_PATTERN);
             Map<String, Object> normalized = normalizeParams(params, tableName);
-            jdbcTemplate.update(sql, normalized);
+
+            if (writer != null) {
+                writer.add(tableName, sql, normalized);
+            } else {
+                jdbcTemplate.update(sql, normalized);
+            }
+
+            cacheKey(tableName, normalized);
         }
         catch (DuplicateKeyException e) {
             log.warn(
@@ -83,6 +193,141 @@ public class TransactionRepository {
         }
     }
 
+    // =====================================================
+    // MERGE (UPSERT)
+    // =====================================================
+
+    /**
+     * Runs a MERGE template. Two concurrent MERGEs for a new key can
+     * both take the INSERT branch; the loser gets a duplicate key error
+     * and is retried once, now taking the UPDATE branch, so its data is
+     * merged instead of dropped.
+     *
+     * @return number of rows inserted or updated
+     */
+    public int merge(
+            SqlTemplate template,
+            Map<String, Object> params
+    ) {
+        String sql = template.getSql();
+        Map<String, Object> normalized =
+                normalizeParams(params, template.getTableName());
+
+        // A queued row of this TRAN_ID (its own or its parent's) must be
+        // written before the MERGE matches or references it
+        Object tranId = normalized.get(TransactionKeyCache.KEY_COLUMN);
+
+        flushPendingIf(writer -> tranId != null
+                ? writer.isPendingKey(tranId.toString())
+                : !writer.isEmpty());
+
+        try {
+            int rows;
+            try {
+                rows = jdbcTemplate.update(sql, normalized);
+            }
+            catch (DuplicateKeyException e) {
+                log.info(
+                        "Concurrent insert detected, retrying MERGE on {}",
+                        template.getTableName()
+                );
+                rows = jdbcTemplate.update(sql, normalized);
+            }
+
+            cacheKey(template.getTableName(), normalized);
+
+            return rows;
+        }
+        catch (Exception e) {
+            log.error(
+                    "Database MERGE failed | sql={} | params={}",
+                    sql,
+                    params,
+                    e
+            );
+            throw new IllegalStateException(
+                    "Database MERGE failed for SQL: " + sql,
+                    e
+            );
+        }
+    }
+
+    // =====================================================
+    // BATCH
+    // =====================================================
+
+    /**
+     * Holds back this transaction's inserts until {@link #flushBatch()}
+     * (or every ingestion.batch.max-rows rows, or commit) and writes
+     * them as JDBC batches on the transaction's connection. A statement
+     * that reads or modifies pending rows (same table and TRAN_ID, or
+     * the same table when it is not keyed by TRAN_ID) flushes them
+     * first, so reads and updates always see them; exists() on TRAN_ID
+     * is answered from them plus the database, without a flush. Rows of
+     * unrelated events stay queued and go out in the same batch.
+     *
+     * While a batch is open a failed insert surfaces at the flush, not
+     * at the insert that queued it; a duplicate key fails the flush
+     * instead of being skipped.
+     *
+     * @return false, and nothing changes, outside a transaction or when
+     *         batching is disabled (max-rows 0)
+     */
+    public boolean beginBatch() {
+
+        if (batchMaxRows <= 0
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || batchWriter() != null) {
+            return false;
+        }
+
+        BatchWriter writer = new BatchWriter(this, jdbcTemplate, batchMaxRows);
+
+        TransactionSynchronizationManager.bindResource(this, writer);
+        TransactionSynchronizationManager.registerSynchronization(writer);
+
+        return true;
+    }
+
+    /** Writes the rows queued since {@link #beginBatch()}. */
+    public void flushBatch() {
+        flushPending();
+    }
+
+    /**
+     * Stops queueing inserts; rows not yet flushed are dropped, so call
+     * this after {@link #flushBatch()}, or after rolling back.
+     */
+    public void endBatch() {
+
+        BatchWriter writer = batchWriter();
+
+        if (writer != null) {
+            writer.discard();
+            TransactionSynchronizationManager.unbindResource(this);
+        }
+    }
+
+    private BatchWriter batchWriter() {
+        return (BatchWriter) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private void flushPending() {
+        flushPendingIf(writer -> true);
+    }
+
+    /** Flushes only if the next statement could see the pending rows. */
+    private void flushPendingIf(Predicate<BatchWriter> touchesPending) {
+
+        BatchWriter writer = batchWriter();
+
+        if (writer != null
+                && !writer.isEmpty()
+                && touchesPending.test(writer)) {
+            writer.flush();
+        }
+    }
+
     // =====================================================
     // UPDATE
     // =====================================================
@@ -91,10 +336,31 @@ public class TransactionRepository {
             String sql,
             Map<String, Object> params
     ) {
+        update(sql, extractTableName(sql, UPDATE_TABLE_PATTERN), params);
+    }
+
+    /**
+     * @return number of rows updated
+     */
+    public int update(
+            SqlTemplate template,
+            Map<String, Object> params
+    ) {
+        return update(template.getSql(), template.getTableName(), params);
+    }
+
+    private int update(
+            String sql,
+            String tableName,
+            Map<String, Object> params
+    ) {
+        // The WHERE clause is opaque here: any pending row of the table
+        // could match
+        flushPendingIf(writer -> writer.hasPending(tableName));
+
         try {
-            String tableName = extractTableName(sql, UPDATE_TABLE_PATTERN);
             Map<String, Object> normalized = normalizeParams(params, tableName);
-            jdbcTemplate.update(sql, normalized);
+            return jdbcTemplate.update(sql, normalized);
         }
         catch (Exception e) {
             log.error(
@@ -119,8 +385,28 @@ public class TransactionRepository {
             String columnName,
             String value
     ) {
+        boolean cached = isCachedKey(tableName, columnName);
+
+        if (cached && keyCache.contains(value)) {
+            return true;
+        }
+
+        if (TransactionKeyCache.KEY_COLUMN.equalsIgnoreCase(columnName)) {
+
+            // Pending rows answer for themselves; the database for the rest
+            BatchWriter writer = batchWriter();
+
+            if (writer != null && writer.isPending(tableName, value)) {
+                return true;
+            }
+
+        } else {
+
+            flushPendingIf(writer -> writer.hasPending(tableName));
+        }
+
         String sql =
-                "SELECT COUNT(1) FROM "
+                "SELECT 1 FROM "
                         + tableName
                         + " WHERE "
                         + columnName
@@ -129,76 +415,95 @@ public class TransactionRepository {
         Map<String, Object> params = new HashMap<>();
         params.put("value", value);
 
-        Integer count =
-                jdbcTemplate.queryForObject(
-                        sql,
+        boolean found = probe(sql, params);
+
+        if (found && cached) {
+            keyCache.add(value);
+        }
+
+        return found;
+    }
+
+    /**
+     * True if the query returns any row; stops at the first one instead
+     * of counting every match.
+     */
+    private boolean probe(
+            String sql,
+            Map<String, Object> params
+    ) {
+        Boolean found =
+                jdbcTemplate.query(
+                        sql + " FETCH FIRST 1 ROWS ONLY",
                         params,
-                        Integer.class
+                        (ResultSetExtractor<Boolean>) ResultSet::next
                 );
 
-        return count != null && count > 0;
+        return Boolean.TRUE.equals(found);
     }
 
     // =====================================================
-    // FETCH MAIN TRANSACTION
+    // LOCK MAIN TRANSACTION (UPDATE FLOW)
     // =====================================================
 
-    public Map<String, Object> findTransaction(
-            String tranId
+    /**
+     * Reads only the given SEND_TRANSACTIONS columns, in one statement,
+     * and locks the row until the surrounding transaction ends. Columns
+     * the table does not have are left out. Child tables are loaded
+     * through the snapshot only if the caller asks for them.
+     *
+     * Always goes to the database: only the database can take the lock.
+     *
+     * @return the snapshot, or null when no row has this TRAN_ID
+     */
+    public TransactionSnapshot lockTransaction(
+            String tranId,
+            Collection<String> columns
     ) {
-        String sql = """
-                SELECT *
-                FROM SEND_TRANSACTIONS
-                WHERE TRAN_ID = :tranId
-                """;
+        flushPendingIf(writer ->
+                writer.isPending(TransactionKeyCache.TABLE, tranId));
 
-        Map<String, Object> params = new HashMap<>();
-        params.put("tranId", tranId);
+        Map<String, ColumnBinder> known =
+                getColumnBinders(TransactionKeyCache.TABLE);
 
-        List<Map<String, Object>> result =
-                jdbcTemplate.queryForList(sql, params);
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(TransactionKeyCache.KEY_COLUMN);
 
-        if (result.isEmpty()) {
-            return null;
-        }
+        for (String column : columns) {
 
-        return result.get(0);
-    }
+            String name = column.toUpperCase();
 
-    // =====================================================
-    // FETCH SINGLE COLUMN VALUE
-    // =====================================================
+            boolean valid = known.isEmpty()
+                    ? IDENTIFIER_PATTERN.matcher(name).matches()
+                    : known.containsKey(name);
+
+            if (valid) {
+                selected.add(name);
+            }
+        }
 
-    public Object findColumnValue(
-            String tableName,
-            String idColumn,
-            String idValue,
-            String targetColumn
-    ) {
         String sql =
                 "SELECT "
-                        + targetColumn
-                        + " FROM "
-                        + tableName
-                        + " WHERE "
-                        + idColumn
-                        + " = :idValue";
+                        + String.join(", ", selected)
+                        + " FROM SEND_TRANSACTIONS"
+                        + " WHERE TRAN_ID = :tranId"
+                        + " FOR UPDATE";
 
         Map<String, Object> params = new HashMap<>();
-        params.put("idValue", idValue);
+        params.put("tranId", tranId);
 
-        List<Object> result =
-                jdbcTemplate.query(
-                        sql,
-                        params,
-                        (rs, rowNum) -> rs.getObject(1)
-                );
+        List<Map<String, Object>> result =
+                jdbcTemplate.queryForList(sql, params);
 
         if (result.isEmpty()) {
             return null;
         }
 
-        return result.get(0);
+        return new TransactionSnapshot(
+                tranId,
+                result.get(0),
+                table -> findRelatedRows(table, tranId)
+        );
     }
 
     // =====================================================
@@ -209,58 +514,38 @@ public class TransactionRepository {
     findAllRelatedData(String tranId) {
 
         Map<String, List<Map<String, Object>>> result = new HashMap<>();
-        Map<String, Object> params = new HashMap<>();
-        params.put("tranId", tranId);
 
-        result.put(
-                "SEND_TRANSACTIONS",
-                jdbcTemplate.queryForList(
-                        """
-                        SELECT *
-                        FROM SEND_TRANSACTIONS
-                        WHERE TRAN_ID = :tranId
-                        """,
-                        params
-                )
-        );
+        for (String table : RELATED_TABLES) {
+            result.put(table, findRelatedRows(table, tranId));
+        }
 
-        result.put(
-                "SEND_TRAN_DTL",
-                jdbcTemplate.queryForList(
-                        """
-                        SELECT *
-                        FROM SEND_TRAN_DTL
-                        WHERE TRAN_ID = :tranId
-                        """,
-                        params
-                )
-        );
+        return result;
+    }
 
-        result.put(
-                "SEND_RECIP_DTL",
-                jdbcTemplate.queryForList(
-                        """
-                        SELECT *
-                        FROM SEND_RECIP_DTL
-                        WHERE TRAN_ID = :tranId
-                        """,
-                        params
-                )
-        );
+    /**
+     * All rows of one of the transaction tables for a TRAN_ID.
+     */
+    public List<Map<String, Object>> findRelatedRows(
+            String tableName,
+            String tranId
+    ) {
+        String table = tableName.toUpperCase();
 
-        result.put(
-                "SEND_TRAN_ADDR_DTL",
-                jdbcTemplate.queryForList(
-                        """
-                        SELECT *
-                        FROM SEND_TRAN_ADDR_DTL
-                        WHERE TRAN_ID = :tranId
-                        """,
-                        params
-                )
-        );
+        if (!RELATED_TABLES.contains(table)) {
+            throw new IllegalArgumentException(
+                    "Not a transaction table: " + tableName
+            );
+        }
 
-        return result;
+        flushPendingIf(writer -> writer.isPending(table, tranId));
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("tranId", tranId);
+
+        return jdbcTemplate.queryForList(
+                "SELECT * FROM " + table + " WHERE TRAN_ID = :tranId",
+                params
+        );
     }
 
     // =====================================================
@@ -284,6 +569,9 @@ public class TransactionRepository {
         Map<String, Object> normalized =
                 normalizeParams(params, "SEND_TRANSACTIONS");
 
+        flushPendingIf(writer ->
+                writer.isPending(TransactionKeyCache.TABLE, tranId));
+
         jdbcTemplate.update(sql, normalized);
     }
 
@@ -308,10 +596,19 @@ public class TransactionRepository {
                         + idColumn
                         + " = :idValue";
 
+        ColumnBinder binder =
+                getColumnBinders(tableName)
+                        .get(targetColumn.toUpperCase());
+
+        Object boundValue =
+                binder != null
+                        ? binder.bind(targetValue)
+                        : targetValue;
+
         // Truncate targetValue to the actual DB column max length
         // so ORA-12899 never fires on single-column updates either.
-        Object safeValue = targetValue;
-        if (targetValue instanceof String str) {
+        Object safeValue = boundValue;
+        if (boundValue instanceof String str) {
             Map<String, Integer> lengths =
                     getColumnMaxLengths(tableName);
             Integer maxLen =
@@ -332,9 +629,59 @@ public class TransactionRepository {
         params.put("targetValue", safeValue);
         params.put("idValue", idValue);
 
+        flushPendingIf(writer ->
+                TransactionKeyCache.KEY_COLUMN.equalsIgnoreCase(idColumn)
+                        ? writer.isPending(tableName, idValue)
+                        : writer.hasPending(tableName));
+
         jdbcTemplate.update(sql, params);
     }
 
+    // =====================================================
+    // KEY CACHE
+    // =====================================================
+
+    /**
+     * Position of this transaction's cached keys; taken with a savepoint.
+     */
+    public int markCachedKeys() {
+        return keyCache != null ? keyCache.mark() : 0;
+    }
+
+    /**
+     * Drops the keys cached since the mark; called after a rollback to
+     * the savepoint taken with it.
+     */
+    public void rollbackCachedKeys(int mark) {
+        if (keyCache != null) {
+            keyCache.rollbackTo(mark);
+        }
+    }
+
+    private boolean isCachedTable(String tableName) {
+        return keyCache != null
+                && TransactionKeyCache.TABLE.equalsIgnoreCase(tableName);
+    }
+
+    private boolean isCachedKey(String tableName, String columnName) {
+        return isCachedTable(tableName)
+                && TransactionKeyCache.KEY_COLUMN.equalsIgnoreCase(columnName);
+    }
+
+    /** A row with this TRAN_ID now exists (insert / MERGE). */
+    private void cacheKey(String tableName, Map<String, Object> params) {
+
+        if (!isCachedTable(tableName)) {
+            return;
+        }
+
+        Object tranId = params.get(TransactionKeyCache.KEY_COLUMN);
+
+        if (tranId != null) {
+            keyCache.add(tranId.toString());
+        }
+    }
+
     // =====================================================
     // CHECK COLUMN EXISTS
     // =====================================================
@@ -343,25 +690,20 @@ public class TransactionRepository {
             String tableName,
             String columnName
     ) {
-        String sql = """
-                SELECT COUNT(1)
-                FROM USER_TAB_COLUMNS
-                WHERE TABLE_NAME = :tableName
-                AND COLUMN_NAME = :columnName
-                """;
+        if (metadataRegistry != null) {
+            return metadataRegistry.table(tableName).hasColumn(columnName);
+        }
+
+        String sql =
+                "SELECT 1 FROM USER_TAB_COLUMNS"
+                        + " WHERE TABLE_NAME = :tableName"
+                        + " AND COLUMN_NAME = :columnName";
 
         Map<String, Object> params = new HashMap<>();
         params.put("tableName", tableName.toUpperCase());
         params.put("columnName", columnName.toUpperCase());
 
-        Integer count =
-                jdbcTemplate.queryForObject(
-                        sql,
-                        params,
-                        Integer.class
-                );
-
-        return count != null && count > 0;
+        return probe(sql, params);
     }
 
     // =====================================================
@@ -369,9 +711,9 @@ public class TransactionRepository {
     // =====================================================
 
     /**
-     * Queries USER_TAB_COLUMNS for all VARCHAR2/CHAR column lengths
-     * for the given table. Results are cached in-memory so the DB
-     * is only hit once per table per application lifetime.
+     * Max lengths of the VARCHAR2/CHAR columns of a table, taken from
+     * the metadata registry or, standalone, from the same
+     * USER_TAB_COLUMNS load as the column binders.
      *
      * @param tableName the Oracle table name (case-insensitive)
      * @return map of COLUMN_NAME (upper-case) -> DATA_LENGTH
@@ -381,49 +723,122 @@ public class TransactionRepository {
             return new HashMap<>();
         }
 
+        if (metadataRegistry != null) {
+            return metadataRegistry.table(tableName).getMaxLengths();
+        }
+
         String key = tableName.toUpperCase();
 
-        return columnLengthCache.computeIfAbsent(key, t -> {
-            String sql = """
-                    SELECT COLUMN_NAME, DATA_LENGTH
-                    FROM USER_TAB_COLUMNS
-                    WHERE TABLE_NAME = :tableName
-                    AND DATA_TYPE IN ('VARCHAR2', 'CHAR', 'NVARCHAR2', 'NCHAR')
-                    """;
+        Map<String, Integer> lengths = columnLengthCache.get(key);
+
+        if (lengths != null) {
+            return lengths;
+        }
 
-            Map<String, Object> params = new HashMap<>();
-            params.put("tableName", t);
+        getColumnBinders(key);
 
-            Map<String, Integer> lengths = new HashMap<>();
+        return columnLengthCache.getOrDefault(key, Map.of());
+    }
 
-            jdbcTemplate.query(sql, params, rs -> {
-                lengths.put(
-                        rs.getString("COLUMN_NAME").toUpperCase(),
-                        rs.getInt("DATA_LENGTH")
-                );
-            });
+    // =====================================================
+    // FETCH COLUMN TYPES FROM DB (cached per table)
+    // =====================================================
 
-            log.debug(
-                    "Loaded column max lengths for table={}: {}",
-                    t,
-                    lengths
+    /**
+     * Loads every column of the table from USER_TAB_COLUMNS and builds
+     * a {@link ColumnBinder} per column from DATA_TYPE / precision /
+     * scale. Character column lengths go to columnLengthCache.
+     *
+     * @return map of COLUMN_NAME (upper-case) -> binder; empty when the
+     *         table is unknown, in which case values are type-guessed
+     */
+    private Map<String, ColumnBinder> getColumnBinders(String tableName) {
+        if (tableName == null || tableName.isBlank()) {
+            return Map.of();
+        }
+
+        if (metadataRegistry != null) {
+            return metadataRegistry.table(tableName).getBinders();
+        }
+
+        String key = tableName.toUpperCase();
+
+        Map<String, ColumnBinder> cached = columnBinderCache.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        // Loaded outside computeIfAbsent: no JDBC while holding a map bin
+        // lock (pins virtual threads); a racing first load is harmless
+        Map<String, ColumnBinder> loaded = loadColumnBinders(key);
+        Map<String, ColumnBinder> raced = columnBinderCache.putIfAbsent(key, loaded);
+
+        return raced != null ? raced : loaded;
+    }
+
+    private Map<String, ColumnBinder> loadColumnBinders(String tableName) {
+        String sql = """
+                SELECT COLUMN_NAME, DATA_TYPE, DATA_LENGTH,
+                       DATA_PRECISION, DATA_SCALE
+                FROM USER_TAB_COLUMNS
+                WHERE TABLE_NAME = :tableName
+                """;
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("tableName", tableName);
+
+        Map<String, ColumnBinder> binders = new HashMap<>();
+        Map<String, Integer> lengths = new HashMap<>();
+
+        jdbcTemplate.query(sql, params, rs -> {
+            String column =
+                    rs.getString("COLUMN_NAME").toUpperCase();
+
+            ColumnBinder binder = ColumnBinder.of(
+                    rs.getString("DATA_TYPE"),
+                    nullableInt(rs, "DATA_LENGTH"),
+                    nullableInt(rs, "DATA_PRECISION"),
+                    nullableInt(rs, "DATA_SCALE")
             );
 
-            return lengths;
+            binders.put(column, binder);
+
+            if (binder.getMaxLength() != null) {
+                lengths.put(column, binder.getMaxLength());
+            }
         });
+
+        columnLengthCache.putIfAbsent(tableName, lengths);
+
+        log.debug(
+                "Loaded column types for table={}: {} columns",
+                tableName,
+                binders.size()
+        );
+
+        return binders;
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column)
+            throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
     }
 
     // =====================================================
     // EXTRACT TABLE NAME FROM SQL
+    // Only for callers passing raw SQL; the builder's SQL
+    // strings are cached templates, so each one is parsed once.
+    // Template callers pass the table name directly.
     // =====================================================
 
     private String extractTableName(String sql, Pattern pattern) {
         if (sql == null) return null;
-        Matcher matcher = pattern.matcher(sql.replaceAll("\\s+", " ").trim());
-        if (matcher.find()) {
-            return matcher.group(1).toUpperCase();
-        }
-        return null;
+        return tableNameCache.computeIfAbsent(sql, key -> {
+            Matcher matcher = pattern.matcher(key.replaceAll("\\s+", " ").trim());
+            return matcher.find() ? matcher.group(1).toUpperCase() : null;
+        });
     }
 
     // =====================================================
@@ -436,6 +851,9 @@ public class TransactionRepository {
             Map<String, Object> params,
             String tableName
     ) {
+        Map<String, ColumnBinder> binders =
+                getColumnBinders(tableName);
+
         Map<String, Integer> columnLengths =
                 getColumnMaxLengths(tableName);
 
@@ -443,10 +861,16 @@ public class TransactionRepository {
 
         for (Map.Entry<String, Object> entry : params.entrySet()) {
 
-            Object value = convertValue(entry.getValue());
+            String columnKey = entry.getKey().toUpperCase();
+            ColumnBinder binder = binders.get(columnKey);
+
+            // Known column: convert by its real type, no guessing
+            Object value =
+                    binder != null
+                            ? binder.bind(entry.getValue())
+                            : convertValue(entry.getValue());
 
             if (value instanceof String str) {
-                String columnKey = entry.getKey().toUpperCase();
                 Integer maxLen   = columnLengths.get(columnKey);
 
                 if (maxLen != null && str.length() > maxLen) {
@@ -472,6 +896,7 @@ public class TransactionRepository {
 
     // =====================================================
     // VALUE CONVERTER
+    // Fallback for columns without USER_TAB_COLUMNS metadata.
     // =====================================================
 
     private Object convertValue(Object value) {
@@ -481,19 +906,15 @@ public class TransactionRepository {
         }
 
         try {
-            if (str.matches(
-                    "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}"
-            )) {
+            if (TIMESTAMP_T_PATTERN.matcher(str).matches()) {
                 return Timestamp.valueOf(str.replace("T", " "));
             }
 
-            if (str.matches(
-                    "\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}"
-            )) {
+            if (TIMESTAMP_PATTERN.matcher(str).matches()) {
                 return Timestamp.valueOf(str);
             }
 
-            if (str.matches("\\d{4}-\\d{2}-\\d{2}")) {
+            if (DATE_PATTERN.matcher(str).matches()) {
                 return Date.valueOf(str);
             }
         }
@@ -507,4 +928,4 @@ public class TransactionRepository {
 
         return value;
     }
-}
\ No newline at end of file
+}
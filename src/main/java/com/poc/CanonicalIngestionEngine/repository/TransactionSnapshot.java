@@ -0,0 +1,69 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The SEND_TRANSACTIONS columns one update needs, read once with the row
+ * locked (see {@link TransactionRepository#lockTransaction}).
+ *
+ * Child-table rows are not part of the read; {@link #getRelated} loads a
+ * table on first use and keeps it for the rest of the flow. Meant for a
+ * single flow on a single thread.
+ */
+public final class TransactionSnapshot {
+
+    private final String tranId;
+    private final Map<String, Object> row;
+    private final Function<String, List<Map<String, Object>>> relatedLoader;
+
+    private final Map<String, List<Map<String, Object>>> related =
+            new HashMap<>();
+
+    public TransactionSnapshot(
+            String tranId,
+            Map<String, Object> row,
+            Function<String, List<Map<String, Object>>> relatedLoader
+    ) {
+        Map<String, Object> columns = new HashMap<>();
+        row.forEach((column, value) -> columns.put(column.toUpperCase(), value));
+
+        this.tranId = tranId;
+        this.row = Collections.unmodifiableMap(columns);
+        this.relatedLoader = relatedLoader;
+    }
+
+    public String getTranId() {
+        return tranId;
+    }
+
+    /** Upper-cased column name -> value, for the columns that were read. */
+    public Map<String, Object> getRow() {
+        return row;
+    }
+
+    public Object get(String column) {
+        return row.get(column.toUpperCase());
+    }
+
+    /** Null or blank, the same test mergeNullFields applies in SQL. */
+    public boolean isEmpty(String column) {
+
+        Object value = get(column);
+
+        return value == null || value.toString().isBlank();
+    }
+
+    /**
+     * Rows of a child table for this TRAN_ID, queried on first call.
+     */
+    public List<Map<String, Object>> getRelated(String tableName) {
+        return related.computeIfAbsent(
+                tableName.toUpperCase(),
+                relatedLoader
+        );
+    }
+}
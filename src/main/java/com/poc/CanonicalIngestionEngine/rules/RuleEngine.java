@@ -1,6 +1,9 @@
 package com.poc.CanonicalIngestionEngine.rules;
 
+import com.poc.CanonicalIngestionEngine.config.EventPlan;
+import com.poc.CanonicalIngestionEngine.config.PayloadExtractionMode;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
 import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
@@ -35,6 +38,43 @@ public class RuleEngine {
      * Apply business rules to an event envelope
      */
     public void apply(EventEnvelope envelope) {
+        fire(envelope, new Facts());
+    }
+
+    /**
+     * Apply business rules to an already parsed event.
+     *
+     * In addition to the envelope facts, rules get the parsed
+     * "metadata" and "payload" trees so they never re-parse JSON.
+     *
+     * Events with streaming extraction get no "payload" fact: their
+     * tree holds only the mapped fields, and a rule would see every
+     * other field as missing. Their rules read the eventPayload text.
+     */
+    public void apply(ParsedEvent event) {
+
+        Facts facts = new Facts();
+
+        facts.put("metadata", event.getMetadata());
+
+        if (!isStreaming(event.getPlan())) {
+            facts.put("payload", event.getPayload());
+        }
+
+        if (event.getTransactionId() != null) {
+            facts.put("transactionId", event.getTransactionId());
+        }
+
+        fire(event.getEnvelope(), facts);
+    }
+
+    private static boolean isStreaming(EventPlan plan) {
+        return plan != null
+                && plan.getExtractionMode()
+                == PayloadExtractionMode.STREAMING;
+    }
+
+    private void fire(EventEnvelope envelope, Facts facts) {
 
         log.info(
                 "Evaluating business rules for eventName={} eventId={}",
@@ -57,8 +97,6 @@ public class RuleEngine {
             return;
         }
 
-        Facts facts = new Facts();
-
         facts.put("envelope", envelope);
         facts.put("eventName", envelope.getEventName());
         facts.put("eventId", envelope.getEventId());
@@ -1,7 +1,10 @@
 package com.poc.CanonicalIngestionEngine.rules;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.ConfigChanges;
+import com.poc.CanonicalIngestionEngine.config.ConfigServerClient;
+import com.poc.CanonicalIngestionEngine.config.ConfigSnapshot;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.mvel.MVELRule;
 import org.slf4j.Logger;
@@ -11,14 +14,18 @@ import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
 
-import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RuleLoader {
@@ -26,9 +33,14 @@ public class RuleLoader {
     private static final Logger log =
             LoggerFactory.getLogger(RuleLoader.class);
 
-    private final Map<String, Rules> rulesCache =
+    // Replaced as a whole by a reload, never modified once published
+    private volatile Map<String, Rules> rulesCache =
             new ConcurrentHashMap<>();
 
+    // Rule file -> property source it was built from (for diffing)
+    private volatile Map<String, Map<String, Object>> sources =
+            Map.of();
+
     private static final List<String> RULE_FILES = List.of(
             "ais-rules",
             "ais2-rules",
@@ -43,9 +55,25 @@ public class RuleLoader {
             "refund-rules"
     );
 
+    private static final String SNAPSHOT_FILE = "rules.json";
+
     @Value("${config.server.url:http://localhost:8888}")
     private String configServerUrl;
 
+    @Value("${config.server.connect-timeout:2s}")
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    @Value("${config.server.read-timeout:5s}")
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    // Blank = no snapshot (cold start from the config server only)
+    @Value("${config.snapshot.dir:}")
+    private String snapshotDir;
+
+    private ConfigServerClient client;
+
+    private volatile boolean warmStarted;
+
     @PostConstruct
     public void init() {
 
@@ -53,40 +81,176 @@ public class RuleLoader {
         log.info("RuleLoader: Loading Business Rules");
         log.info("========================================");
 
-        ObjectMapper mapper = new ObjectMapper();
+        StopWatch phases = new StopWatch("RuleLoader");
 
-        for (String ruleFile : RULE_FILES) {
+        ConfigSnapshot snapshot = snapshot();
 
-            try {
+        phases.start("snapshot-read");
+        Map<String, Map<String, Object>> cached = snapshot.read();
+        phases.stop();
 
-                String url =
-                        configServerUrl + "/" + ruleFile + "/default";
+        if (!cached.isEmpty()) {
 
-                log.info("Fetching rules from: {}", url);
+            // Warm start: serve the last known rules right away
+            phases.start("build");
+            publish(cached, Set.of());
+            phases.stop();
 
-                Map<String, Object> response =
-                        mapper.readValue(new URL(url), Map.class);
+            log.info(
+                    "Booted from rules snapshot {}, reconciling after startup",
+                    snapshot
+            );
 
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> propertySources =
-                        (List<Map<String, Object>>)
-                                response.get("propertySources");
+            warmStarted = true;
 
-                if (propertySources == null ||
-                        propertySources.isEmpty()) {
+        } else {
 
-                    log.warn(
-                            "No propertySources found for {}",
-                            ruleFile
-                    );
+            phases.start("fetch");
+            Map<String, Map<String, Object>> fetched =
+                    client().fetchSources(RULE_FILES);
+            phases.stop();
 
-                    continue;
-                }
+            phases.start("build");
+            publish(fetched, Set.of());
+            phases.stop();
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> source =
-                        (Map<String, Object>)
-                                propertySources.get(0).get("source");
+            if (!fetched.isEmpty()) {
+                phases.start("snapshot-write");
+                snapshot.write(sources);
+                phases.stop();
+            }
+        }
+
+        log.info("========================================");
+        log.info(
+                "Loaded rules for {} event type(s)",
+                rulesCache.size()
+        );
+        log.info("========================================");
+        log.info(
+                "Startup phases\n{}",
+                phases.prettyPrint(TimeUnit.MILLISECONDS)
+        );
+    }
+
+    /**
+     * True if init() booted from the snapshot, which still has to be
+     * reconciled with the config server; ConfigReloader does that
+     * once the context is refreshed.
+     */
+    public boolean isWarmStarted() {
+        return warmStarted;
+    }
+
+    // =====================================================
+    // RELOAD
+    // =====================================================
+
+    /**
+     * Fetches every rule file and rebuilds only the ones whose source
+     * differs from what is loaded. A file the server no longer has drops
+     * its rules; a file that could not be read keeps its current rules.
+     * The changes are published with one atomic swap and the snapshot is
+     * rewritten.
+     *
+     * RuleEngine reads the rules once per event, so an event already
+     * being evaluated finishes on the previous rules.
+     *
+     * @return event types whose rules were replaced, added or dropped
+     */
+    public synchronized ConfigChanges reload() {
+
+        long start = System.nanoTime();
+
+        ConfigServerClient.Fetched result =
+                client().fetch(RULE_FILES);
+
+        Map<String, Map<String, Object>> fetched =
+                result.getSources();
+
+        if (fetched.isEmpty()) {
+
+            log.warn(
+                    "Config server returned no rules, keeping current"
+            );
+
+            return ConfigChanges.NONE;
+        }
+
+        Map<String, Map<String, Object>> changed =
+                new LinkedHashMap<>();
+
+        Map<String, Map<String, Object>> current = sources;
+
+        fetched.forEach((name, source) -> {
+            if (!source.equals(current.get(name))) {
+                changed.put(name, source);
+            }
+        });
+
+        Set<String> gone = new LinkedHashSet<>(result.getAbsent());
+        gone.retainAll(current.keySet());
+
+        ConfigChanges eventTypes = changed.isEmpty() && gone.isEmpty()
+                ? ConfigChanges.NONE
+                : publish(changed, gone);
+
+        if (!eventTypes.isEmpty()) {
+            snapshot().write(sources);
+        }
+
+        log.info(
+                "Reloaded rules | fetched={} | changed={} | gone={} | eventTypes={} | {}ms",
+                fetched.size(),
+                changed.keySet(),
+                gone,
+                eventTypes,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return eventTypes;
+    }
+
+    // =====================================================
+    // BUILD
+    // =====================================================
+
+    /**
+     * Drops the rules of the gone files, builds the given rule files on
+     * top of the current rules and swaps the result in; other event
+     * types keep their Rules instances.
+     *
+     * @return event types that were built or dropped
+     */
+    private synchronized ConfigChanges publish(
+            Map<String, Map<String, Object>> ruleSources,
+            Set<String> goneFiles
+    ) {
+
+        Map<String, Rules> rules = new ConcurrentHashMap<>(rulesCache);
+
+        Map<String, Map<String, Object>> built =
+                new LinkedHashMap<>(sources);
+
+        Set<String> removed = new LinkedHashSet<>();
+
+        for (String ruleFile : goneFiles) {
+
+            built.remove(ruleFile);
+
+            String eventType = extractEventType(ruleFile);
+
+            if (rules.remove(eventType) != null) {
+                removed.add(eventType);
+                log.info("Removed rules for event: {}", eventType);
+            }
+        }
+
+        Set<String> eventTypes = new LinkedHashSet<>();
+
+        ruleSources.forEach((ruleFile, source) -> {
+
+            try {
 
                 Binder binder = new Binder(
                         new MapConfigurationPropertySource(source)
@@ -101,12 +265,12 @@ public class RuleLoader {
                                         )
                                         .orElse(Collections.emptyList());
 
-                Rules rules = buildRules(ruleDefs);
-
                 String eventType =
                         extractEventType(ruleFile);
 
-                rulesCache.put(eventType, rules);
+                rules.put(eventType, buildRules(ruleDefs));
+                built.put(ruleFile, source);
+                eventTypes.add(eventType);
 
                 log.info(
                         "Loaded {} rule(s) for event: {}",
@@ -122,14 +286,43 @@ public class RuleLoader {
                         e
                 );
             }
+        });
+
+        if (eventTypes.isEmpty() && removed.isEmpty()) {
+            return ConfigChanges.NONE;
         }
 
-        log.info("========================================");
-        log.info(
-                "Loaded rules for {} event type(s)",
-                rulesCache.size()
-        );
-        log.info("========================================");
+        rulesCache = rules;
+        sources = Collections.unmodifiableMap(built);
+
+        return new ConfigChanges(eventTypes, removed);
+    }
+
+    private ConfigSnapshot snapshot() {
+        return ConfigSnapshot.in(snapshotDir, SNAPSHOT_FILE);
+    }
+
+    // Built on first use, once the @Value fields are set
+    private synchronized ConfigServerClient client() {
+
+        if (client == null) {
+            client = new ConfigServerClient(
+                    configServerUrl,
+                    connectTimeout,
+                    readTimeout
+            );
+        }
+
+        return client;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+
+        if (client != null) {
+            client.close();
+            client = null;
+        }
     }
 
     private Rules buildRules(
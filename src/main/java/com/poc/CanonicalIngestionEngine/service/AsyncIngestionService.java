@@ -0,0 +1,354 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts events into bounded in-process queues drained by worker lanes,
+ * and tracks each one under a receipt id.
+ *
+ * Enabled with ingestion.async.enabled. The envelope is parsed on submit
+ * and routed by its resolved transaction id to a {@link KeyOrderedExecutor}
+ * lane: events for the same TRAN_ID (clearing, AIS2, status updates) apply
+ * in arrival order, different TRAN_IDs run in parallel. Events without a
+ * transaction id are spread by eventId, or by receipt id without either.
+ *
+ * When the lane is full {@link #submit} throws {@link QueueFullException}
+ * right away instead of blocking the request thread, so callers can
+ * answer 429. An envelope that does not parse is rejected the same way
+ * with {@link InvalidEventException} (400) and gets no receipt.
+ *
+ * Receipts are kept in memory: PENDING until a worker finishes, then
+ * SUCCESS / IGNORED / FAILED. Only the newest maxRetained finished
+ * receipts are kept; receipts do not survive a restart.
+ */
+@Service
+public class AsyncIngestionService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(AsyncIngestionService.class);
+
+    private final IngestionService ingestionService;
+    private final DbConcurrencyLimiter dbLimiter;
+    private final boolean enabled;
+    private final int maxRetained;
+
+    private final KeyOrderedExecutor executor;
+
+    private final Map<String, EventResult> receipts =
+            new ConcurrentHashMap<>();
+
+    // Finished receipt ids, oldest first, for eviction
+    private final Queue<String> finished =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    public AsyncIngestionService(
+            IngestionService ingestionService,
+            boolean enabled,
+            int workers,
+            int queueCapacity,
+            int maxRetained
+    ) {
+        this(
+                ingestionService,
+                enabled,
+                workers,
+                queueCapacity,
+                maxRetained,
+                null,
+                DbConcurrencyLimiter.unlimited()
+        );
+    }
+
+    private AsyncIngestionService(
+            IngestionService ingestionService,
+            boolean enabled,
+            int workers,
+            int queueCapacity,
+            int maxRetained,
+            ThreadFactory threadFactory,
+            DbConcurrencyLimiter dbLimiter
+    ) {
+        this.ingestionService = ingestionService;
+        this.dbLimiter = dbLimiter;
+        this.enabled = enabled;
+        this.maxRetained = maxRetained;
+        this.executor = new KeyOrderedExecutor(
+                "ingest",
+                workers,
+                Math.max(1, queueCapacity / workers),
+                threadFactory
+        );
+    }
+
+    /**
+     * With ingestion.virtual-threads (virtual profile, Java 21+) each lane
+     * runs on a virtual thread. Lanes then cost next to nothing and may
+     * outnumber the pooled connections: each ingest holds a
+     * {@link DbConcurrencyLimiter} permit, so parked lanes wait there
+     * rather than inside Hikari.
+     */
+    @Autowired
+    public AsyncIngestionService(
+            IngestionService ingestionService,
+            @Value("${ingestion.async.enabled:false}") boolean enabled,
+            @Value("${ingestion.async.workers:8}") int workers,
+            @Value("${ingestion.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${ingestion.async.max-retained-receipts:100000}") int maxRetained,
+            @Value("${ingestion.virtual-threads:false}") boolean virtualThreads,
+            DbConcurrencyLimiter dbLimiter,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(
+                ingestionService,
+                enabled,
+                workers,
+                queueCapacity,
+                maxRetained,
+                virtualThreads
+                        ? new VirtualThreadTaskExecutor("ingest-lane-").getVirtualThreadFactory()
+                        : null,
+                dbLimiter
+        );
+
+        meterRegistry.ifAvailable(this::registerMetrics);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // =====================================================
+    // SUBMIT
+    // =====================================================
+
+    /**
+     * Queues the event and returns its receipt id.
+     *
+     * @throws InvalidEventException when the envelope does not parse;
+     *         no receipt is created
+     * @throws QueueFullException when the event's lane is at capacity
+     */
+    public String submit(EventEnvelope envelope) {
+
+        String receiptId = IdGenerators.defaultGenerator().nextId();
+
+        ParsedEvent event;
+
+        try {
+
+            event = ingestionService.parse(envelope);
+
+        } catch (Exception e) {
+
+            throw new InvalidEventException(e.getMessage(), e);
+        }
+
+        // Without a transaction id or eventId the event has nothing to
+        // order against; its own receipt keeps it off a shared lane
+        String key = event.getTransactionId() != null
+                ? event.getTransactionId()
+                : envelope.getEventId() != null
+                        ? envelope.getEventId()
+                        : receiptId;
+
+        receipts.put(receiptId, new EventResult(
+                envelope.getEventId(),
+                EventResult.PENDING,
+                event.getTransactionId(),
+                null
+        ));
+
+        try {
+
+            executor.execute(
+                    key,
+                    () -> process(receiptId, event)
+            );
+
+        } catch (RejectedExecutionException e) {
+
+            receipts.remove(receiptId);
+
+            throw new QueueFullException(
+                    "Ingestion queue is full (lane "
+                            + executor.laneOf(key)
+                            + ")"
+            );
+        }
+
+        return receiptId;
+    }
+
+    /**
+     * @return the receipt, or null if unknown or already evicted
+     */
+    public EventResult getReceipt(String receiptId) {
+        return receipts.get(receiptId);
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueuedCount();
+    }
+
+    public KeyOrderedExecutor getExecutor() {
+        return executor;
+    }
+
+    // =====================================================
+    // WORKER
+    // =====================================================
+
+    private void process(String receiptId, ParsedEvent event) {
+
+        EventEnvelope envelope = event.getEnvelope();
+
+        MDC.put("correlationId", envelope.getCorrelationId());
+
+        EventResult result;
+
+        try {
+
+            dbLimiter.run(() -> ingestionService.ingest(event));
+
+            result = new EventResult(
+                    envelope.getEventId(),
+                    envelope.isIgnore()
+                            ? EventResult.IGNORED
+                            : EventResult.SUCCESS,
+                    event.getTransactionId(),
+                    null
+            );
+
+        } catch (Exception e) {
+
+            result = failed(envelope, event, e);
+
+        } finally {
+
+            MDC.clear();
+        }
+
+        complete(receiptId, result);
+    }
+
+    private EventResult failed(
+            EventEnvelope envelope,
+            ParsedEvent event,
+            Exception e
+    ) {
+
+        log.error(
+                "Async ingestion failed | eventId={} | error={}",
+                envelope.getEventId(),
+                e.getMessage()
+        );
+
+        return new EventResult(
+                envelope.getEventId(),
+                EventResult.FAILED,
+                event != null ? event.getTransactionId() : null,
+                e.getMessage()
+        );
+    }
+
+    private void complete(String receiptId, EventResult result) {
+
+        receipts.put(receiptId, result);
+        finished.add(receiptId);
+        finishedCount.incrementAndGet();
+
+        evict();
+    }
+
+    private void evict() {
+
+        while (finishedCount.get() > maxRetained) {
+
+            String oldest = finished.poll();
+
+            if (oldest == null) {
+                return;
+            }
+
+            finishedCount.decrementAndGet();
+            receipts.remove(oldest);
+        }
+    }
+
+    // =====================================================
+    // METRICS
+    // =====================================================
+
+    private void registerMetrics(MeterRegistry registry) {
+
+        for (int i = 0; i < executor.getLaneCount(); i++) {
+
+            int lane = i;
+
+            Gauge.builder(
+                            "ingestion.lane.queue.depth",
+                            executor,
+                            e -> e.getQueueDepth(lane)
+                    )
+                    .tag("lane", String.valueOf(lane))
+                    .description("Events waiting in one key-ordered lane")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+
+        int dropped = executor.shutdown(30, TimeUnit.SECONDS);
+
+        if (dropped > 0) {
+
+            log.warn(
+                    "Async ingestion stopped with {} event(s) still queued",
+                    dropped
+            );
+        }
+    }
+
+    // =====================================================
+    // EXCEPTION
+    // =====================================================
+
+    public static class QueueFullException extends RuntimeException {
+
+        public QueueFullException(String message) {
+            super(message);
+        }
+    }
+
+    public static class InvalidEventException extends RuntimeException {
+
+        public InvalidEventException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
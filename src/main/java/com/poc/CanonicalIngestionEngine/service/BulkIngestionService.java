@@ -0,0 +1,285 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams newline-delimited EventEnvelope JSON through
+ * {@link IngestionService#ingestBatch} and writes one NDJSON
+ * {@link EventResult} per input line.
+ *
+ * Lines are read and parsed as they arrive and handed over in chunks of
+ * batchSize, so memory stays bounded by one chunk whatever the body size.
+ * A line is held up to maxLineLength characters; the rest of a longer
+ * line is skipped unread into memory and the line fails on its own.
+ * Results of a chunk are written and flushed before the next chunk is
+ * read. A line that is not valid JSON fails on its own; blank lines are
+ * skipped.
+ *
+ * Each chunk holds a {@link DbConcurrencyLimiter} permit for its own
+ * ingestBatch only, not for the whole (possibly slow) request body.
+ */
+@Service
+public class BulkIngestionService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BulkIngestionService.class);
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    static final int DEFAULT_MAX_LINE_LENGTH = 1_048_576;
+
+    private final IngestionService ingestionService;
+    private final ObjectReader envelopeReader;
+    private final ObjectWriter resultWriter;
+    private final int batchSize;
+    private final int maxLineLength;
+    private final DbConcurrencyLimiter dbLimiter;
+
+    public BulkIngestionService(
+            IngestionService ingestionService,
+            ObjectMapper objectMapper,
+            int batchSize
+    ) {
+        this(
+                ingestionService,
+                objectMapper,
+                batchSize,
+                DEFAULT_MAX_LINE_LENGTH,
+                DbConcurrencyLimiter.unlimited()
+        );
+    }
+
+    @Autowired
+    public BulkIngestionService(
+            IngestionService ingestionService,
+            ObjectMapper objectMapper,
+            @Value("${ingestion.bulk.batch-size:200}") int batchSize,
+            @Value("${ingestion.bulk.max-line-length:1048576}") int maxLineLength,
+            DbConcurrencyLimiter dbLimiter
+    ) {
+        this.ingestionService = ingestionService;
+        this.envelopeReader = objectMapper.readerFor(EventEnvelope.class);
+        this.resultWriter = objectMapper.writerFor(EventResult.class);
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+        this.dbLimiter = dbLimiter;
+    }
+
+    /**
+     * @return number of lines read
+     */
+    public long ingest(InputStream in, OutputStream out) throws IOException {
+
+        LineReader reader = new LineReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8),
+                maxLineLength);
+
+        List<Line> chunk = new ArrayList<>(batchSize);
+        long lines = 0;
+        String text;
+
+        while ((text = reader.readLine()) != null) {
+
+            lines++;
+
+            if (reader.isTooLong()) {
+
+                chunk.add(new Line(null, failed(
+                        lines,
+                        "exceeds " + maxLineLength + " characters"
+                )));
+
+            } else if (text.isBlank()) {
+
+                continue;
+
+            } else {
+
+                chunk.add(parse(text, lines));
+            }
+
+            if (chunk.size() >= batchSize) {
+                process(chunk, out);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            process(chunk, out);
+        }
+
+        log.info("Bulk ingestion finished | lines={}", lines);
+
+        return lines;
+    }
+
+    private Line parse(String text, long lineNumber) {
+
+        try {
+
+            return new Line(envelopeReader.readValue(text), null);
+
+        } catch (JsonProcessingException e) {
+
+            return new Line(null, failed(
+                    lineNumber,
+                    "is not a valid event: " + e.getOriginalMessage()
+            ));
+        }
+    }
+
+    private static EventResult failed(long lineNumber, String reason) {
+        return new EventResult(
+                null,
+                EventResult.FAILED,
+                null,
+                "Line " + lineNumber + " " + reason
+        );
+    }
+
+    private void process(List<Line> chunk, OutputStream out) throws IOException {
+
+        List<EventEnvelope> envelopes = new ArrayList<>(chunk.size());
+
+        for (Line line : chunk) {
+            if (line.envelope != null) {
+                envelopes.add(line.envelope);
+            }
+        }
+
+        Iterator<EventResult> results = envelopes.isEmpty()
+                ? List.<EventResult>of().iterator()
+                : dbLimiter.call(() -> ingestionService.ingestBatch(envelopes)).iterator();
+
+        // Results come back in envelope order; merge parse failures back in
+        for (Line line : chunk) {
+
+            EventResult result = line.envelope != null
+                    ? results.next()
+                    : line.failure;
+
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+
+        out.flush();
+    }
+
+    // =====================================================
+    // INTERNALS
+    // =====================================================
+
+    /**
+     * Splits the body on '\n', dropping a '\r' before it. Unlike
+     * BufferedReader.readLine it holds at most maxLength characters of a
+     * line; the rest is read and dropped.
+     */
+    private static final class LineReader {
+
+        private final Reader in;
+        private final int maxLength;
+
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the next line, empty if {@link #isTooLong}; null at the
+         *         end of the body
+         */
+        String readLine() throws IOException {
+
+            line.setLength(0);
+            tooLong = false;
+
+            boolean read = false;
+
+            while (true) {
+
+                if (position == limit) {
+
+                    limit = in.read(buffer);
+                    position = 0;
+
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? finish() : null;
+                    }
+                }
+
+                read = true;
+
+                char c = buffer[position++];
+
+                if (c == '\n') {
+                    return finish();
+                }
+
+                // One extra character so a '\r' before '\n' fits
+                if (line.length() <= maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        private String finish() {
+
+            int length = line.length();
+
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(--length);
+            }
+
+            if (length > maxLength) {
+                tooLong = true;
+            }
+
+            return tooLong ? "" : line.toString();
+        }
+    }
+
+    private static final class Line {
+
+        private final EventEnvelope envelope;
+        private final EventResult failure;
+
+        Line(EventEnvelope envelope, EventResult failure) {
+            this.envelope = envelope;
+            this.failure = failure;
+        }
+    }
+}
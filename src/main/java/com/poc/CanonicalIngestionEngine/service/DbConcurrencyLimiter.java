@@ -0,0 +1,117 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many units of DB work run at once: single ingests, batches,
+ * readbacks.
+ *
+ * Every caller that takes a pooled connection goes through here (the
+ * REST endpoints including the streamed /bulk chunks, the Kafka
+ * listener and the async lanes), and holds the permit for exactly as
+ * long as its transaction. On virtual threads nothing else bounds
+ * concurrency, so callers wait here (parking a virtual thread is cheap)
+ * instead of queueing inside Hikari, and fail with
+ * {@link NoCapacityException} if no permit frees up within
+ * acquireTimeoutMs.
+ *
+ * A maxInFlight of 0 (the default) leaves the work unlimited; the
+ * virtual profile sizes it to the connection pool.
+ */
+@Component
+public class DbConcurrencyLimiter {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(DbConcurrencyLimiter.class);
+
+    // null when unlimited
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public DbConcurrencyLimiter(
+            @Value("${ingestion.db-concurrency.max-in-flight:0}") int maxInFlight,
+            @Value("${ingestion.db-concurrency.acquire-timeout-ms:30000}") long acquireTimeoutMs
+    ) {
+        this.permits = maxInFlight > 0
+                ? new Semaphore(maxInFlight, true)
+                : null;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /** A limiter that never waits. */
+    public static DbConcurrencyLimiter unlimited() {
+        return new DbConcurrencyLimiter(0, 0);
+    }
+
+    /**
+     * Runs the work while holding one permit.
+     *
+     * @throws NoCapacityException when no permit frees up in time
+     */
+    public <T> T call(Supplier<T> work) {
+
+        if (permits == null) {
+            return work.get();
+        }
+
+        acquire();
+
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return free permits, or -1 when unlimited
+     */
+    public int getAvailablePermits() {
+        return permits != null ? permits.availablePermits() : -1;
+    }
+
+    private void acquire() {
+
+        boolean acquired;
+
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+
+            log.warn("No DB capacity within {} ms", acquireTimeoutMs);
+
+            throw new NoCapacityException(
+                    "No DB capacity within " + acquireTimeoutMs + " ms");
+        }
+    }
+
+    // =====================================================
+    // EXCEPTION
+    // =====================================================
+
+    public static class NoCapacityException extends RuntimeException {
+
+        public NoCapacityException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/ingestionlanes: per-lane queue depths of the async worker
+ * lanes and the transaction ids with the most pending events.
+ *
+ * Queue depths are also published as the ingestion.lane.queue.depth
+ * gauge; hot keys are only here, to keep TRAN_IDs out of metric tags.
+ */
+@Component
+@Endpoint(id = "ingestionlanes")
+public class IngestionLanesEndpoint {
+
+    private static final int HOT_KEY_LIMIT = 10;
+
+    private final AsyncIngestionService asyncIngestionService;
+
+    public IngestionLanesEndpoint(AsyncIngestionService asyncIngestionService) {
+        this.asyncIngestionService = asyncIngestionService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> lanes() {
+
+        KeyOrderedExecutor executor =
+                asyncIngestionService.getExecutor();
+
+        int[] depths = new int[executor.getLaneCount()];
+
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = executor.getQueueDepth(i);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("queueDepths", depths);
+        body.put("hottestKeys", executor.getHottestKeys(HOT_KEY_LIMIT));
+
+        return body;
+    }
+}
@@ -1,27 +1,46 @@
 package com.poc.CanonicalIngestionEngine.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.poc.CanonicalIngestionEngine.config.EventConfig;
 import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
-import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import com.poc.CanonicalIngestionEngine.config.EventPlan;
+import com.poc.CanonicalIngestionEngine.config.PayloadExtractionMode;
+import com.poc.CanonicalIngestionEngine.config.PayloadValidationMode;
+import com.poc.CanonicalIngestionEngine.config.TablePlan;
+import com.poc.CanonicalIngestionEngine.config.TableRole;
+import com.poc.CanonicalIngestionEngine.config.UpsertStrategy;
+import com.poc.CanonicalIngestionEngine.id.IdGenerators;
+import com.poc.CanonicalIngestionEngine.mapping.CompiledPath;
 import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
 import com.poc.CanonicalIngestionEngine.model.TransactionEventAxonMessage;
 import com.poc.CanonicalIngestionEngine.repository.TransactionRepository;
+import com.poc.CanonicalIngestionEngine.repository.TransactionSnapshot;
 import com.poc.CanonicalIngestionEngine.rules.RuleEngine;
 import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
+import com.poc.CanonicalIngestionEngine.validation.PayloadSchema;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
 
 @Service
 public class IngestionService {
@@ -55,6 +74,9 @@ public class IngestionService {
     private final DynamicSqlBuilder sqlBuilder;
     private final TransactionRepository repository;
 
+    // Derived once from TransactionEventAxonMessage for STREAMING_CHECK
+    private final PayloadSchema payloadSchema;
+
     public IngestionService(
             ObjectMapper objectMapper,
             RuleEngine ruleEngine,
@@ -69,6 +91,10 @@ public class IngestionService {
         this.dataMapper = dataMapper;
         this.sqlBuilder = sqlBuilder;
         this.repository = repository;
+        this.payloadSchema = PayloadSchema.derive(
+                objectMapper,
+                TransactionEventAxonMessage.class
+        );
     }
 
     // =====================================================
@@ -78,51 +104,457 @@ public class IngestionService {
     @Transactional
     public void ingest(EventEnvelope envelope) {
 
-        try {
+        ParsedEvent event;
 
-            log.info(
-                    "Processing event | eventId={} | eventName={}",
-                    envelope.getEventId(),
-                    envelope.getEventName()
+        try {
+            event = parse(envelope);
+        } catch (Exception e) {
+            throw new IngestionProcessingException(
+                    "Failed to process eventId="
+                            + envelope.getEventId(), e
             );
+        }
 
-            ruleEngine.apply(envelope);
+        process(event);
+    }
 
-            if (envelope.isIgnore()) {
-                log.warn(
-                        "Event ignored by rule engine | eventId={}",
-                        envelope.getEventId()
-                );
-                return;
+    @Transactional
+    public void ingest(ParsedEvent event) {
+        process(event);
+    }
+
+    // =====================================================
+    // MICRO-BATCH ENTRY
+    // =====================================================
+
+    /**
+     * Ingests a batch of events in one transaction, so the batch pays a
+     * single commit instead of one per event.
+     *
+     * The batch is first tried in one pass with the repository's
+     * inserts held back and written as JDBC batches on this
+     * transaction's connection (see {@link #ingestBatched}). If any
+     * event fails there, the pass is rolled back and the batch is run
+     * again event by event, each behind its own savepoint: a failing
+     * event is rolled back to it and reported as FAILED, the others
+     * still commit. Without a surrounding transaction (called on the
+     * bare object) only the second mode runs, and the events are
+     * isolated only in their results.
+     *
+     * @return one result per envelope, in input order
+     */
+    @Transactional
+    public List<EventResult> ingestBatch(List<EventEnvelope> envelopes) {
+
+        List<EventResult> results = ingestBatched(envelopes);
+
+        if (results == null) {
+            results = ingestEach(envelopes);
+        }
+
+        log.info(
+                "Batch processed | events={} | failed={}",
+                envelopes.size(),
+                results.stream()
+                        .filter(r -> EventResult.FAILED.equals(r.getStatus()))
+                        .count()
+        );
+
+        return results;
+    }
+
+    /**
+     * All events behind one savepoint, their inserts batched by the
+     * repository and flushed at the end of the pass.
+     *
+     * A failure can no longer be pinned on one event once its rows are
+     * batched with the others', so on any processing or flush failure
+     * the whole pass is rolled back to the savepoint.
+     *
+     * @return the results, or null when the batch must be run event by
+     *         event: after such a rollback, or when the repository
+     *         cannot batch (no transaction, batching disabled)
+     */
+    private List<EventResult> ingestBatched(List<EventEnvelope> envelopes) {
+
+        if (!repository.beginBatch()) {
+            return null;
+        }
+
+        EventSavepoint savepoint = null;
+
+        try {
+
+            savepoint = createSavepoint();
+
+            List<EventResult> results =
+                    new ArrayList<>(envelopes.size());
+
+            for (EventEnvelope envelope : envelopes) {
+
+                ParsedEvent event;
+
+                try {
+                    event = applyRules(parse(envelope));
+                } catch (Exception e) {
+                    // Nothing written yet; fails on its own
+                    results.add(failed(envelope, null, e));
+                    continue;
+                }
+
+                write(event);
+
+                results.add(succeeded(envelope, event));
             }
 
-            if (isUpdateOperation(envelope)) {
-                updateFlow(envelope);
-            } else {
-                insertFlow(envelope);
+            repository.flushBatch();
+
+            releaseSavepoint(savepoint);
+
+            return results;
+
+        } catch (Exception e) {
+
+            rollbackToSavepoint(savepoint);
+
+            log.warn(
+                    "Batched write failed, retrying event by event | events={} | error={}",
+                    envelopes.size(),
+                    e.getMessage()
+            );
+
+            return null;
+
+        } finally {
+
+            repository.endBatch();
+        }
+    }
+
+    private List<EventResult> ingestEach(List<EventEnvelope> envelopes) {
+
+        List<EventResult> results =
+                new ArrayList<>(envelopes.size());
+
+        for (EventEnvelope envelope : envelopes) {
+
+            ParsedEvent event = null;
+            EventSavepoint savepoint = null;
+
+            try {
+
+                event = parse(envelope);
+
+                savepoint = createSavepoint();
+
+                event = process(event);
+
+                releaseSavepoint(savepoint);
+
+                results.add(succeeded(envelope, event));
+
+            } catch (Exception e) {
+
+                rollbackToSavepoint(savepoint);
+
+                results.add(failed(envelope, event, e));
             }
+        }
+
+        return results;
+    }
+
+    private static EventResult succeeded(
+            EventEnvelope envelope,
+            ParsedEvent event
+    ) {
+        return new EventResult(
+                envelope.getEventId(),
+                envelope.isIgnore()
+                        ? EventResult.IGNORED
+                        : EventResult.SUCCESS,
+                event.getTransactionId(),
+                null
+        );
+    }
+
+    private static EventResult failed(
+            EventEnvelope envelope,
+            ParsedEvent event,
+            Exception e
+    ) {
+        log.error(
+                "Batch event failed | eventId={} | error={}",
+                envelope.getEventId(),
+                e.getMessage()
+        );
+
+        return new EventResult(
+                envelope.getEventId(),
+                EventResult.FAILED,
+                event != null ? event.getTransactionId() : null,
+                e.getMessage()
+        );
+    }
+
+    /**
+     * A JDBC savepoint plus the matching position in the repository's
+     * transaction-scoped key cache.
+     */
+    private static final class EventSavepoint {
+
+        private final Object savepoint;
+        private final int cachedKeys;
+
+        EventSavepoint(Object savepoint, int cachedKeys) {
+            this.savepoint = savepoint;
+            this.cachedKeys = cachedKeys;
+        }
+    }
+
+    private EventSavepoint createSavepoint() {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+
+        return new EventSavepoint(
+                TransactionAspectSupport
+                        .currentTransactionStatus()
+                        .createSavepoint(),
+                repository.markCachedKeys()
+        );
+    }
+
+    private void releaseSavepoint(EventSavepoint savepoint) {
+
+        if (savepoint != null) {
+            TransactionAspectSupport
+                    .currentTransactionStatus()
+                    .releaseSavepoint(savepoint.savepoint);
+        }
+    }
+
+    private void rollbackToSavepoint(EventSavepoint savepoint) {
+
+        if (savepoint != null) {
+            TransactionAspectSupport
+                    .currentTransactionStatus()
+                    .rollbackToSavepoint(savepoint.savepoint);
+
+            // Keys cached by the rolled-back event only; earlier events
+            // of the batch keep theirs
+            repository.rollbackCachedKeys(savepoint.cachedKeys);
+        }
+    }
+
+    /**
+     * @return the event as written: re-parsed if a rule rewrote it
+     */
+    private ParsedEvent process(ParsedEvent event) {
+
+        try {
+
+            ParsedEvent checked = applyRules(event);
+
+            write(checked);
+
+            return checked;
 
         } catch (Exception e) {
             throw new IngestionProcessingException(
                     "Failed to process eventId="
-                            + envelope.getEventId(), e
+                            + event.getEventId(), e
+            );
+        }
+    }
+
+    /**
+     * Runs the business rules, then validates the payload unless a rule
+     * marked the event ignored, so an ignored event never fails on its
+     * payload. An envelope rewritten by a rule is parsed again.
+     *
+     * @return the event to write
+     */
+    private ParsedEvent applyRules(ParsedEvent event) {
+
+        log.info(
+                "Processing event | eventId={} | eventName={}",
+                event.getEventId(),
+                event.getEventName()
+        );
+
+        EventEnvelope envelope = event.getEnvelope();
+
+        String parsedMetadata = envelope.getEventMetadata();
+        String parsedPayload = envelope.getEventPayload();
+
+        ruleEngine.apply(event);
+
+        if (envelope.isIgnore()) {
+            log.warn(
+                    "Event ignored by rule engine | eventId={}",
+                    event.getEventId()
+            );
+            return event;
+        }
+
+        if (!Objects.equals(parsedMetadata, envelope.getEventMetadata())
+                || !Objects.equals(parsedPayload, envelope.getEventPayload())) {
+
+            log.info(
+                    "Event rewritten by rule engine, parsing again | eventId={}",
+                    event.getEventId()
             );
+
+            event = parse(envelope);
+        }
+
+        return validatePayload(event);
+    }
+
+    private void write(ParsedEvent event) {
+
+        if (event.getEnvelope().isIgnore()) {
+            return;
         }
+
+        if (event.isUpdateOperation()) {
+            updateFlow(event);
+        } else {
+            insertFlow(event);
+        }
+    }
+
+    // =====================================================
+    // PARSE EVENT (ONCE PER EVENT)
+    // =====================================================
+
+    /**
+     * Parses metadata and payload of the envelope once and resolves
+     * the transaction id, operation and event plan. The result is
+     * shared by every later stage of the pipeline.
+     *
+     * The payload is not validated here: that runs after the rules, so
+     * an event a rule ignores never fails on it. A payload that is not
+     * JSON at all parses to a missing node and a null transaction id.
+     */
+    public ParsedEvent parse(EventEnvelope envelope) {
+
+        EventPlan plan =
+                findPlan(envelope.getEventName());
+
+        JsonNode metadata =
+                parseMetadata(envelope.getEventMetadata());
+
+        JsonNode payload =
+                readPayload(
+                        envelope.getEventPayload(),
+                        plan
+                );
+
+        return new ParsedEvent(
+                envelope,
+                metadata,
+                payload,
+                resolveTransactionId(payload, plan),
+                metadata.path("operation").asText(),
+                plan
+        );
     }
 
     // =====================================================
     // PARSE PAYLOAD
     // =====================================================
 
-    private JsonNode parsePayload(String eventPayload) {
+    /**
+     * Reads the payload without validating it.
+     *
+     * @return the tree (the projection of the mapped fields for
+     *         streaming plans), or a missing node if it does not parse
+     */
+    private JsonNode readPayload(
+            String eventPayload,
+            EventPlan plan
+    ) {
         try {
-            // Validate DTO
-            objectMapper.readValue(
-                    eventPayload,
-                    TransactionEventAxonMessage.class
-            );
-            // Return raw JsonNode for YAML mapping
-            return objectMapper.readTree(eventPayload);
+
+            JsonNode payload = readPayloadStrict(eventPayload, plan);
+
+            return payload != null
+                    ? payload
+                    : MissingNode.getInstance();
+
+        } catch (Exception e) {
+            // Reported by validatePayload unless the event is ignored
+            return MissingNode.getInstance();
+        }
+    }
+
+    private JsonNode readPayloadStrict(
+            String eventPayload,
+            EventPlan plan
+    ) throws Exception {
+
+        if (isStreaming(plan)) {
+
+            // No full tree: keep only the mapped fields in one parser pass
+            try (JsonParser parser =
+                         objectMapper.createParser(eventPayload)) {
+                return dataMapper.project(
+                        parser,
+                        plan.getConfig(),
+                        plan.getProjectedPaths()
+                );
+            }
+        }
+
+        return objectMapper.readTree(eventPayload);
+    }
+
+    /**
+     * Validates the payload of an event the rules let through.
+     *
+     * @return the event, or one holding the payload parsed again if it
+     *         did not parse up front (an error then fails here)
+     */
+    private ParsedEvent validatePayload(ParsedEvent event) {
+
+        EventPlan plan = event.getPlan();
+        String eventPayload = event.getEnvelope().getEventPayload();
+
+        PayloadValidationMode mode =
+                plan != null
+                        ? plan.getValidationMode()
+                        : PayloadValidationMode.FULL_BIND;
+
+        try {
+
+            JsonNode payload = event.getPayload();
+
+            if (payload == null || payload.isMissingNode()) {
+
+                payload = readPayloadStrict(eventPayload, plan);
+
+                event = new ParsedEvent(
+                        event.getEnvelope(),
+                        event.getMetadata(),
+                        payload,
+                        resolveTransactionId(payload, plan),
+                        event.getOperation(),
+                        plan
+                );
+            }
+
+            if (isStreaming(plan)) {
+                // Token check on the text: the plan never binds a
+                // streaming payload, and the tree is only a projection
+                validateText(eventPayload, mode);
+            } else {
+                validateTree(payload, mode);
+            }
+
+            return event;
 
         } catch (Exception e) {
             throw new IngestionProcessingException(
@@ -131,6 +563,92 @@ public class IngestionService {
         }
     }
 
+    private static boolean isStreaming(EventPlan plan) {
+        return plan != null
+                && plan.getExtractionMode()
+                == PayloadExtractionMode.STREAMING;
+    }
+
+    private void validateTree(
+            JsonNode payload,
+            PayloadValidationMode mode
+    ) throws Exception {
+
+        switch (mode) {
+
+            // Validate DTO from the tree — no second text parse
+            case FULL_BIND -> objectMapper.treeToValue(
+                    payload,
+                    TransactionEventAxonMessage.class
+            );
+
+            // Token pass over the tree, nothing is bound
+            case STREAMING_CHECK -> {
+                try (JsonParser parser =
+                             objectMapper.treeAsTokens(payload)) {
+                    payloadSchema.check(parser);
+                }
+            }
+
+            case OFF -> {
+                // validation disabled for this event type
+            }
+        }
+    }
+
+    private void validateText(
+            String eventPayload,
+            PayloadValidationMode mode
+    ) throws Exception {
+
+        if (mode == PayloadValidationMode.STREAMING_CHECK) {
+            try (JsonParser parser =
+                         objectMapper.createParser(eventPayload)) {
+                payloadSchema.check(parser);
+            }
+        }
+    }
+
+    private JsonNode parseMetadata(String eventMetadata) {
+        try {
+            JsonNode metadata = objectMapper.readTree(eventMetadata);
+            return metadata != null
+                    ? metadata
+                    : MissingNode.getInstance();
+        } catch (Exception e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private String resolveTransactionId(
+            JsonNode payload,
+            EventPlan plan
+    ) {
+
+        List<CompiledPath> paths =
+                plan != null
+                        ? plan.getTransactionIdPaths()
+                        : EventPlan.defaultTransactionIdPaths();
+
+        for (CompiledPath path : paths) {
+
+            if (path.read(payload) instanceof JsonNode value
+                    && !value.isNull()
+                    && !value.asText().isBlank()) {
+
+                log.info(
+                        "Transaction ID resolved using field={} value={}",
+                        path.getExpression(),
+                        value.asText()
+                );
+
+                return value.asText();
+            }
+        }
+
+        return null;
+    }
+
     // =====================================================
     // STATUS TRANSITION VALIDATOR
     // =====================================================
@@ -146,126 +664,109 @@ public class IngestionService {
      * 2. If DB status is TERMINAL and incoming is also TERMINAL
      *    → ALLOW (e.g. INIT → SETTLED is fine)
      *
-     * 3. If no existing record → ALLOW (fresh insert)
+     * 3. If the row has no current status → ALLOW
+     *
+     * The current status comes from the update flow's locked snapshot.
      */
     private boolean isStatusTransitionAllowed(
             String tranId,
+            Object currentStatusObj,
             String incomingStatus
     ) {
-        if (tranId == null || tranId.isBlank()) {
-            return true; // New record — allow
-        }
-
         if (incomingStatus == null || incomingStatus.isBlank()) {
             return true; // No incoming status — allow
         }
 
-        try {
-            // Check if record exists
-            boolean exists = repository.exists(
-                    "SEND_TRANSACTIONS", "TRAN_ID", tranId
-            );
-
-            if (!exists) {
-                return true; // Fresh insert — allow
-            }
-
-            // Fetch current status from DB
-            Map<String, Object> existingTxn =
-                    repository.findTransaction(tranId);
-
-            if (existingTxn == null || existingTxn.isEmpty()) {
-                return true;
-            }
-
-            Object currentStatusObj = existingTxn.get("STATUS");
-
-            if (currentStatusObj == null) {
-                return true; // No current status — allow
-            }
-
-            String currentStatus =
-                    currentStatusObj.toString().toUpperCase().trim();
-            String incoming =
-                    incomingStatus.toUpperCase().trim();
+        if (currentStatusObj == null) {
+            return true; // No current status — allow
+        }
 
-            // RULE: If DB status is TERMINAL and incoming is LOW PRIORITY
-            // → BLOCK
-            if (TERMINAL_STATUSES.contains(currentStatus) &&
-                    LOW_PRIORITY_STATUSES.contains(incoming)) {
+        String currentStatus =
+                currentStatusObj.toString().toUpperCase().trim();
+        String incoming =
+                incomingStatus.toUpperCase().trim();
 
-                log.warn(
-                        "Status transition BLOCKED | TRAN_ID={} | " +
-                                "currentStatus={} | incomingStatus={} | " +
-                                "Reason: Cannot downgrade from terminal status",
-                        tranId,
-                        currentStatus,
-                        incomingStatus
-                );
+        // RULE: If DB status is TERMINAL and incoming is LOW PRIORITY
+        // → BLOCK
+        if (TERMINAL_STATUSES.contains(currentStatus) &&
+                LOW_PRIORITY_STATUSES.contains(incoming)) {
 
-                return false;
-            }
-
-            log.info(
-                    "Status transition ALLOWED | TRAN_ID={} | " +
-                            "currentStatus={} | incomingStatus={}",
+            log.warn(
+                    "Status transition BLOCKED | TRAN_ID={} | " +
+                            "currentStatus={} | incomingStatus={} | " +
+                            "Reason: Cannot downgrade from terminal status",
                     tranId,
                     currentStatus,
                     incomingStatus
             );
 
-            return true;
+            return false;
+        }
 
-        } catch (Exception e) {
-            log.warn(
-                    "Could not validate status transition for TRAN_ID={} " +
-                            "— allowing by default | error={}",
-                    tranId,
-                    e.getMessage()
+        log.info(
+                "Status transition ALLOWED | TRAN_ID={} | " +
+                        "currentStatus={} | incomingStatus={}",
+                tranId,
+                currentStatus,
+                incomingStatus
+        );
+
+        return true;
+    }
+
+    /**
+     * The update flows' only read of SEND_TRANSACTIONS: the columns they
+     * need, with the row locked for the rest of the transaction.
+     */
+    private TransactionSnapshot lockTransaction(
+            String tranId,
+            Collection<String> columns
+    ) {
+        TransactionSnapshot snapshot =
+                repository.lockTransaction(tranId, columns);
+
+        if (snapshot == null) {
+
+            throw new RuntimeException(
+                    "Transaction not found: " + tranId
             );
-            return true; // If DB check fails, allow to avoid blocking
         }
+
+        return snapshot;
     }
 
     // =====================================================
     // INSERT FLOW (PAYMENT / SETTLEMENT)
     // =====================================================
 
-    private void insertFlow(EventEnvelope envelope) {
+    private void insertFlow(ParsedEvent event) {
 
-        EventConfig config = getConfig(envelope);
+        EventPlan plan = requirePlan(event);
 
         try {
 
-            JsonNode payload = parsePayload(
-                    envelope.getEventPayload()
-            );
+            JsonNode payload = event.getPayload();
 
             String parentId = null;
 
-            for (TableConfig table : config.getTables()) {
+            for (TablePlan table : plan.getTables()) {
 
-                // Skip CLEARING table during insert flow
-                if ("clearing".equalsIgnoreCase(table.getType()) ||
-                        "child".equalsIgnoreCase(table.getType()) ||
-                        "CLEARING".equalsIgnoreCase(
-                                table.getTableName())) {
+                switch (table.getRole()) {
 
-                    log.info(
+                    // Written only by the update flow
+                    case CLEARING, CHILD -> log.info(
                             "Skipping table '{}' during insert flow",
                             table.getTableName()
                     );
-                    continue;
-                }
 
-                if ("address".equalsIgnoreCase(table.getType())) {
-                    processAddressInsert(payload, table, parentId);
-                    continue;
-                }
+                    case ADDRESS -> processAddressInsert(
+                            payload, table, parentId
+                    );
 
-                parentId = processInsertTable(
-                        payload, table, parentId
-                );
+                    case MAIN, DETAIL -> parentId = processInsertTable(
+                            payload, table, parentId
+                    );
+                }
             }
 
         } catch (Exception e) {
@@ -277,32 +778,58 @@ public class IngestionService {
 
     private String processInsertTable(
             JsonNode payload,
-            TableConfig table,
+            TablePlan table,
             String parentId
     ) {
 
+        // Default generator runs inside the mapper; a table-specific
+        // one is applied here instead
+        boolean tableIdGenerator =
+                table.hasTableIdGenerator();
+
         Map<String, Object> data =
                 dataMapper.map(
                         payload,
                         table.getMapping(),
                         table.getMandatory(),
-                        table.isAutoGenerateId()
+                        table.isAutoGenerateId() && !tableIdGenerator
                 );
 
         if (data == null || data.isEmpty()) {
             return parentId;
         }
 
+        if (tableIdGenerator) {
+            data.put("ID", table.nextId());
+        }
+
         applyDefaults(data);
         validateAndConvertTypes(data);
 
-        if ("SEND_TRANSACTIONS".equalsIgnoreCase(
-                table.getTableName())) {
+        if (table.isTransactionTable()) {
             data.put("STATUS", "INIT");
         }
 
         String tranId = (String) data.get("TRAN_ID");
 
+        if (tranId != null &&
+                table.getUpsertStrategy() == UpsertStrategy.MERGE) {
+
+            SqlTemplate template =
+                    table.mergeTemplate(data.keySet(), sqlBuilder);
+
+            repository.merge(template, data);
+
+            log.info("Merged into {}", table.getTableName());
+
+            if (table.getRole() == TableRole.MAIN
+                    && parentId == null) {
+                parentId = extractParentId(data);
+            }
+
+            return parentId;
+        }
+
         if (tranId != null &&
                 repository.exists(
                         table.getTableName(),
@@ -321,7 +848,7 @@ public class IngestionService {
                     data
             );
 
-            if ("main".equalsIgnoreCase(table.getType())
+            if (table.getRole() == TableRole.MAIN
                     && parentId == null) {
 
                 parentId = extractParentId(data);
@@ -330,17 +857,13 @@ public class IngestionService {
             return parentId;
         }
 
-        String sql = sqlBuilder.buildInsertSql(
-                table.getTableName(),
-                data.keySet(),
-                table.isAutoGenerateId()
-        );
+        String sql = table.insertSql(data.keySet(), sqlBuilder);
 
         repository.insert(sql, data);
 
         log.info("Inserted into {}", table.getTableName());
 
-        if ("main".equalsIgnoreCase(table.getType())
+        if (table.getRole() == TableRole.MAIN
                 && parentId == null) {
             parentId = extractParentId(data);
         }
@@ -350,6 +873,8 @@ public class IngestionService {
 
     // =====================================================
     // MERGE NULL FIELDS
+    // One UPDATE per table; the database keeps populated
+    // columns and fills only null / blank ones.
     // =====================================================
 
     private void mergeNullFields(
@@ -360,78 +885,77 @@ public class IngestionService {
 
         try {
 
-            Map<String, Object> existingRow =
-                    repository.findTransaction(tranId);
+            // ============================================
+            // ONLY NON-BLANK INCOMING VALUES CAN FILL A GAP
+            // ============================================
 
-            if (existingRow == null ||
-                    existingRow.isEmpty()) {
+            Map<String, Object> params =
+                    new HashMap<>();
 
-                log.warn(
-                        "No existing row found for TRAN_ID={}",
-                        tranId
-                );
+            for (Map.Entry<String, Object> entry :
+                    incomingData.entrySet()) {
 
-                return;
+                Object incomingValue =
+                        entry.getValue();
+
+                if (incomingValue != null &&
+                        !incomingValue.toString().isBlank()) {
+
+                    params.put(entry.getKey(), incomingValue);
+                }
             }
 
-            for (Map.Entry<String, Object> entry :
-                    incomingData.entrySet()) {
+            params.remove("TRAN_ID");
 
-                String column = entry.getKey();
+            if (params.isEmpty()) {
+                return;
+            }
 
-                // ============================================
-                // SKIP UNKNOWN DB COLUMNS
-                // ============================================
+            params.put("TRAN_ID", tranId);
 
-                if (!repository.columnExists(
-                        tableName,
-                        column
-                )) {
+            // ============================================
+            // UNKNOWN DB COLUMNS ARE DROPPED BY THE BUILDER
+            // ============================================
 
-                    log.warn(
-                            "Skipping unknown column={} table={}",
-                            column,
-                            tableName
+            SqlTemplate template =
+                    sqlBuilder.buildMergeNullsTemplate(
+                            tableName,
+                            params.keySet(),
+                            "TRAN_ID"
                     );
 
-                    continue;
-                }
+            if (template == null) {
 
-                Object incomingValue =
-                        entry.getValue();
+                log.warn(
+                        "Skipping merge, no known columns in {} for table={}",
+                        params.keySet(),
+                        tableName
+                );
 
-                Object existingValue =
-                        existingRow.get(column);
+                return;
+            }
 
-                // ============================================
-                // UPDATE ONLY IF:
-                // EXISTING VALUE IS NULL
-                // INCOMING VALUE IS NOT NULL
-                // ============================================
+            int updated =
+                    repository.update(template, params);
 
-                if ((existingValue == null ||
-                        existingValue.toString().isBlank())
-                        &&
-                        incomingValue != null &&
-                        !incomingValue.toString().isBlank()) {
+            if (updated == 0) {
 
-                    repository.updateColumn(
-                            tableName,
-                            "TRAN_ID",
-                            tranId,
-                            column,
-                            incomingValue
-                    );
+                log.warn(
+                        "No existing row found for TRAN_ID={} table={}",
+                        tranId,
+                        tableName
+                );
 
-                    log.info(
-                            "Merged column={} value={} for TRAN_ID={}",
-                            column,
-                            incomingValue,
-                            tranId
-                    );
-                }
+                return;
             }
 
+            log.info(
+                    "Merged null fields {} for TRAN_ID={} table={}",
+                    template.getParameterNames(),
+                    tranId,
+                    tableName
+            );
+
         } catch (Exception e) {
 
             throw new IngestionProcessingException(
@@ -445,48 +969,17 @@ public class IngestionService {
     // UPDATE FLOW (CLEARING + AIS2 ENRICHMENT)
     // =====================================================
 
-    private void updateFlow(EventEnvelope envelope) {
-
-        EventConfig config = getConfig(envelope);
+    private void updateFlow(ParsedEvent event) {
 
-        try {
-
-            JsonNode payload = parsePayload(
-                    envelope.getEventPayload()
-            );
+        EventEnvelope envelope = event.getEnvelope();
 
-            String tranId = null;
+        EventPlan plan = requirePlan(event);
 
-            String[] possibleTransactionFields = {
-                    "accountInformationId",
-                    "paymentTransactionId",
-                    "transactionId",
-                    "authorizationId",
-                    "fundingTransactionId",
-                    "avsTranId",
-                    "nvsTranId",
-                    "refundTransactionId",
-                    "reversalTransactionId",
-                    "settlementTransactionId"
-            };
-
-            for (String field : possibleTransactionFields) {
-
-                if (payload.has(field)
-                        && !payload.get(field).isNull()
-                        && !payload.get(field).asText().isBlank()) {
+        try {
 
-                    tranId = payload.get(field).asText();
+            JsonNode payload = event.getPayload();
 
-                    log.info(
-                            "Transaction ID resolved using field={} value={}",
-                            field,
-                            tranId
-                    );
-
-                    break;
-                }
-            }
+            String tranId = event.getTransactionId();
 
             if (tranId == null) {
 
@@ -500,45 +993,20 @@ public class IngestionService {
                     tranId
             );
 
-            // =====================================================
-            // STEP 1 — CHECK TRANSACTION EXISTS
-            // =====================================================
-
-            boolean exists = repository.exists(
-                    "SEND_TRANSACTIONS",
-                    "TRAN_ID",
-                    tranId
-            );
-
-            if (!exists) {
-
-                throw new RuntimeException(
-                        "Transaction not found: " + tranId
-                );
-            }
-
             // =====================================================
             // AIS2 ENRICHMENT FLOW
             // =====================================================
 
-            if ("AIS2".equalsIgnoreCase(
-                    envelope.getEventName())) {
+            if (plan.getUpdateFlow()
+                    == EventPlan.UpdateFlow.SWITCH_SERIAL_ENRICHMENT) {
 
                 log.info(
                         "Starting AIS2 enrichment for TRAN_ID={}",
                         tranId
                 );
 
-                Map<String, Object> existingTxn =
-                        repository.findTransaction(tranId);
-
-                if (existingTxn == null ||
-                        existingTxn.isEmpty()) {
-
-                    throw new RuntimeException(
-                            "Existing transaction not found for AIS2 enrichment"
-                    );
-                }
+                TransactionSnapshot existingTxn =
+                        lockTransaction(tranId, List.of("SW_SER_NUM"));
 
                 // =====================================================
                 // FETCH EXISTING DB VALUE
@@ -565,8 +1033,7 @@ public class IngestionService {
                 // UPDATE ONLY IF DB VALUE IS NULL
                 // =====================================================
 
-                if ((existingSwSerNum == null ||
-                        existingSwSerNum.toString().isBlank())
+                if (existingTxn.isEmpty("SW_SER_NUM")
                         &&
                         incomingSwSerNum != null &&
                         !incomingSwSerNum.isBlank()) {
@@ -605,68 +1072,25 @@ public class IngestionService {
                     tranId
             );
 
-            // STEP 2 — STATUS TRANSITION CHECK
-
             String incomingStatus =
                     payload.path("status").asText(null);
 
-            if (!isStatusTransitionAllowed(
-                    tranId,
-                    incomingStatus
-            )) {
-
-                log.warn(
-                        "Clearing update SKIPPED due to invalid " +
-                                "status transition | TRAN_ID={} | " +
-                                "incomingStatus={}",
-                        tranId,
-                        incomingStatus
-                );
-
-                return;
-            }
-
-            // STEP 3 — PULL ALL RELATED DATA
-
-            Map<String, List<Map<String, Object>>> relatedData =
-                    repository.findAllRelatedData(tranId);
-
-            log.info(
-                    "Fetched related data for TRAN_ID={} | " +
-                            "SEND_TRANSACTIONS={} | SEND_TRAN_DTL={} | " +
-                            "SEND_RECIP_DTL={} | SEND_TRAN_ADDR_DTL={}",
-                    tranId,
-                    relatedData.getOrDefault(
-                            "SEND_TRANSACTIONS", List.of()).size(),
-                    relatedData.getOrDefault(
-                            "SEND_TRAN_DTL", List.of()).size(),
-                    relatedData.getOrDefault(
-                            "SEND_RECIP_DTL", List.of()).size(),
-                    relatedData.getOrDefault(
-                            "SEND_TRAN_ADDR_DTL", List.of()).size()
-            );
-
             // =====================================================
-            // STEP 4 — FIND UPDATE TABLE CONFIG DYNAMICALLY
+            // STEP 1 — UPDATE TABLE (RESOLVED IN THE PLAN)
             // =====================================================
 
-            TableConfig updateTable = config.getTables()
-                    .stream()
-                    .filter(t ->
-                            !"address".equalsIgnoreCase(t.getType())
-                                    &&
-                                    !"child".equalsIgnoreCase(t.getType())
-                    )
-                    .findFirst()
-                    .orElseThrow(() ->
-                            new IngestionProcessingException(
-                                    envelope.getEventName()
-                                            + " update table config not found"
-                            )
-                    );
+            TablePlan updateTable = plan.getUpdateTable();
+
+            if (updateTable == null) {
+
+                throw new IngestionProcessingException(
+                        envelope.getEventName()
+                                + " update table config not found"
+                );
+            }
 
             // =====================================================
-            // STEP 5 — BUILD UPDATE DATA
+            // STEP 2 — BUILD UPDATE DATA (no DB access)
             // =====================================================
 
             Map<String, Object> updateData =
@@ -696,9 +1120,68 @@ public class IngestionService {
             );
 
             // =====================================================
-            // STEP 6 — MERGE NULL FIELDS DYNAMICALLY
+            // STEP 3 — ONE LOCKING READ OF THE COLUMNS IN PLAY
             // =====================================================
 
+            boolean updatesMainTable =
+                    updateTable.isTransactionTable();
+
+            Set<String> columns = new LinkedHashSet<>();
+            columns.add("STATUS");
+
+            if (updatesMainTable) {
+                columns.addAll(updateData.keySet());
+            }
+
+            TransactionSnapshot snapshot =
+                    lockTransaction(tranId, columns);
+
+            // =====================================================
+            // STEP 4 — STATUS TRANSITION CHECK
+            // =====================================================
+
+            if (!isStatusTransitionAllowed(
+                    tranId,
+                    snapshot.get("STATUS"),
+                    incomingStatus
+            )) {
+
+                log.warn(
+                        "Clearing update SKIPPED due to invalid " +
+                                "status transition | TRAN_ID={} | " +
+                                "incomingStatus={}",
+                        tranId,
+                        incomingStatus
+                );
+
+                return;
+            }
+
+            if (log.isDebugEnabled()) {
+
+                log.debug(
+                        "Related data for TRAN_ID={} | SEND_TRAN_DTL={} | " +
+                                "SEND_RECIP_DTL={} | SEND_TRAN_ADDR_DTL={}",
+                        tranId,
+                        snapshot.getRelated("SEND_TRAN_DTL").size(),
+                        snapshot.getRelated("SEND_RECIP_DTL").size(),
+                        snapshot.getRelated("SEND_TRAN_ADDR_DTL").size()
+                );
+            }
+
+            // =====================================================
+            // STEP 5 — MERGE NULL FIELDS DYNAMICALLY
+            // Columns the snapshot shows as populated are dropped
+            // up front; the statement itself still only fills gaps.
+            // =====================================================
+
+            if (updatesMainTable) {
+
+                updateData.keySet().removeIf(column ->
+                        !"TRAN_ID".equals(column)
+                                && !snapshot.isEmpty(column));
+            }
+
             mergeNullFields(
                     updateTable.getTableName(),
                     tranId,
@@ -712,12 +1195,9 @@ public class IngestionService {
             );
 
             // =====================================================
-            // STEP 7 — OPTIONAL STATUS UPDATE
+            // STEP 6 — OPTIONAL STATUS UPDATE
             // =====================================================
 
-            incomingStatus =
-                    payload.path("status").asText(null);
-
             if (incomingStatus != null &&
                     !incomingStatus.isBlank()) {
 
@@ -817,16 +1297,15 @@ public class IngestionService {
 
     private void processAddressInsert(
             JsonNode payload,
-            TableConfig table,
+            TablePlan table,
             String parentId
     ) {
 
-        if (parentId == null ||
-                table.getAddressTypes() == null) {
+        if (parentId == null) {
             return;
         }
 
-        table.getAddressTypes().forEach(addr -> {
+        for (TablePlan.AddressPlan addr : table.getAddresses()) {
 
             Map<String, Object> data =
                     dataMapper.mapAddress(
@@ -838,40 +1317,62 @@ public class IngestionService {
                     );
 
             if (data == null || data.isEmpty()) {
-                return;
+                continue;
             }
 
+            data.put("ID", table.nextId());
+
             Object parentVal = data.remove("PARENT_ID");
-            data.put(table.getParentIdField(), parentVal);
+            data.put(table.getConfig().getParentIdField(), parentVal);
 
-            String sql = sqlBuilder.buildInsertSql(
-                    table.getTableName(),
-                    data.keySet(),
-                    true
+            repository.insert(
+                    table.insertSql(data.keySet(), sqlBuilder),
+                    data
             );
 
-            repository.insert(sql, data);
-
             log.info("Inserted address {}", addr.getType());
-        });
+        }
     }
 
     // =====================================================
     // HELPERS
     // =====================================================
 
-    private boolean isUpdateOperation(EventEnvelope envelope) {
-        try {
-            JsonNode meta =
-                    objectMapper.readTree(
-                            envelope.getEventMetadata()
-                    );
-            return "U".equalsIgnoreCase(
-                    meta.path("operation").asText()
+    /**
+     * Plan compiled by the loader; a config the loader holds without a
+     * plan is compiled here, without column metadata.
+     *
+     * @return null if the event type is not configured
+     */
+    private EventPlan findPlan(String eventName) {
+
+        EventPlan plan = eventConfigLoader.getPlan(eventName);
+
+        if (plan != null) {
+            return plan;
+        }
+
+        EventConfig config = eventConfigLoader.get(eventName);
+
+        return config != null
+                ? EventPlan.compile(config, null, null)
+                : null;
+    }
+
+    private EventPlan requirePlan(ParsedEvent event) {
+
+        EventPlan plan = event.getPlan() != null
+                ? event.getPlan()
+                : findPlan(event.getEventName());
+
+        if (plan == null) {
+            throw new IngestionProcessingException(
+                    "No config found for event: "
+                            + event.getEventName()
             );
-        } catch (Exception e) {
-            return false;
         }
+
+        return plan;
     }
 
     public EventConfig getConfig(EventEnvelope envelope){
@@ -886,10 +1387,19 @@ public class IngestionService {
         return config;
     }
 
+    /**
+     * Stored rows of every transaction table for one TRAN_ID. Read-only
+     * transaction so the four selects share one pooled connection.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<Map<String, Object>>> readback(String tranId) {
+        return repository.findAllRelatedData(tranId);
+    }
+
     private String extractParentId(Map<String, Object> data) {
         Object id = data.get("TRAN_ID");
         if (id == null) {
-            id = UUID.randomUUID().toString();
+            id = IdGenerators.defaultGenerator().nextId();
         }
         return id.toString();
     }
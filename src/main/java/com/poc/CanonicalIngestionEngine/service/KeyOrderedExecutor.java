@@ -0,0 +1,183 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a fixed set of single-threaded lanes chosen by key hash.
+ *
+ * Tasks with the same key always land on the same lane and therefore run
+ * one at a time, in submit order; different keys spread over the lanes
+ * and run in parallel. Each lane has a bounded queue, and a full lane
+ * rejects immediately instead of blocking the caller.
+ *
+ * Pending (queued or running) tasks are counted per key, so the keys
+ * holding up a lane can be inspected with {@link #getHottestKeys}. The
+ * count map only ever holds keys with work in flight.
+ */
+public final class KeyOrderedExecutor {
+
+    private final ThreadPoolExecutor[] lanes;
+
+    private final Map<String, Integer> pendingByKey =
+            new ConcurrentHashMap<>();
+
+    public KeyOrderedExecutor(
+            String name,
+            int laneCount,
+            int laneCapacity
+    ) {
+        this(name, laneCount, laneCapacity, null);
+    }
+
+    /**
+     * @param threadFactory creates the lane threads (e.g. virtual
+     *                      threads); null for named daemon threads
+     */
+    public KeyOrderedExecutor(
+            String name,
+            int laneCount,
+            int laneCapacity,
+            ThreadFactory threadFactory
+    ) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+
+        for (int i = 0; i < laneCount; i++) {
+
+            String threadName = name + "-lane-" + i;
+
+            lanes[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(laneCapacity),
+                    threadFactory != null
+                            ? threadFactory
+                            : r -> {
+                                Thread thread = new Thread(r, threadName);
+                                thread.setDaemon(true);
+                                return thread;
+                            },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+    }
+
+    // =====================================================
+    // SUBMIT
+    // =====================================================
+
+    /**
+     * @throws RejectedExecutionException when the key's lane is full
+     *                                    or the executor is shut down
+     */
+    public void execute(String key, Runnable task) {
+
+        pendingByKey.merge(key, 1, Integer::sum);
+
+        try {
+
+            lanes[laneOf(key)].execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    release(key);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+
+            release(key);
+            throw e;
+        }
+    }
+
+    private void release(String key) {
+        pendingByKey.computeIfPresent(key, (k, n) -> n == 1 ? null : n - 1);
+    }
+
+    public int laneOf(String key) {
+
+        int h = key.hashCode();
+
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    // =====================================================
+    // METRICS
+    // =====================================================
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /** Tasks waiting in one lane's queue (not counting the running one). */
+    public int getQueueDepth(int lane) {
+        return lanes[lane].getQueue().size();
+    }
+
+    public int getQueuedCount() {
+
+        int total = 0;
+
+        for (ThreadPoolExecutor lane : lanes) {
+            total += lane.getQueue().size();
+        }
+
+        return total;
+    }
+
+    /**
+     * Keys with the most pending tasks, most first.
+     */
+    public Map<String, Integer> getHottestKeys(int limit) {
+
+        Map<String, Integer> hottest = new LinkedHashMap<>();
+
+        pendingByKey.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(
+                        Comparator.reverseOrder()))
+                .limit(limit)
+                .forEachOrdered(e -> hottest.put(e.getKey(), e.getValue()));
+
+        return hottest;
+    }
+
+    // =====================================================
+    // SHUTDOWN
+    // =====================================================
+
+    /**
+     * Stops accepting work and waits for queued tasks to finish.
+     *
+     * @return tasks still queued when the timeout expired (dropped)
+     */
+    public int shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int dropped = 0;
+
+        for (ThreadPoolExecutor lane : lanes) {
+
+            long remaining = deadline - System.nanoTime();
+
+            if (!lane.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                dropped += lane.shutdownNow().size();
+            }
+        }
+
+        return dropped;
+    }
+}
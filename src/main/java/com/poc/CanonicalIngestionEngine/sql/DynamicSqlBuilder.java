@@ -1,17 +1,28 @@
 package com.poc.CanonicalIngestionEngine.sql;
 
+import com.poc.CanonicalIngestionEngine.repository.TableMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 @Component
 public class DynamicSqlBuilder {
@@ -22,13 +33,50 @@ public class DynamicSqlBuilder {
     private final JdbcTemplate jdbcTemplate;
 
     // Thread-safe DB column cache
-    private final Map<String, Set<String>> dbColumnCache =
+    private final Map<String, TableColumns> dbColumnCache =
             new ConcurrentHashMap<>();
 
+    // =========================================================
+    // SQL TEMPLATE CACHE
+    // Keyed by table + statement kind + column bitset over the
+    // table's DB column positions, so the same columns in any
+    // order resolve to one template.
+    // =========================================================
+    private final Map<TemplateKey, SqlTemplate> templateCache =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder templateHits = new LongAdder();
+    private final LongAdder templateMisses = new LongAdder();
+
+    // Shared column metadata; null when built standalone (tests)
+    private final TableMetadataRegistry metadataRegistry;
+
+    // Registry version the caches above were derived from
+    private volatile long metadataVersion;
+
     public DynamicSqlBuilder(
             JdbcTemplate jdbcTemplate
+    ) {
+        this(jdbcTemplate, null);
+    }
+
+    public DynamicSqlBuilder(
+            JdbcTemplate jdbcTemplate,
+            TableMetadataRegistry metadataRegistry
     ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.metadataRegistry = metadataRegistry;
+    }
+
+    @Autowired
+    public DynamicSqlBuilder(
+            JdbcTemplate jdbcTemplate,
+            TableMetadataRegistry metadataRegistry,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(jdbcTemplate, metadataRegistry);
+
+        meterRegistry.ifAvailable(this::registerMetrics);
     }
 
     // =========================================================
@@ -40,106 +88,365 @@ public class DynamicSqlBuilder {
             Set<String> mappedColumns,
             boolean autoGenerateId
     ) {
+        return buildInsertTemplate(
+                tableName,
+                mappedColumns,
+                autoGenerateId
+        ).getSql();
+    }
 
-        log.debug(
-                "Building INSERT SQL for table={}",
-                tableName
-        );
+    public SqlTemplate buildInsertTemplate(
+            String tableName,
+            Set<String> mappedColumns,
+            boolean autoGenerateId
+    ) {
 
-        log.debug(
-                "Incoming mapped columns={}",
-                mappedColumns
+        TableColumns dbColumns =
+                getDbColumns(tableName);
+
+        // Keep only valid DB columns
+        BitSet columns =
+                dbColumns.select(mappedColumns, null);
+
+        // Add ID if needed
+        Integer idPosition = dbColumns.positionOf("ID");
+
+        if (autoGenerateId && idPosition != null) {
+            columns.set(idPosition);
+        }
+
+        if (columns.isEmpty()) {
+
+            throw new IllegalStateException(
+                    "No valid columns to insert into table: "
+                            + tableName
+            );
+        }
+
+        return template(
+                new TemplateKey(Statement.INSERT, tableName, null, columns),
+                key -> buildInsert(tableName, dbColumns, columns)
         );
+    }
+
+    // =========================================================
+    // UPDATE SQL BUILDER
+    // =========================================================
+
+    public String buildUpdateSql(
+            String tableName,
+            Set<String> mappedColumns,
+            String whereColumn
+    ) {
+        return buildUpdateTemplate(
+                tableName,
+                mappedColumns,
+                whereColumn
+        ).getSql();
+    }
 
-        Set<String> dbColumns =
+    public SqlTemplate buildUpdateTemplate(
+            String tableName,
+            Set<String> mappedColumns,
+            String whereColumn
+    ) {
+
+        TableColumns dbColumns =
                 getDbColumns(tableName);
 
-        log.debug(
-                "DB columns={}",
-                dbColumns
+        // The WHERE column is always bound, never SET
+        BitSet columns =
+                dbColumns.select(mappedColumns, whereColumn);
+
+        return template(
+                new TemplateKey(Statement.UPDATE, tableName, whereColumn, columns),
+                key -> buildUpdate(tableName, dbColumns, columns, whereColumn)
         );
+    }
 
-        Set<String> finalColumns =
-                new LinkedHashSet<>(mappedColumns);
+    // =========================================================
+    // NULL-MERGE SQL BUILDER
+    // =========================================================
 
-        // Add ID if needed
+    /**
+     * One UPDATE that fills only the columns that are still null or
+     * blank in the existing row(s), leaving populated ones untouched:
+     *
+     *   SET C = COALESCE(C, :C)                                  (non-text)
+     *   SET C = CASE WHEN NULLIF(TRIM(C), '') IS NULL THEN :C ELSE C END
+     *
+     * Callers drop null / blank incoming values beforehand. Columns the
+     * table does not have are ignored.
+     *
+     * @return the template, or null when none of the columns exist
+     */
+    public SqlTemplate buildMergeNullsTemplate(
+            String tableName,
+            Set<String> mappedColumns,
+            String whereColumn
+    ) {
 
-        if (
-                autoGenerateId &&
-                        dbColumns.contains("ID")
-        ) {
+        TableColumns dbColumns =
+                getDbColumns(tableName);
 
-            finalColumns.add("ID");
+        BitSet columns =
+                dbColumns.select(mappedColumns, whereColumn);
 
-            log.debug(
-                    "Added ID column (autoGenerateId enabled)"
-            );
+        if (columns.isEmpty()) {
+            return null;
         }
 
-        // Keep only valid DB columns
+        return template(
+                new TemplateKey(Statement.MERGE_NULLS, tableName, whereColumn, columns),
+                key -> buildMergeNulls(tableName, dbColumns, columns, whereColumn)
+        );
+    }
+
+    // =========================================================
+    // MERGE (UPSERT) SQL BUILDER
+    // =========================================================
+
+    /**
+     * One MERGE keyed on keyColumn: inserts the row when the key is new,
+     * otherwise fills only the null / blank columns of the existing row
+     * (same rule as {@link #buildMergeNullsTemplate}). The key and the
+     * generated ID are never updated.
+     */
+    public SqlTemplate buildMergeTemplate(
+            String tableName,
+            Set<String> mappedColumns,
+            String keyColumn,
+            boolean autoGenerateId
+    ) {
+
+        TableColumns dbColumns =
+                getDbColumns(tableName);
 
-        finalColumns.retainAll(dbColumns);
+        BitSet columns =
+                dbColumns.select(mappedColumns, null);
 
-        if (finalColumns.isEmpty()) {
+        Integer keyPosition = dbColumns.positionOf(keyColumn);
+
+        if (keyPosition == null || !columns.get(keyPosition)) {
 
             throw new IllegalStateException(
-                    "No valid columns to insert into table: "
-                            + tableName
+                    "Merge key " + keyColumn
+                            + " not available for table: " + tableName
             );
         }
 
-        log.debug(
-                "Final insert columns={}",
-                finalColumns
+        Integer idPosition = dbColumns.positionOf("ID");
+
+        if (autoGenerateId && idPosition != null) {
+            columns.set(idPosition);
+        }
+
+        return template(
+                new TemplateKey(Statement.MERGE, tableName, keyColumn, columns),
+                key -> buildMerge(tableName, dbColumns, columns, keyColumn)
         );
+    }
 
-        String sql =
-                buildInsert(tableName, finalColumns);
+    // =========================================================
+    // TEMPLATE LOOKUP
+    // =========================================================
+
+    private SqlTemplate template(
+            TemplateKey key,
+            Function<TemplateKey, SqlTemplate> builder
+    ) {
+
+        SqlTemplate cached = templateCache.get(key);
+
+        if (cached != null) {
+            templateHits.increment();
+            return cached;
+        }
+
+        templateMisses.increment();
+
+        SqlTemplate built =
+                templateCache.computeIfAbsent(key, builder);
 
         log.debug(
-                "Generated INSERT SQL={}",
-                sql
+                "Cached SQL template for table={}: {}",
+                key.tableName,
+                built.getSql()
         );
 
-        return sql;
+        return built;
+    }
+
+    public long getTemplateCacheHits() {
+        return templateHits.sum();
+    }
+
+    public long getTemplateCacheMisses() {
+        return templateMisses.sum();
+    }
+
+    public int getTemplateCacheSize() {
+        return templateCache.size();
+    }
+
+    /**
+     * Template cache lookups by result, tagged like Caffeine's cache.gets,
+     * so the hit rate is hits / (hits + misses).
+     */
+    private void registerMetrics(MeterRegistry registry) {
+
+        FunctionCounter.builder(
+                        "ingestion.sql.template.gets",
+                        templateHits,
+                        LongAdder::sum
+                )
+                .tag("result", "hit")
+                .description("SQL template lookups served from the cache")
+                .register(registry);
+
+        FunctionCounter.builder(
+                        "ingestion.sql.template.gets",
+                        templateMisses,
+                        LongAdder::sum
+                )
+                .tag("result", "miss")
+                .description("SQL template lookups that built a statement")
+                .register(registry);
+
+        Gauge.builder(
+                        "ingestion.sql.template.size",
+                        templateCache,
+                        Map::size
+                )
+                .description("Cached SQL templates")
+                .register(registry);
     }
 
     // =========================================================
-    // UPDATE SQL BUILDER
+    // FETCH DB COLUMNS FROM ORACLE
     // =========================================================
 
-    public String buildUpdateSql(
-            String tableName,
-            Set<String> mappedColumns,
-            String whereColumn
+    private TableColumns getDbColumns(
+            String tableName
     ) {
 
+        if (metadataRegistry != null) {
+            syncMetadataVersion();
+        }
+
+        TableColumns cached = dbColumnCache.get(tableName);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        // Loaded outside computeIfAbsent: no map bin lock is held across
+        // JDBC (pins virtual threads); a racing first load is harmless
+        TableColumns loaded = loadDbColumns(tableName);
+        TableColumns raced = dbColumnCache.putIfAbsent(tableName, loaded);
+
+        return raced != null ? raced : loaded;
+    }
+
+    private TableColumns loadDbColumns(String tableName) {
+
+        if (metadataRegistry != null) {
+            return new TableColumns(metadataRegistry.table(tableName));
+        }
+
+        String sql = """
+                SELECT COLUMN_NAME
+                FROM USER_TAB_COLUMNS
+                WHERE TABLE_NAME = ?
+                """;
+
+        List<String> columns =
+                jdbcTemplate.queryForList(
+                        sql,
+                        String.class,
+                        tableName.toUpperCase()
+                );
+
         log.debug(
-                "Building UPDATE SQL for table={}",
-                tableName
+                "Fetched and cached columns for {}: {}",
+                tableName,
+                columns
         );
 
-        Set<String> dbColumns =
-                getDbColumns(tableName);
+        return new TableColumns(columns);
+    }
 
-        Set<String> finalColumns =
-                new LinkedHashSet<>(mappedColumns);
+    /**
+     * Drops column positions and templates built from an older
+     * metadata snapshot, since column positions may have moved.
+     */
+    private void syncMetadataVersion() {
 
-        finalColumns.retainAll(dbColumns);
+        long current = metadataRegistry.getVersion();
 
-        if (!finalColumns.contains(whereColumn)) {
+        if (current != metadataVersion) {
 
-            finalColumns.add(whereColumn);
+            synchronized (this) {
+
+                if (current != metadataVersion) {
+                    dbColumnCache.clear();
+                    templateCache.clear();
+                    metadataVersion = current;
+                }
+            }
         }
+    }
+
+    // =========================================================
+    // BUILD SQL STRINGS
+    // Columns are emitted in DB column order.
+    // =========================================================
 
-        if (finalColumns.isEmpty()) {
+    private SqlTemplate buildInsert(
+            String tableName,
+            TableColumns dbColumns,
+            BitSet columns
+    ) {
 
-            throw new IllegalStateException(
-                    "No valid columns available for update: "
-                            + tableName
-            );
+        List<String> parameters =
+                dbColumns.namesOf(columns);
+
+        StringBuilder columnList = new StringBuilder();
+        StringBuilder valuesList = new StringBuilder();
+
+        for (String col : parameters) {
+
+            if (columnList.length() > 0) {
+                columnList.append(", ");
+                valuesList.append(", ");
+            }
+
+            columnList.append(col);
+            valuesList.append(':').append(col);
         }
 
+        String sql =
+                "INSERT INTO " + tableName
+                        + " (" + columnList + ")"
+                        + " VALUES (" + valuesList + ")";
+
+        return new SqlTemplate(
+                sql,
+                tableName.toUpperCase(),
+                parameters
+        );
+    }
+
+    private SqlTemplate buildUpdate(
+            String tableName,
+            TableColumns dbColumns,
+            BitSet columns,
+            String whereColumn
+    ) {
+
+        List<String> parameters =
+                new ArrayList<>(dbColumns.namesOf(columns));
+
         StringBuilder sql =
                 new StringBuilder();
 
@@ -149,11 +456,7 @@ public class DynamicSqlBuilder {
 
         boolean first = true;
 
-        for (String col : finalColumns) {
-
-            if (col.equalsIgnoreCase(whereColumn)) {
-                continue;
-            }
+        for (String col : parameters) {
 
             if (!first) {
                 sql.append(", ");
@@ -171,77 +474,150 @@ public class DynamicSqlBuilder {
                 .append(" = :")
                 .append(whereColumn);
 
-        String finalSql = sql.toString();
+        parameters.add(whereColumn);
 
-        log.debug(
-                "Generated UPDATE SQL={}",
-                finalSql
+        return new SqlTemplate(
+                sql.toString(),
+                tableName.toUpperCase(),
+                parameters
         );
-
-        return finalSql;
     }
 
-    // =========================================================
-    // FETCH DB COLUMNS FROM ORACLE
-    // =========================================================
-
-    private Set<String> getDbColumns(
-            String tableName
+    private SqlTemplate buildMerge(
+            String tableName,
+            TableColumns dbColumns,
+            BitSet columns,
+            String keyColumn
     ) {
 
-        return dbColumnCache.computeIfAbsent(
-                tableName,
-                key -> {
-
-                    String sql = """
-                            SELECT COLUMN_NAME
-                            FROM USER_TAB_COLUMNS
-                            WHERE TABLE_NAME = ?
-                            """;
-
-                    List<String> columns =
-                            jdbcTemplate.queryForList(
-                                    sql,
-                                    String.class,
-                                    key.toUpperCase()
-                            );
-
-                    Set<String> columnSet =
-                            new HashSet<>(columns);
-
-                    log.debug(
-                            "Fetched and cached columns for {}: {}",
-                            key,
-                            columnSet
-                    );
-
-                    return columnSet;
-                }
+        List<String> parameters =
+                dbColumns.namesOf(columns);
+
+        StringBuilder source = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+        StringBuilder insertColumns = new StringBuilder();
+        StringBuilder insertValues = new StringBuilder();
+
+        for (String col : parameters) {
+
+            if (source.length() > 0) {
+                source.append(", ");
+                insertColumns.append(", ");
+                insertValues.append(", ");
+            }
+
+            source.append(':').append(col).append(" AS ").append(col);
+            insertColumns.append(col);
+            insertValues.append("s.").append(col);
+
+            if (col.equalsIgnoreCase(keyColumn) || col.equals("ID")) {
+                continue;
+            }
+
+            if (updates.length() > 0) {
+                updates.append(", ");
+            }
+
+            if (dbColumns.isCharacter(col)) {
+
+                updates.append("t.").append(col)
+                        .append(" = CASE WHEN NULLIF(TRIM(t.").append(col)
+                        .append("), '') IS NULL AND NULLIF(TRIM(s.").append(col)
+                        .append("), '') IS NOT NULL THEN s.").append(col)
+                        .append(" ELSE t.").append(col)
+                        .append(" END");
+
+            } else {
+
+                updates.append("t.").append(col)
+                        .append(" = COALESCE(t.").append(col)
+                        .append(", s.").append(col)
+                        .append(")");
+            }
+        }
+
+        StringBuilder sql = new StringBuilder();
+
+        sql.append("MERGE INTO ").append(tableName).append(" t")
+                .append(" USING (SELECT ").append(source).append(" FROM DUAL) s")
+                .append(" ON (t.").append(keyColumn)
+                .append(" = s.").append(keyColumn).append(")");
+
+        if (updates.length() > 0) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(updates);
+        }
+
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(insertColumns)
+                .append(") VALUES (").append(insertValues).append(")");
+
+        return new SqlTemplate(
+                sql.toString(),
+                tableName.toUpperCase(),
+                parameters
         );
     }
 
-    // =========================================================
-    // BUILD INSERT SQL STRING
-    // =========================================================
-
-    private String buildInsert(
+    private SqlTemplate buildMergeNulls(
             String tableName,
-            Set<String> columns
+            TableColumns dbColumns,
+            BitSet columns,
+            String whereColumn
     ) {
 
-        String columnList =
-                String.join(", ", columns);
+        List<String> parameters =
+                new ArrayList<>(dbColumns.namesOf(columns));
 
-        String valuesList =
-                columns.stream()
-                        .map(col -> ":" + col)
-                        .collect(Collectors.joining(", "));
+        StringBuilder sql =
+                new StringBuilder();
 
-        return String.format(
-                "INSERT INTO %s (%s) VALUES (%s)",
-                tableName,
-                columnList,
-                valuesList
+        sql.append("UPDATE ")
+                .append(tableName)
+                .append(" SET ");
+
+        boolean first = true;
+
+        for (String col : parameters) {
+
+            if (!first) {
+                sql.append(", ");
+            }
+
+            if (dbColumns.isCharacter(col)) {
+
+                // Blank counts as empty, like the Java-side check
+                sql.append(col)
+                        .append(" = CASE WHEN NULLIF(TRIM(")
+                        .append(col)
+                        .append("), '') IS NULL THEN :")
+                        .append(col)
+                        .append(" ELSE ")
+                        .append(col)
+                        .append(" END");
+
+            } else {
+
+                sql.append(col)
+                        .append(" = COALESCE(")
+                        .append(col)
+                        .append(", :")
+                        .append(col)
+                        .append(")");
+            }
+
+            first = false;
+        }
+
+        sql.append(" WHERE ")
+                .append(whereColumn)
+                .append(" = :")
+                .append(whereColumn);
+
+        parameters.add(whereColumn);
+
+        return new SqlTemplate(
+                sql.toString(),
+                tableName.toUpperCase(),
+                parameters
         );
     }
 
@@ -252,9 +628,136 @@ public class DynamicSqlBuilder {
     public void clearCache() {
 
         dbColumnCache.clear();
+        templateCache.clear();
 
         log.info(
-                "DB column cache cleared"
+                "DB column and SQL template caches cleared"
         );
     }
-}
\ No newline at end of file
+
+    // =========================================================
+    // CACHE TYPES
+    // =========================================================
+
+    /**
+     * DB columns of one table with a stable position per column,
+     * the basis for the template cache bitsets.
+     */
+    private static final class TableColumns {
+
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        // Non-character columns; empty when types are unknown
+        private final Set<String> nonCharacter = new HashSet<>();
+
+        TableColumns(List<String> columns) {
+
+            for (String column : columns) {
+
+                if (column != null && !positions.containsKey(column)) {
+                    positions.put(column, names.size());
+                    names.add(column);
+                }
+            }
+        }
+
+        TableColumns(TableMetadata metadata) {
+
+            this(metadata.getColumnNames());
+
+            for (String column : names) {
+
+                if (!metadata.getColumn(column).isCharacter()) {
+                    nonCharacter.add(column);
+                }
+            }
+        }
+
+        /** True for character columns, and for any column of unknown type. */
+        boolean isCharacter(String column) {
+            return !nonCharacter.contains(column);
+        }
+
+        Integer positionOf(String column) {
+            return positions.get(column);
+        }
+
+        BitSet select(Set<String> mappedColumns, String excluded) {
+
+            BitSet columns = new BitSet(names.size());
+
+            for (String column : mappedColumns) {
+
+                if (excluded != null && excluded.equalsIgnoreCase(column)) {
+                    continue;
+                }
+
+                Integer position = positions.get(column);
+
+                if (position != null) {
+                    columns.set(position);
+                }
+            }
+
+            return columns;
+        }
+
+        List<String> namesOf(BitSet columns) {
+
+            List<String> selected = new ArrayList<>(columns.cardinality());
+
+            for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+                selected.add(names.get(i));
+            }
+
+            return selected;
+        }
+    }
+
+    private enum Statement {
+        INSERT,
+        UPDATE,
+        MERGE_NULLS,
+        MERGE
+    }
+
+    private static final class TemplateKey {
+
+        private final Statement statement;
+        private final String tableName;
+        private final String whereColumn;   // null for INSERT
+        private final BitSet columns;
+        private final int hash;
+
+        TemplateKey(
+                Statement statement,
+                String tableName,
+                String whereColumn,
+                BitSet columns
+        ) {
+            this.statement = statement;
+            this.tableName = tableName;
+            this.whereColumn = whereColumn;
+            this.columns = columns;
+            this.hash = Objects.hash(statement, tableName, whereColumn, columns);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) return true;
+            if (!(o instanceof TemplateKey other)) return false;
+
+            return statement == other.statement
+                    && tableName.equals(other.tableName)
+                    && Objects.equals(whereColumn, other.whereColumn)
+                    && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
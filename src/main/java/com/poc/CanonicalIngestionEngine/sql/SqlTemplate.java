@@ -0,0 +1,46 @@
+package com.poc.CanonicalIngestionEngine.sql;
+
+import java.util.List;
+
+/**
+ * A generated INSERT / UPDATE statement for one table and one column set.
+ *
+ * Built once by {@link DynamicSqlBuilder} and reused for every row with
+ * the same columns. Carries the target table and the named parameters in
+ * statement order, so callers never have to parse the SQL text back.
+ */
+public final class SqlTemplate {
+
+    private final String sql;
+    private final String tableName;
+    private final List<String> parameterNames;
+
+    public SqlTemplate(
+            String sql,
+            String tableName,
+            List<String> parameterNames
+    ) {
+        this.sql = sql;
+        this.tableName = tableName;
+        this.parameterNames = List.copyOf(parameterNames);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /** Upper-cased table name the statement writes to. */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /** Named parameters (without ':') in the order they appear in the SQL. */
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,453 @@
+package com.poc.CanonicalIngestionEngine.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Type schema of a payload DTO, derived once from Jackson's own bean
+ * introspection, and checked against a payload in a single forward
+ * pass over a {@link JsonParser}.
+ *
+ * The check rejects what binding the DTO would reject (an object where
+ * a string is declared, a non-numeric string for an int, a scalar for a
+ * list, ...) without materializing the DTO or any field values.
+ * Unknown properties are skipped, matching ignoreUnknown = true.
+ */
+public final class PayloadSchema {
+
+    private enum Kind {
+        TEXT,
+        INT,
+        LONG,
+        BIG_INTEGER,
+        BOOLEAN,
+        FLOAT,
+        DECIMAL,
+        ARRAY,
+        OBJECT,
+        ANY
+    }
+
+    private static final class Rule {
+
+        private final Kind kind;
+        private final Rule element;       // ARRAY only
+        private final PayloadSchema nested; // OBJECT only, null = any keys
+
+        private Rule(Kind kind, Rule element, PayloadSchema nested) {
+            this.kind = kind;
+            this.element = element;
+            this.nested = nested;
+        }
+    }
+
+    private static final Rule ANY = new Rule(Kind.ANY, null, null);
+
+    private final String typeName;
+
+    // property name -> rule; filled during derivation, read-only afterwards
+    private final Map<String, Rule> properties = new HashMap<>();
+
+    private PayloadSchema(String typeName) {
+        this.typeName = typeName;
+    }
+
+    // =====================================================
+    // DERIVATION (ONCE)
+    // =====================================================
+
+    public static PayloadSchema derive(
+            ObjectMapper objectMapper,
+            Class<?> type
+    ) {
+        return derive(
+                objectMapper,
+                objectMapper.constructType(type),
+                new HashMap<>()
+        );
+    }
+
+    private static PayloadSchema derive(
+            ObjectMapper objectMapper,
+            JavaType type,
+            Map<JavaType, PayloadSchema> inProgress
+    ) {
+
+        PayloadSchema existing = inProgress.get(type);
+
+        if (existing != null) {
+            return existing; // self-referencing type
+        }
+
+        PayloadSchema schema =
+                new PayloadSchema(type.getRawClass().getSimpleName());
+
+        inProgress.put(type, schema);
+
+        BeanDescription description =
+                objectMapper.getDeserializationConfig()
+                        .introspect(type);
+
+        for (BeanPropertyDefinition property :
+                description.findProperties()) {
+
+            if (!property.couldDeserialize()) {
+                continue;
+            }
+
+            schema.properties.put(
+                    property.getName(),
+                    ruleFor(
+                            objectMapper,
+                            property.getPrimaryType(),
+                            inProgress
+                    )
+            );
+        }
+
+        return schema;
+    }
+
+    private static Rule ruleFor(
+            ObjectMapper objectMapper,
+            JavaType type,
+            Map<JavaType, PayloadSchema> inProgress
+    ) {
+
+        Class<?> raw = type.getRawClass();
+
+        if (CharSequence.class.isAssignableFrom(raw)) {
+            return new Rule(Kind.TEXT, null, null);
+        }
+
+        if (raw == int.class || raw == Integer.class
+                || raw == short.class || raw == Short.class
+                || raw == byte.class || raw == Byte.class) {
+            return new Rule(Kind.INT, null, null);
+        }
+
+        if (raw == long.class || raw == Long.class) {
+            return new Rule(Kind.LONG, null, null);
+        }
+
+        if (raw == BigInteger.class) {
+            return new Rule(Kind.BIG_INTEGER, null, null);
+        }
+
+        if (raw == boolean.class || raw == Boolean.class) {
+            return new Rule(Kind.BOOLEAN, null, null);
+        }
+
+        if (raw == double.class || raw == Double.class
+                || raw == float.class || raw == Float.class) {
+            return new Rule(Kind.FLOAT, null, null);
+        }
+
+        if (raw == BigDecimal.class) {
+            return new Rule(Kind.DECIMAL, null, null);
+        }
+
+        if (type.isCollectionLikeType() || type.isArrayType()) {
+            return new Rule(
+                    Kind.ARRAY,
+                    ruleFor(objectMapper, type.getContentType(), inProgress),
+                    null
+            );
+        }
+
+        if (type.isMapLikeType()) {
+            return new Rule(Kind.OBJECT, null, null);
+        }
+
+        if (raw.isEnum() || raw.isPrimitive()
+                || raw.getName().startsWith("java.")) {
+            return ANY;
+        }
+
+        return new Rule(
+                Kind.OBJECT,
+                null,
+                derive(objectMapper, type, inProgress)
+        );
+    }
+
+    public int propertyCount() {
+        return properties.size();
+    }
+
+    // =====================================================
+    // STREAMING CHECK
+    // =====================================================
+
+    /**
+     * Checks the document read from the parser against this schema.
+     *
+     * @throws IllegalArgumentException describing the first mismatch
+     */
+    public void check(JsonParser parser) throws IOException {
+
+        JsonToken token = parser.nextToken();
+
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException(
+                    typeName + " payload must be a JSON object but was "
+                            + token
+            );
+        }
+
+        checkObject(parser, this, "$");
+    }
+
+    private static void checkObject(
+            JsonParser parser,
+            PayloadSchema schema,
+            String path
+    ) throws IOException {
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String name = parser.currentName();
+
+            JsonToken token = parser.nextToken();
+
+            Rule rule = schema.properties.get(name);
+
+            if (rule == null) {
+                parser.skipChildren();
+                continue;
+            }
+
+            checkValue(parser, token, rule, path, name, -1);
+        }
+    }
+
+    /**
+     * The value's path is only assembled (parent + name / index) when a
+     * nested object is entered or a mismatch is reported, so a passing
+     * check allocates nothing per field.
+     */
+    private static void checkValue(
+            JsonParser parser,
+            JsonToken token,
+            Rule rule,
+            String parent,
+            String name,
+            int index
+    ) throws IOException {
+
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+
+        switch (rule.kind) {
+
+            case TEXT -> {
+                if (!token.isScalarValue()) {
+                    throw mismatch(parent, name, index, "a string", token);
+                }
+            }
+
+            case INT, LONG, BIG_INTEGER -> checkIntegral(
+                    parser, token, rule.kind, parent, name, index);
+
+            case BOOLEAN -> {
+                if (token != JsonToken.VALUE_TRUE
+                        && token != JsonToken.VALUE_FALSE
+                        && token != JsonToken.VALUE_NUMBER_INT
+                        && token != JsonToken.VALUE_STRING) {
+                    throw mismatch(parent, name, index, "a boolean", token);
+                }
+            }
+
+            case FLOAT, DECIMAL -> checkDecimal(
+                    parser, token, rule.kind, parent, name, index);
+
+            case ARRAY -> {
+                if (token != JsonToken.START_ARRAY) {
+                    throw mismatch(parent, name, index, "an array", token);
+                }
+
+                String arrayPath = null;
+                int elementIndex = 0;
+                JsonToken elementToken;
+
+                while ((elementToken = parser.nextToken())
+                        != JsonToken.END_ARRAY) {
+
+                    if (arrayPath == null) {
+                        arrayPath = path(parent, name, index);
+                    }
+
+                    checkValue(
+                            parser,
+                            elementToken,
+                            rule.element,
+                            arrayPath,
+                            null,
+                            elementIndex++
+                    );
+                }
+            }
+
+            case OBJECT -> {
+                if (token != JsonToken.START_OBJECT) {
+                    throw mismatch(parent, name, index, "an object", token);
+                }
+
+                if (rule.nested == null) {
+                    parser.skipChildren();
+                } else {
+                    checkObject(
+                            parser,
+                            rule.nested,
+                            path(parent, name, index)
+                    );
+                }
+            }
+
+            default -> parser.skipChildren();
+        }
+    }
+
+    private static void checkIntegral(
+            JsonParser parser,
+            JsonToken token,
+            Kind kind,
+            String parent,
+            String name,
+            int index
+    ) throws IOException {
+
+        String expected = switch (kind) {
+            case INT -> "an int";
+            case LONG -> "a long";
+            default -> "an integer";
+        };
+
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return; // truncated by Jackson (ACCEPT_FLOAT_AS_INT)
+        }
+
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+
+            JsonParser.NumberType type = parser.getNumberType();
+
+            if (kind == Kind.BIG_INTEGER) {
+                return; // any size
+            }
+
+            if (type == JsonParser.NumberType.BIG_INTEGER
+                    || (kind == Kind.INT
+                    && type != JsonParser.NumberType.INT)) {
+                throw mismatch(parent, name, index, expected + " in range", token);
+            }
+
+            return;
+        }
+
+        if (token == JsonToken.VALUE_STRING) {
+
+            String text = parser.getText().trim();
+
+            if (text.isEmpty()) {
+                return; // coerced to 0 / null
+            }
+
+            try {
+
+                if (kind == Kind.BIG_INTEGER) {
+                    new BigInteger(text);
+                    return;
+                }
+
+                long value = Long.parseLong(text);
+
+                if (kind == Kind.INT
+                        && (value < Integer.MIN_VALUE
+                        || value > Integer.MAX_VALUE)) {
+                    throw mismatch(parent, name, index, expected + " in range", token);
+                }
+
+                return;
+
+            } catch (NumberFormatException e) {
+                throw mismatch(parent, name, index, expected, token);
+            }
+        }
+
+        throw mismatch(parent, name, index, expected, token);
+    }
+
+    /**
+     * Numbers pass; a string must parse as the target type does
+     * (Double.parseDouble accepts NaN / Infinity, BigDecimal does not).
+     */
+    private static void checkDecimal(
+            JsonParser parser,
+            JsonToken token,
+            Kind kind,
+            String parent,
+            String name,
+            int index
+    ) throws IOException {
+
+        if (token.isNumeric()) {
+            return;
+        }
+
+        if (token == JsonToken.VALUE_STRING) {
+
+            String text = parser.getText().trim();
+
+            if (text.isEmpty()) {
+                return; // coerced to 0 / null
+            }
+
+            try {
+
+                if (kind == Kind.FLOAT) {
+                    Double.parseDouble(text);
+                } else {
+                    new BigDecimal(text);
+                }
+
+                return;
+
+            } catch (NumberFormatException e) {
+                throw mismatch(parent, name, index, "a number", token);
+            }
+        }
+
+        throw mismatch(parent, name, index, "a number", token);
+    }
+
+    private static String path(String parent, String name, int index) {
+        return name != null
+                ? parent + "." + name
+                : parent + "[" + index + "]";
+    }
+
+    private static IllegalArgumentException mismatch(
+            String parent,
+            String name,
+            int index,
+            String expected,
+            JsonToken actual
+    ) {
+        return new IllegalArgumentException(
+                "Invalid payload at " + path(parent, name, index)
+                        + ": expected " + expected
+                        + " but was " + actual
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.rules.RuleLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigReloaderTest {
+
+    @Mock
+    private EventConfigLoader eventConfigLoader;
+
+    @Mock
+    private RuleLoader ruleLoader;
+
+    @Mock
+    private TableMetadataRegistry metadataRegistry;
+
+    private ConfigReloader reloader;
+
+    @BeforeEach
+    void setUp() {
+
+        reloader = new ConfigReloader(
+                eventConfigLoader, ruleLoader, metadataRegistry, Duration.ZERO);
+
+        when(eventConfigLoader.reload()).thenReturn(ConfigChanges.NONE);
+        when(ruleLoader.reload()).thenReturn(ConfigChanges.NONE);
+    }
+
+    @Test
+    void reload_refreshesTableMetadata() {
+
+        when(metadataRegistry.getVersion()).thenReturn(2L);
+
+        Map<String, Object> result = reloader.reload();
+
+        verify(metadataRegistry).refresh();
+        assertEquals(Map.of("version", 2L), result.get("tableMetadata"));
+        assertSame(result, reloader.getLastReload());
+    }
+
+    @Test
+    void reload_metadataFailure_reportedConfigsKept() {
+
+        doThrow(new DataAccessResourceFailureException("DB down"))
+                .when(metadataRegistry).refresh();
+        when(metadataRegistry.getVersion()).thenReturn(1L);
+
+        Map<String, Object> result = reloader.reload();
+
+        assertEquals(
+                Map.of("error", "DB down", "version", 1L),
+                result.get("tableMetadata"));
+        assertNotNull(result.get("eventConfigs"));
+    }
+}
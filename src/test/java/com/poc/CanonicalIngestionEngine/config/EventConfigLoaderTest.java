@@ -1,7 +1,20 @@
 package com.poc.CanonicalIngestionEngine.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,4 +104,117 @@ class EventConfigLoaderTest {
         assertEquals("$", addressType.getRootPath());
         assertNull(addressType.getFields()); // Not set yet
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("reload() swaps in only the changed configs; parsed plans keep the old version")
+    void testReloadReplacesChangedConfigsOnly(@TempDir Path dir) throws Exception {
+        // Given
+        Map<String, Map<String, Object>> served = new ConcurrentHashMap<>();
+        served.put("PAY_event", source("PAY", "$.before"));
+        served.put("AUTH_event", source("AUTH", "$.auth"));
+        HttpServer server = serve(served);
+
+        try {
+            EventConfigLoader loader = new EventConfigLoader();
+            ReflectionTestUtils.setField(loader, "configServerUrl",
+                    "http://localhost:" + server.getAddress().getPort());
+            ReflectionTestUtils.setField(loader, "snapshotDir", dir.toString());
+            loader.init();
+
+            EventPlan inFlight = loader.getPlan("PAY");
+            EventConfig auth = loader.get("AUTH");
+            long version = loader.getVersion();
+
+            served.put("PAY_event", source("PAY", "$.after"));
+
+            // When
+            ConfigChanges reloaded = loader.reload();
+
+            // Then
+            assertEquals(Set.of("PAY"), reloaded.getChanged());
+            assertEquals(Set.of(), reloaded.getRemoved());
+            assertEquals(version + 1, loader.getVersion());
+            assertSame(auth, loader.get("AUTH"));
+            assertTrue(mappingPaths(loader.get("PAY")).contains("$.after"));
+            assertNotSame(inFlight, loader.getPlan("PAY"));
+            assertTrue(mappingPaths(inFlight.getConfig()).contains("$.before"));
+            assertTrue(loader.reload().isEmpty());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("reload() drops events whose file is gone and the old name of a renamed event")
+    void testReloadDropsRemovedAndRenamedConfigs(@TempDir Path dir) throws Exception {
+        // Given
+        Map<String, Map<String, Object>> served = new ConcurrentHashMap<>();
+        served.put("PAY_event", source("PAY", "$.pay"));
+        served.put("AUTH_event", source("AUTH", "$.auth"));
+        HttpServer server = serve(served);
+
+        try {
+            EventConfigLoader loader = new EventConfigLoader();
+            ReflectionTestUtils.setField(loader, "configServerUrl",
+                    "http://localhost:" + server.getAddress().getPort());
+            ReflectionTestUtils.setField(loader, "snapshotDir", dir.toString());
+            loader.init();
+
+            served.remove("AUTH_event");
+            served.put("PAY_event", source("PAYMENT", "$.pay"));
+
+            // When
+            ConfigChanges reloaded = loader.reload();
+
+            // Then
+            assertEquals(Set.of("PAYMENT"), reloaded.getChanged());
+            assertEquals(Set.of("PAY", "AUTH"), reloaded.getRemoved());
+            assertNull(loader.get("AUTH"));
+            assertNull(loader.get("PAY"));
+            assertNull(loader.getPlan("PAY"));
+            assertNotNull(loader.get("PAYMENT"));
+            assertEquals(1, loader.getAllConfigs().size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Map<String, Object> source(String eventName, String path) {
+        return Map.of(
+                "event-name", eventName,
+                "tables[0].table-name", "SEND_TRAN_DTL",
+                "tables[0].type", "detail",
+                "tables[0].order", 1,
+                "tables[0].mapping.COL", path
+        );
+    }
+
+    private static Collection<String> mappingPaths(EventConfig config) {
+        return config.getTables().get(0).getMapping().values();
+    }
+
+    /** Serves the given sources as config-server responses; 404 otherwise. */
+    private static HttpServer serve(Map<String, Map<String, Object>> served) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String name = exchange.getRequestURI().getPath()
+                    .replace("/default", "")
+                    .replaceFirst("^/", "");
+            Map<String, Object> source = served.get(name);
+            if (source == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = mapper.writeValueAsBytes(Map.of(
+                    "propertySources", List.of(Map.of("name", name, "source", source))));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,241 @@
+package com.poc.CanonicalIngestionEngine.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.mapping.CompiledPath;
+import com.poc.CanonicalIngestionEngine.repository.ColumnMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventPlanTest {
+
+    private static TableConfig table(String name, String type, Map<String, String> mapping) {
+        TableConfig table = new TableConfig();
+        table.setTableName(name);
+        table.setType(type);
+        table.setMapping(mapping);
+        return table;
+    }
+
+    private static EventConfig config(String eventName, TableConfig... tables) {
+        EventConfig config = new EventConfig();
+        config.setEventName(eventName);
+        config.setTables(List.of(tables));
+        return config;
+    }
+
+    private static TableMetadata metadata(String table, String... columns) {
+        List<ColumnMetadata> list = new ArrayList<>();
+        for (String column : columns) {
+            list.add(new ColumnMetadata(column, "VARCHAR2", 36, null, null, true, false));
+        }
+        return new TableMetadata(table, list);
+    }
+
+    // =====================================================
+    // ROLES / UPDATE TARGET
+    // =====================================================
+
+    @Test
+    void compile_resolvesRolesAndUpdateTable() {
+        EventPlan plan = EventPlan.compile(config("CLEARING",
+                table("SEND_TRAN_DTL", "child", Map.of()),
+                table("SEND_TRAN_ADDR_DTL", "address", Map.of()),
+                table("CLEARING", null, Map.of()),
+                table("SEND_TRANSACTIONS", "main", Map.of()),
+                table("SEND_RECIP_DTL", "recipient", Map.of())
+        ), null, null);
+
+        assertEquals(
+                List.of(TableRole.CHILD, TableRole.ADDRESS, TableRole.CLEARING,
+                        TableRole.MAIN, TableRole.DETAIL),
+                plan.getTables().stream().map(TablePlan::getRole).toList());
+        assertEquals("CLEARING", plan.getUpdateTable().getTableName());
+        assertEquals(EventPlan.UpdateFlow.CLEARING, plan.getUpdateFlow());
+        assertTrue(plan.getTables().get(3).isTransactionTable());
+    }
+
+    @Test
+    void compile_ais2_isSwitchSerialEnrichment() {
+        EventPlan plan = EventPlan.compile(config("ais2",
+                table("SEND_TRANSACTIONS", "main", Map.of())), null, null);
+
+        assertEquals(EventPlan.UpdateFlow.SWITCH_SERIAL_ENRICHMENT, plan.getUpdateFlow());
+    }
+
+    @Test
+    void compile_onlyAddressAndChildTables_hasNoUpdateTable() {
+        EventPlan plan = EventPlan.compile(config("X",
+                table("SEND_TRAN_DTL", "child", Map.of()),
+                table("SEND_TRAN_ADDR_DTL", "address", Map.of())), null, null);
+
+        assertNull(plan.getUpdateTable());
+    }
+
+    @Test
+    void compile_streamingExtraction_neverBindsPayload() {
+        EventConfig streaming = config("X");
+        streaming.setPayloadExtraction(PayloadExtractionMode.STREAMING);
+
+        assertEquals(PayloadValidationMode.STREAMING_CHECK,
+                EventPlan.compile(streaming, null, null).getValidationMode());
+
+        streaming.setPayloadValidation(PayloadValidationMode.OFF);
+        assertEquals(PayloadValidationMode.OFF,
+                EventPlan.compile(streaming, null, null).getValidationMode());
+
+        assertEquals(PayloadValidationMode.FULL_BIND,
+                EventPlan.compile(config("X"), null, null).getValidationMode());
+    }
+
+    // =====================================================
+    // TRANSACTION ID PATHS
+    // =====================================================
+
+    @Test
+    void compile_withoutTransactionIdPaths_usesDefaults() {
+        EventPlan plan = EventPlan.compile(config("X"), null, null);
+
+        assertEquals(EventPlan.DEFAULT_TRANSACTION_ID_PATHS,
+                plan.getTransactionIdPaths().stream().map(CompiledPath::getExpression).toList());
+        assertTrue(plan.getProjectedPaths().containsAll(
+                List.of("transactionId", "status", "switchSerialNumber")));
+    }
+
+    @Test
+    void compile_configuredTransactionIdPath_isCompiledAndProjected() throws Exception {
+        EventConfig config = config("X");
+        config.setTransactionIdPaths(List.of("$.header.tranId"));
+
+        EventPlan plan = EventPlan.compile(config, null, null);
+
+        assertEquals(1, plan.getTransactionIdPaths().size());
+        JsonNode payload = new ObjectMapper().readTree("{\"header\":{\"tranId\":\"T9\"}}");
+        assertEquals("T9", ((JsonNode) plan.getTransactionIdPaths().get(0).read(payload)).asText());
+        assertTrue(plan.getProjectedPaths().contains("$.header.tranId"));
+        assertFalse(plan.getProjectedPaths().contains("transactionId"));
+    }
+
+    // =====================================================
+    // METADATA-VALIDATED COLUMNS
+    // =====================================================
+
+    @Test
+    void compile_dropsUnknownColumns_keepsKeyAndMandatory() {
+        TableConfig table = table("SEND_TRANSACTIONS", "main", Map.of(
+                "TRAN_ID", "$.transactionId",
+                "STATUS", "$.status",
+                "GONE", "$.gone",
+                "REQUIRED", "$.required"));
+        table.setMandatory(List.of("REQUIRED"));
+
+        TableMetadataRegistry registry = mock(TableMetadataRegistry.class);
+        when(registry.table("SEND_TRANSACTIONS"))
+                .thenReturn(metadata("SEND_TRANSACTIONS", "STATUS"));
+        when(registry.getVersion()).thenReturn(3L);
+
+        EventPlan plan = EventPlan.compile(config("X", table), registry, null);
+
+        assertEquals(Set.of("TRAN_ID", "STATUS", "REQUIRED"),
+                plan.getTables().get(0).getMapping().keySet());
+        assertEquals(3L, plan.getMetadataVersion());
+    }
+
+    @Test
+    void compile_unknownTable_keepsMapping() {
+        TableMetadataRegistry registry = mock(TableMetadataRegistry.class);
+        when(registry.table(anyString())).thenReturn(metadata("T"));
+
+        EventPlan plan = EventPlan.compile(config("X",
+                table("T", "detail", Map.of("A", "$.a"))), registry, null);
+
+        assertEquals(Set.of("A"), plan.getTables().get(0).getMapping().keySet());
+    }
+
+    // =====================================================
+    // SQL TEMPLATES
+    // =====================================================
+
+    @Test
+    void insertSql_reusesPlannedTemplate_onlyForPlannedRow() {
+        DynamicSqlBuilder sqlBuilder = mock(DynamicSqlBuilder.class);
+        when(sqlBuilder.buildInsertTemplate(anyString(), anySet(), anyBoolean()))
+                .thenReturn(new SqlTemplate("PLANNED", "SEND_TRANSACTIONS", List.of()));
+        when(sqlBuilder.buildInsertSql(anyString(), anySet(), anyBoolean()))
+                .thenReturn("BUILT");
+
+        EventPlan plan = EventPlan.compile(config("X",
+                table("SEND_TRANSACTIONS", "main", Map.of("TRAN_ID", "$.transactionId"))),
+                null, sqlBuilder);
+        TablePlan table = plan.getTables().get(0);
+
+        assertEquals(
+                Set.of("TRAN_ID", "CUR_STAT", "NON_FIN_TXN", "RPLCTN_UPDT_TS", "STATUS"),
+                table.getRowColumns());
+        assertEquals("PLANNED", table.insertSql(Set.copyOf(table.getRowColumns()), sqlBuilder));
+        assertEquals("BUILT", table.insertSql(Set.of("TRAN_ID"), sqlBuilder));
+        verify(sqlBuilder, times(1)).buildInsertSql(anyString(), anySet(), anyBoolean());
+    }
+
+    @Test
+    void compile_templateFailure_fallsBackToBuilderPerRow() {
+        DynamicSqlBuilder sqlBuilder = mock(DynamicSqlBuilder.class);
+        when(sqlBuilder.buildInsertTemplate(anyString(), anySet(), anyBoolean()))
+                .thenThrow(new IllegalStateException("No valid columns"));
+        when(sqlBuilder.buildInsertSql(anyString(), anySet(), anyBoolean()))
+                .thenReturn("BUILT");
+
+        TablePlan table = EventPlan.compile(config("X",
+                table("T", "detail", Map.of("A", "$.a"))), null, sqlBuilder)
+                .getTables().get(0);
+
+        assertNull(table.getInsertTemplate());
+        assertEquals("BUILT", table.insertSql(table.getRowColumns(), sqlBuilder));
+    }
+
+    @Test
+    void compile_addressTable_templatePerAddressType() {
+        DynamicSqlBuilder sqlBuilder = mock(DynamicSqlBuilder.class);
+        when(sqlBuilder.buildInsertTemplate(anyString(), anySet(), anyBoolean()))
+                .thenAnswer(inv -> new SqlTemplate(
+                        "PLANNED " + inv.getArgument(1), "SEND_TRAN_ADDR_DTL", List.of()));
+
+        TableConfig.AddressTypeMapping home = new TableConfig.AddressTypeMapping();
+        home.setType("HOME");
+        home.setRootPath("$.home");
+        home.setFields(Map.of("CITY", "$.home.city", "GONE", "$.home.gone"));
+
+        TableConfig table = table("SEND_TRAN_ADDR_DTL", "address", null);
+        table.setParentIdField("TRAN_ID");
+        table.setAddressTypes(List.of(home));
+
+        TableMetadataRegistry registry = mock(TableMetadataRegistry.class);
+        when(registry.table("SEND_TRAN_ADDR_DTL"))
+                .thenReturn(metadata("SEND_TRAN_ADDR_DTL", "ID", "CITY", "ADDR_TYPE", "TRAN_ID"));
+
+        TablePlan plan = EventPlan.compile(config("X", table), registry, sqlBuilder)
+                .getTables().get(0);
+
+        TablePlan.AddressPlan address = plan.getAddresses().get(0);
+        assertEquals(Set.of("CITY"), address.getFields().keySet());
+        assertEquals(Set.of("CITY", "ID", "ADDR_TYPE", "TRAN_ID"), address.getColumns());
+        assertNull(plan.getInsertTemplate());
+
+        assertEquals(
+                address.getInsertTemplate().getSql(),
+                plan.insertSql(Set.of("TRAN_ID", "ADDR_TYPE", "ID", "CITY"), sqlBuilder));
+        verify(sqlBuilder, never()).buildInsertSql(anyString(), anySet(), anyBoolean());
+    }
+}
@@ -0,0 +1,223 @@
+package com.poc.CanonicalIngestionEngine.controller;
+
+import com.poc.CanonicalIngestionEngine.config.ResponseMode;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.model.IngestionResponse;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.InvalidEventException;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.QueueFullException;
+import com.poc.CanonicalIngestionEngine.service.BulkIngestionService;
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter;
+import com.poc.CanonicalIngestionEngine.service.IngestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestControllerTest {
+
+    @Mock
+    private IngestionService ingestionService;
+
+    @Mock
+    private BulkIngestionService bulkIngestionService;
+
+    @Mock
+    private AsyncIngestionService asyncIngestionService;
+
+    private EventEnvelope envelope;
+
+    @BeforeEach
+    void setUp() {
+
+        envelope = new EventEnvelope();
+        envelope.setEventId("EVT_1");
+        envelope.setCorrelationId("CORR_1");
+
+        lenient().when(ingestionService.parse(any())).thenReturn(
+                new ParsedEvent(envelope, null, null, "TXN_1", "A"));
+    }
+
+    private IngestController controller(ResponseMode mode) {
+        return new IngestController(
+                ingestionService, bulkIngestionService, asyncIngestionService, mode, 2);
+    }
+
+    @Test
+    void ack_noReadback() {
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ACK).ingest(envelope);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("SUCCESS", response.getBody().getStatus());
+        assertNull(response.getBody().getDbData());
+        assertNull(response.getBody().getReadbackUrl());
+        verify(ingestionService, never()).readback(any());
+    }
+
+    @Test
+    void rows_readsBackThroughService() {
+
+        when(ingestionService.readback("TXN_1")).thenReturn(Map.of(
+                "SEND_TRANSACTIONS", List.of(Map.of("TRAN_ID", "TXN_1"))));
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ROWS).ingest(envelope);
+
+        assertEquals(
+                List.of(Map.of("TRAN_ID", "TXN_1")),
+                response.getBody().getDbData().get("SEND_TRANSACTIONS"));
+        verify(ingestionService, times(1)).readback("TXN_1");
+    }
+
+    @Test
+    void link_returnsReadbackUrl() {
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.LINK).ingest(envelope);
+
+        assertEquals(
+                "/api/v1/ingestion/transactions/TXN_1",
+                response.getBody().getReadbackUrl());
+        assertNull(response.getBody().getDbData());
+        verify(ingestionService, never()).readback(any());
+    }
+
+    @Test
+    void readbackEndpoint_unknownTransaction_404() {
+
+        when(ingestionService.readback("NOPE")).thenReturn(Map.of(
+                "SEND_TRANSACTIONS", List.of()));
+
+        assertEquals(
+                HttpStatus.NOT_FOUND,
+                controller(ResponseMode.LINK).readback("NOPE").getStatusCode());
+    }
+
+    @Test
+    void readbackEndpoint_ackMode_404WithoutReading() {
+
+        assertEquals(
+                HttpStatus.NOT_FOUND,
+                controller(ResponseMode.ACK).readback("TXN_1").getStatusCode());
+        verify(ingestionService, never()).readback(any());
+    }
+
+    @Test
+    void ack_noTransactionId_stillSucceeds() {
+
+        when(ingestionService.parse(any())).thenReturn(
+                new ParsedEvent(envelope, null, null, null, "A"));
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ACK).ingest(envelope);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(ingestionService).ingest(any(ParsedEvent.class));
+    }
+
+    @Test
+    void rows_noTransactionId_failsBeforeIngesting() {
+
+        when(ingestionService.parse(any())).thenReturn(
+                new ParsedEvent(envelope, null, null, null, "A"));
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ROWS).ingest(envelope);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(ingestionService, never()).ingest(any(ParsedEvent.class));
+    }
+
+    @Test
+    void async_returnsReceiptWithoutProcessing() {
+
+        when(asyncIngestionService.isEnabled()).thenReturn(true);
+        when(asyncIngestionService.submit(envelope)).thenReturn("R-1");
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ACK).ingest(envelope);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("R-1", response.getBody().getReceiptId());
+        assertEquals(EventResult.PENDING, response.getBody().getStatus());
+        assertEquals(
+                "/api/v1/ingestion/R-1",
+                response.getHeaders().getFirst(HttpHeaders.LOCATION));
+        verify(ingestionService, never()).ingest(any(ParsedEvent.class));
+    }
+
+    @Test
+    void async_queueFull_429WithRetryAfter() {
+
+        when(asyncIngestionService.isEnabled()).thenReturn(true);
+        when(asyncIngestionService.submit(envelope))
+                .thenThrow(new QueueFullException("full"));
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ACK).ingest(envelope);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void async_unparseableEnvelope_400WithoutReceipt() {
+
+        when(asyncIngestionService.isEnabled()).thenReturn(true);
+        when(asyncIngestionService.submit(envelope))
+                .thenThrow(new InvalidEventException(
+                        "Unknown eventName", new IllegalStateException()));
+
+        ResponseEntity<IngestionResponse> response =
+                controller(ResponseMode.ACK).ingest(envelope);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("FAILED", response.getBody().getStatus());
+        assertEquals("Unknown eventName", response.getBody().getMessage());
+        assertNull(response.getBody().getReceiptId());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.LOCATION));
+    }
+
+    @Test
+    void receiptEndpoint_unknownReceipt_404() {
+
+        assertEquals(
+                HttpStatus.NOT_FOUND,
+                controller(ResponseMode.ACK).receipt("NOPE").getStatusCode());
+    }
+
+    @Test
+    void noDbCapacity_503WithRetryAfter_nothingIngested() {
+
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(1, 10);
+
+        IngestController controller = new IngestController(
+                ingestionService, bulkIngestionService, asyncIngestionService,
+                ResponseMode.ACK, 2, limiter);
+
+        // The only permit is held while the request arrives
+        ResponseEntity<IngestionResponse> response =
+                limiter.call(() -> controller.ingest(envelope));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, limiter.getAvailablePermits());
+        verify(ingestionService, never()).ingest(any(ParsedEvent.class));
+    }
+}
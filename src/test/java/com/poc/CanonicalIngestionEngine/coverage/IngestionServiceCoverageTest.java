@@ -5,17 +5,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.poc.CanonicalIngestionEngine.config.EventConfig;
 import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
 import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import com.poc.CanonicalIngestionEngine.config.TablePlan;
+import com.poc.CanonicalIngestionEngine.config.UpsertStrategy;
 import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
 import com.poc.CanonicalIngestionEngine.repository.TransactionRepository;
+import com.poc.CanonicalIngestionEngine.repository.TransactionSnapshot;
 import com.poc.CanonicalIngestionEngine.rules.RuleEngine;
 import com.poc.CanonicalIngestionEngine.service.IngestionService;
 import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -74,6 +80,10 @@ class IngestionServiceCoverageTest {
         return env;
     }
 
+    private static TransactionSnapshot snapshot(Map<String, Object> row) {
+        return new TransactionSnapshot("TXN", row, table -> List.of());
+    }
+
     private EventConfig mainConfig() {
         TableConfig table = new TableConfig();
         table.setTableName("SEND_TRANSACTIONS");
@@ -88,6 +98,12 @@ class IngestionServiceCoverageTest {
         return config;
     }
 
+    private EventConfig ais2Config() {
+        EventConfig config = mainConfig();
+        config.setEventName("AIS2");
+        return config;
+    }
+
     private EventConfig configWithAddressTable() {
         TableConfig.AddressTypeMapping addr = new TableConfig.AddressTypeMapping();
         addr.setRootPath("$.address");
@@ -150,45 +166,36 @@ class IngestionServiceCoverageTest {
     }
 
     // =====================================================
-    // 1. isUpdateOperation — INVALID METADATA
+    // 1. parse — OPERATION FROM METADATA
     // =====================================================
 
     @Test
-    void isUpdateOperation_invalidMetadata_returnsFalse() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isUpdateOperation", EventEnvelope.class);
-        m.setAccessible(true);
-
+    void isUpdateOperation_invalidMetadata_returnsFalse() {
         EventEnvelope env = new EventEnvelope();
         env.setEventMetadata("{bad-json}");
+        env.setEventPayload("{}");
 
-        boolean result = (boolean) m.invoke(service, env);
+        boolean result = service.parse(env).isUpdateOperation();
         assertFalse(result);
     }
 
     @Test
-    void isUpdateOperation_operationU_returnsTrue() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isUpdateOperation", EventEnvelope.class);
-        m.setAccessible(true);
-
+    void isUpdateOperation_operationU_returnsTrue() {
         EventEnvelope env = new EventEnvelope();
         env.setEventMetadata("{\"operation\":\"U\"}");
+        env.setEventPayload("{}");
 
-        boolean result = (boolean) m.invoke(service, env);
+        boolean result = service.parse(env).isUpdateOperation();
         assertTrue(result);
     }
 
     @Test
-    void isUpdateOperation_operationA_returnsFalse() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isUpdateOperation", EventEnvelope.class);
-        m.setAccessible(true);
-
+    void isUpdateOperation_operationA_returnsFalse() {
         EventEnvelope env = new EventEnvelope();
         env.setEventMetadata("{\"operation\":\"A\"}");
+        env.setEventPayload("{}");
 
-        boolean result = (boolean) m.invoke(service, env);
+        boolean result = service.parse(env).isUpdateOperation();
         assertFalse(result);
     }
 
@@ -201,10 +208,10 @@ class IngestionServiceCoverageTest {
         EventEnvelope env = envelope("PAYMENT", "A", validPayload("TXN_IGN"));
 
         doAnswer(inv -> {
-            EventEnvelope e = inv.getArgument(0);
-            e.setIgnore(true);
+            ParsedEvent e = inv.getArgument(0);
+            e.getEnvelope().setIgnore(true);
             return null;
-        }).when(ruleEngine).apply(any());
+        }).when(ruleEngine).apply(any(ParsedEvent.class));
 
         service.ingest(env);
 
@@ -277,7 +284,6 @@ class IngestionServiceCoverageTest {
         when(dataMapper.map(any(), any(), any(), anyBoolean()))
                 .thenReturn(new HashMap<>(Map.of("TRAN_ID", "TXN004", "STATUS", "INIT")));
         when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>());
 
         service.ingest(env);
 
@@ -305,6 +311,36 @@ class IngestionServiceCoverageTest {
         verify(repository, times(1)).insert(anyString(), anyMap());
     }
 
+    // =====================================================
+    // 7b. INSERT FLOW — MERGE UPSERT STRATEGY
+    // =====================================================
+
+    @Test
+    void insertFlow_mergeStrategy_singleMergeNoExistsCheck() {
+        EventEnvelope env = envelope("PAYMENT", "A", validPayload("TXN005M"));
+
+        EventConfig config = mainConfig();
+        config.getTables().get(0).setUpsertStrategy(UpsertStrategy.MERGE);
+
+        SqlTemplate template = new SqlTemplate(
+                "MERGE INTO SEND_TRANSACTIONS ...",
+                "SEND_TRANSACTIONS",
+                List.of("TRAN_ID", "STATUS"));
+
+        when(eventConfigLoader.get(any())).thenReturn(config);
+        when(dataMapper.map(any(), any(), any(), anyBoolean()))
+                .thenReturn(new HashMap<>(Map.of("TRAN_ID", "TXN005M")));
+        when(sqlBuilder.buildMergeTemplate(
+                eq("SEND_TRANSACTIONS"), any(), eq("TRAN_ID"), anyBoolean()))
+                .thenReturn(template);
+
+        service.ingest(env);
+
+        verify(repository).merge(eq(template), anyMap());
+        verify(repository, never()).exists(any(), any(), any());
+        verify(repository, never()).insert(anyString(), anyMap());
+    }
+
     // =====================================================
     // 8. INSERT FLOW — CHILD TABLE SKIPPED
     // =====================================================
@@ -396,11 +432,12 @@ class IngestionServiceCoverageTest {
     @Test
     void processAddressInsert_parentIdNull_returnsEarly() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
-                "processAddressInsert", JsonNode.class, TableConfig.class, String.class);
+                "processAddressInsert", JsonNode.class, TablePlan.class, String.class);
         m.setAccessible(true);
 
         TableConfig table = new TableConfig();
-        m.invoke(service, objectMapper.readTree("{}"), table, null);
+        table.setType("address");
+        m.invoke(service, objectMapper.readTree("{}"), TablePlan.compile(table, null, null), null);
 
         verify(repository, never()).insert(anyString(), anyMap());
     }
@@ -412,13 +449,15 @@ class IngestionServiceCoverageTest {
     @Test
     void processAddressInsert_addressTypesNull_returnsEarly() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
-                "processAddressInsert", JsonNode.class, TableConfig.class, String.class);
+                "processAddressInsert", JsonNode.class, TablePlan.class, String.class);
         m.setAccessible(true);
 
         TableConfig table = new TableConfig();
+        table.setType("address");
         table.setAddressTypes(null);
 
-        m.invoke(service, objectMapper.readTree("{}"), table, "PARENT_100");
+        m.invoke(service, objectMapper.readTree("{}"),
+                TablePlan.compile(table, null, null), "PARENT_100");
 
         verify(repository, never()).insert(anyString(), anyMap());
     }
@@ -430,7 +469,7 @@ class IngestionServiceCoverageTest {
     @Test
     void processAddressInsert_emptyMappedData_skipsInsert() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
-                "processAddressInsert", JsonNode.class, TableConfig.class, String.class);
+                "processAddressInsert", JsonNode.class, TablePlan.class, String.class);
         m.setAccessible(true);
 
         TableConfig.AddressTypeMapping addr = new TableConfig.AddressTypeMapping();
@@ -440,13 +479,15 @@ class IngestionServiceCoverageTest {
 
         TableConfig table = new TableConfig();
         table.setTableName("ADDR_TABLE");
+        table.setType("address");
         table.setParentIdField("TRAN_ID");
         table.setAddressTypes(List.of(addr));
 
         when(dataMapper.mapAddress(any(), anyString(), anyMap(), anyString(), anyString()))
                 .thenReturn(new HashMap<>());
 
-        m.invoke(service, objectMapper.readTree("{}"), table, "PARENT_100");
+        m.invoke(service, objectMapper.readTree("{}"),
+                TablePlan.compile(table, null, null), "PARENT_100");
 
         verify(repository, never()).insert(anyString(), anyMap());
     }
@@ -458,7 +499,7 @@ class IngestionServiceCoverageTest {
     @Test
     void processAddressInsert_success_insertsAddress() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
-                "processAddressInsert", JsonNode.class, TableConfig.class, String.class);
+                "processAddressInsert", JsonNode.class, TablePlan.class, String.class);
         m.setAccessible(true);
 
         TableConfig.AddressTypeMapping addr = new TableConfig.AddressTypeMapping();
@@ -468,6 +509,7 @@ class IngestionServiceCoverageTest {
 
         TableConfig table = new TableConfig();
         table.setTableName("ADDR_TABLE");
+        table.setType("address");
         table.setParentIdField("TRAN_ID");
         table.setAddressTypes(List.of(addr));
 
@@ -480,7 +522,8 @@ class IngestionServiceCoverageTest {
         when(sqlBuilder.buildInsertSql(any(), any(), eq(true))).thenReturn("INSERT ADDR SQL");
         doNothing().when(repository).insert(anyString(), anyMap());
 
-        m.invoke(service, objectMapper.readTree("{}"), table, "PARENT_100");
+        m.invoke(service, objectMapper.readTree("{}"),
+                TablePlan.compile(table, null, null), "PARENT_100");
 
         verify(repository, times(1)).insert(anyString(), anyMap());
     }
@@ -494,12 +537,10 @@ class IngestionServiceCoverageTest {
         EventEnvelope env = envelope("AIS2", "U",
                 "{\"accountInformationId\":\"TXN_AIS\",\"switchSerialNumber\":\"SN999\"}");
 
-        when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-
+        when(eventConfigLoader.get(any())).thenReturn(ais2Config());
         Map<String, Object> dbRow = new HashMap<>();
         dbRow.put("SW_SER_NUM", null);
-        when(repository.findTransaction(any())).thenReturn(dbRow);
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(dbRow));
 
         service.ingest(env);
 
@@ -521,9 +562,8 @@ class IngestionServiceCoverageTest {
         EventEnvelope env = envelope("AIS2", "U",
                 "{\"accountInformationId\":\"TXN_AIS2\",\"switchSerialNumber\":\"SN999\"}");
 
-        when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(Map.of("SW_SER_NUM", "EXISTING"));
+        when(eventConfigLoader.get(any())).thenReturn(ais2Config());
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(Map.of("SW_SER_NUM", "EXISTING")));
 
         service.ingest(env);
 
@@ -539,9 +579,8 @@ class IngestionServiceCoverageTest {
         EventEnvelope env = envelope("AIS2", "U",
                 "{\"accountInformationId\":\"TXN_AIS3\",\"switchSerialNumber\":\"SN999\"}");
 
-        when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(null);
+        when(eventConfigLoader.get(any())).thenReturn(ais2Config());
+        when(repository.lockTransaction(any(), any())).thenReturn(null);
 
         assertThrows(IngestionService.IngestionProcessingException.class,
                 () -> service.ingest(env));
@@ -557,7 +596,7 @@ class IngestionServiceCoverageTest {
                 "{\"transactionId\":\"TXN_NF\",\"status\":\"SETTLED\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(false);
+        when(repository.lockTransaction(any(), any())).thenReturn(null);
 
         assertThrows(IngestionService.IngestionProcessingException.class,
                 () -> service.ingest(env));
@@ -588,8 +627,7 @@ class IngestionServiceCoverageTest {
                 "{\"transactionId\":\"TXN_BLK\",\"status\":\"STARTED\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(Map.of("STATUS", "SETTLED"));
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(Map.of("STATUS", "SETTLED")));
 
         service.ingest(env);
 
@@ -606,10 +644,8 @@ class IngestionServiceCoverageTest {
                 "{\"transactionId\":\"TXN_UPD\",\"status\":\"SETTLED\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(
-                new HashMap<>(Map.of("STATUS", "INIT")));
-        when(repository.findAllRelatedData(any())).thenReturn(new HashMap<>());
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(
+                new HashMap<>(Map.of("STATUS", "INIT"))));
         when(repository.columnExists(any(), any())).thenReturn(true);
         when(dataMapper.map(any(), any(), any(), anyBoolean()))
                 .thenReturn(new HashMap<>(Map.of("STATUS", "SETTLED")));
@@ -629,9 +665,7 @@ class IngestionServiceCoverageTest {
                 "{\"transactionId\":\"TXN_NOSTA\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>());
-        when(repository.findAllRelatedData(any())).thenReturn(new HashMap<>());
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(new HashMap<>()));
         when(repository.columnExists(any(), any())).thenReturn(true);
         when(dataMapper.map(any(), any(), any(), anyBoolean()))
                 .thenReturn(new HashMap<>(Map.of("TRAN_ID", "TXN_NOSTA")));
@@ -651,9 +685,7 @@ class IngestionServiceCoverageTest {
                 "{\"paymentTransactionId\":\"TXN_PT\",\"status\":\"SETTLED\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>(Map.of("STATUS","INIT")));
-        when(repository.findAllRelatedData(any())).thenReturn(new HashMap<>());
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(new HashMap<>(Map.of("STATUS","INIT"))));
         when(repository.columnExists(any(), any())).thenReturn(true);
         when(dataMapper.map(any(), any(), any(), anyBoolean()))
                 .thenReturn(new HashMap<>(Map.of("STATUS","SETTLED")));
@@ -669,9 +701,7 @@ class IngestionServiceCoverageTest {
                 "{\"authorizationId\":\"TXN_AUTH\",\"status\":\"COMPLETED\"}");
 
         when(eventConfigLoader.get(any())).thenReturn(mainConfig());
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>(Map.of("STATUS","INIT")));
-        when(repository.findAllRelatedData(any())).thenReturn(new HashMap<>());
+        when(repository.lockTransaction(any(), any())).thenReturn(snapshot(new HashMap<>(Map.of("STATUS","INIT"))));
         when(repository.columnExists(any(), any())).thenReturn(true);
         when(dataMapper.map(any(), any(), any(), anyBoolean()))
                 .thenReturn(new HashMap<>(Map.of("STATUS","COMPLETED")));
@@ -685,90 +715,41 @@ class IngestionServiceCoverageTest {
     // 24. isStatusTransitionAllowed — BLANK TRAN_ID ALLOWS
     // =====================================================
 
-    @Test
-    void isStatusTransitionAllowed_blankTranId_allows() throws Exception {
+    private boolean statusAllowed(String tranId, Object current, String incoming)
+            throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
+                "isStatusTransitionAllowed", String.class, Object.class, String.class);
         m.setAccessible(true);
 
-        boolean result = (boolean) m.invoke(service, "", "SETTLED");
-        assertTrue(result);
+        return (boolean) m.invoke(service, tranId, current, incoming);
     }
 
     @Test
-    void isStatusTransitionAllowed_nullTranId_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        boolean result = (boolean) m.invoke(service, null, "SETTLED");
-        assertTrue(result);
-    }
-
-    // =====================================================
-    // 25. isStatusTransitionAllowed — NULL INCOMING STATUS ALLOWS
-    // =====================================================
-
-    @Test
-    void isStatusTransitionAllowed_nullIncomingStatus_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", null);
-        assertTrue(result);
+    void isStatusTransitionAllowed_blankTranId_allows() throws Exception {
+        assertTrue(statusAllowed("", "INIT", "SETTLED"));
     }
 
-    // =====================================================
-    // 26. isStatusTransitionAllowed — RECORD DOES NOT EXIST
-    // =====================================================
-
     @Test
-    void isStatusTransitionAllowed_recordNotExists_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        when(repository.exists(any(), any(), any())).thenReturn(false);
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", "SETTLED");
-        assertTrue(result);
+    void isStatusTransitionAllowed_nullTranId_allows() throws Exception {
+        assertTrue(statusAllowed(null, "INIT", "SETTLED"));
     }
 
     // =====================================================
-    // 27. isStatusTransitionAllowed — NULL ROW ALLOWS
+    // 25. isStatusTransitionAllowed — NULL INCOMING STATUS ALLOWS
     // =====================================================
 
     @Test
-    void isStatusTransitionAllowed_existingRowNull_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(null);
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", "SETTLED");
-        assertTrue(result);
+    void isStatusTransitionAllowed_nullIncomingStatus_allows() throws Exception {
+        assertTrue(statusAllowed("TXN_X", "SETTLED", null));
     }
 
     // =====================================================
-    // 28. isStatusTransitionAllowed — NULL CURRENT STATUS ALLOWS
+    // 26-28. isStatusTransitionAllowed — NULL CURRENT STATUS ALLOWS
     // =====================================================
 
     @Test
     void isStatusTransitionAllowed_nullCurrentStatus_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        Map<String, Object> row = new HashMap<>();
-        row.put("STATUS", null);
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(row);
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", "SETTLED");
-        assertTrue(result);
+        assertTrue(statusAllowed("TXN_X", null, "PENDING"));
     }
 
     // =====================================================
@@ -777,45 +758,23 @@ class IngestionServiceCoverageTest {
 
     @Test
     void isStatusTransitionAllowed_terminalToLowPriority_blocks() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(Map.of("STATUS", "APPROVED"));
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", "PENDING");
-        assertFalse(result);
+        assertFalse(statusAllowed("TXN_X", "APPROVED", "PENDING"));
     }
 
     @Test
     void isStatusTransitionAllowed_terminalToTerminal_allows() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        when(repository.exists(any(), any(), any())).thenReturn(true);
-        when(repository.findTransaction(any())).thenReturn(Map.of("STATUS", "SETTLED"));
-
-        boolean result = (boolean) m.invoke(service, "TXN_X", "COMPLETED");
-        assertTrue(result);
+        assertTrue(statusAllowed("TXN_X", "SETTLED", "COMPLETED"));
     }
 
     // =====================================================
-    // 30. isStatusTransitionAllowed — DB EXCEPTION ALLOWS BY DEFAULT
+    // 30. isStatusTransitionAllowed — NEEDS NO DB ACCESS
     // =====================================================
 
     @Test
-    void isStatusTransitionAllowed_dbException_allowsByDefault() throws Exception {
-        Method m = IngestionService.class.getDeclaredMethod(
-                "isStatusTransitionAllowed", String.class, String.class);
-        m.setAccessible(true);
-
-        when(repository.exists(any(), any(), any()))
-                .thenThrow(new RuntimeException("DB_DOWN"));
+    void isStatusTransitionAllowed_usesSnapshotValueOnly() throws Exception {
+        assertTrue(statusAllowed("TXN_X", " init ", "SETTLED"));
 
-        boolean result = (boolean) m.invoke(service, "TXN_X", "SETTLED");
-        assertTrue(result);
+        verifyNoInteractions(repository);
     }
 
     // =====================================================
@@ -831,85 +790,94 @@ class IngestionServiceCoverageTest {
         Map<String, Object> incoming = new HashMap<>();
         incoming.put("BAD_COL", "value");
 
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>());
-        when(repository.columnExists(any(), any())).thenReturn(false);
+        // Builder drops unknown columns and has nothing left to SET
+        when(sqlBuilder.buildMergeNullsTemplate(any(), any(), any())).thenReturn(null);
 
         m.invoke(service, "SEND_TRANSACTIONS", "TXN_M1", incoming);
 
+        verify(repository, never()).update(any(SqlTemplate.class), anyMap());
         verify(repository, never()).updateColumn(any(), any(), any(), any(), any());
     }
 
     // =====================================================
-    // 32. mergeNullFields — EXISTING VALUE NON-NULL SKIPS UPDATE
+    // 32. mergeNullFields — BLANK INCOMING VALUE BUILDS NO STATEMENT
     // =====================================================
 
     @Test
-    void mergeNullFields_existingValueNotNull_skipsUpdate() throws Exception {
+    void mergeNullFields_blankIncomingValue_skipsUpdate() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
                 "mergeNullFields", String.class, String.class, Map.class);
         m.setAccessible(true);
 
         Map<String, Object> incoming = new HashMap<>();
-        incoming.put("STATUS", "SETTLED");
-
-        when(repository.findTransaction(any()))
-                .thenReturn(new HashMap<>(Map.of("STATUS", "EXISTING_VAL")));
-        when(repository.columnExists(any(), any())).thenReturn(true);
+        incoming.put("STATUS", "  ");
+        incoming.put("REF", null);
+        incoming.put("TRAN_ID", "TXN_M2");
 
         m.invoke(service, "SEND_TRANSACTIONS", "TXN_M2", incoming);
 
-        verify(repository, never()).updateColumn(any(), any(), any(), any(), any());
+        verify(sqlBuilder, never()).buildMergeNullsTemplate(any(), any(), any());
+        verify(repository, never()).update(any(SqlTemplate.class), anyMap());
     }
 
     // =====================================================
-    // 33. mergeNullFields — EXISTING NULL, INCOMING VALUE → UPDATE
+    // 33. mergeNullFields — ONE STATEMENT, NO PER-COLUMN ROUND TRIPS
     // =====================================================
 
     @Test
-    void mergeNullFields_existingNull_incomingValue_updates() throws Exception {
+    @SuppressWarnings("unchecked")
+    void mergeNullFields_incomingValue_singleUpdate() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
                 "mergeNullFields", String.class, String.class, Map.class);
         m.setAccessible(true);
 
         Map<String, Object> incoming = new HashMap<>();
         incoming.put("STATUS", "SETTLED");
+        incoming.put("REF", "R1");
 
-        Map<String, Object> existing = new HashMap<>();
-        existing.put("STATUS", null);
+        SqlTemplate template = new SqlTemplate(
+                "UPDATE SEND_TRANSACTIONS SET ...",
+                "SEND_TRANSACTIONS",
+                List.of("REF", "STATUS", "TRAN_ID"));
 
-        when(repository.findTransaction(any())).thenReturn(existing);
-        when(repository.columnExists(any(), any())).thenReturn(true);
+        when(sqlBuilder.buildMergeNullsTemplate(
+                eq("SEND_TRANSACTIONS"), any(), eq("TRAN_ID"))).thenReturn(template);
+        when(repository.update(eq(template), anyMap())).thenReturn(1);
 
         m.invoke(service, "SEND_TRANSACTIONS", "TXN_M3", incoming);
 
-        verify(repository).updateColumn(
-                eq("SEND_TRANSACTIONS"),
-                eq("TRAN_ID"),
-                eq("TXN_M3"),
-                eq("STATUS"),
-                eq("SETTLED")
-        );
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(repository).update(eq(template), params.capture());
+        assertEquals(
+                Map.of("STATUS", "SETTLED", "REF", "R1", "TRAN_ID", "TXN_M3"),
+                params.getValue());
+
+        verify(repository, never()).columnExists(any(), any());
+        verify(repository, never()).updateColumn(any(), any(), any(), any(), any());
     }
 
     // =====================================================
-    // 34. mergeNullFields — EMPTY EXISTING ROW, RETURNS EARLY
+    // 34. mergeNullFields — NO EXISTING ROW, NOTHING UPDATED
     // =====================================================
 
     @Test
-    void mergeNullFields_emptyExistingRow_returnsEarly() throws Exception {
+    void mergeNullFields_noExistingRow_doesNotThrow() throws Exception {
         Method m = IngestionService.class.getDeclaredMethod(
                 "mergeNullFields", String.class, String.class, Map.class);
         m.setAccessible(true);
 
-        when(repository.findTransaction(any())).thenReturn(new HashMap<>());
+        SqlTemplate template = new SqlTemplate(
+                "UPDATE SEND_TRANSACTIONS SET ...",
+                "SEND_TRANSACTIONS",
+                List.of("STATUS", "TRAN_ID"));
+
+        when(sqlBuilder.buildMergeNullsTemplate(any(), any(), any())).thenReturn(template);
+        when(repository.update(eq(template), anyMap())).thenReturn(0);
 
         Map<String, Object> incoming = new HashMap<>();
         incoming.put("STATUS", "SETTLED");
 
-        m.invoke(service, "SEND_TRANSACTIONS", "TXN_M4", incoming);
-
-        // Empty existing row → method returns early → no update
-        verify(repository, never()).updateColumn(any(), any(), any(), any(), any());
+        assertDoesNotThrow(() -> m.invoke(service, "SEND_TRANSACTIONS", "TXN_M4", incoming));
     }
 
     // =====================================================
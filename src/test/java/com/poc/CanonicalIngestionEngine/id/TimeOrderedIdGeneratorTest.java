@@ -0,0 +1,93 @@
+package com.poc.CanonicalIngestionEngine.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator =
+            new TimeOrderedIdGenerator();
+
+    @Test
+    @DisplayName("Ids use the version 7 layout with the current time prefix")
+    void versionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = generator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+
+        // May run slightly ahead of the clock after a sequence borrow
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1_000);
+    }
+
+    @Test
+    @DisplayName("Ids from one thread are strictly increasing")
+    void monotonicWithinThread() {
+        UUID previous = generator.nextUuid();
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.nextUuid();
+            assertTrue(
+                    Long.compareUnsigned(
+                            next.getMostSignificantBits(),
+                            previous.getMostSignificantBits()) > 0,
+                    "not increasing at " + i);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Ids are unique across threads")
+    void uniqueAcrossThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(32 * 5_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("IdGenerators resolves built-in names, class names and rejects unknowns")
+    void byName() {
+        assertSame(IdGenerators.defaultGenerator(), IdGenerators.byName(null));
+        assertSame(IdGenerators.defaultGenerator(), IdGenerators.byName("time-ordered"));
+        assertInstanceOf(RandomUuidGenerator.class, IdGenerators.byName("random-uuid"));
+        assertInstanceOf(
+                RandomUuidGenerator.class,
+                IdGenerators.byName(RandomUuidGenerator.class.getName()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> IdGenerators.byName("no-such-generator"));
+        assertThrows(IllegalArgumentException.class,
+                () -> IdGenerators.byName(String.class.getName()));
+    }
+}
@@ -0,0 +1,180 @@
+package com.poc.CanonicalIngestionEngine.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.KafkaConsumerConfig;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter;
+import com.poc.CanonicalIngestionEngine.service.IngestionService;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Batch listener against spring-kafka's embedded broker: a poll is
+ * ingested as one batch and its offsets are committed only after
+ * ingestBatch returns.
+ */
+@SpringJUnitConfig(CanonicalEventListenerKafkaTest.Config.class)
+@EmbeddedKafka(partitions = 1, topics = CanonicalEventListenerKafkaTest.TOPIC)
+@TestPropertySource(properties = {
+        "ingestion.kafka.enabled=true",
+        "ingestion.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "ingestion.kafka.topic=" + CanonicalEventListenerKafkaTest.TOPIC,
+        "ingestion.kafka.group-id=" + CanonicalEventListenerKafkaTest.GROUP,
+        "ingestion.kafka.concurrency=1",
+        "ingestion.kafka.retry-backoff-ms=50"
+})
+class CanonicalEventListenerKafkaTest {
+
+    static final String TOPIC = "canonical-test";
+    static final String GROUP = "canonical-test-group";
+
+    @Configuration
+    @Import({
+            KafkaConsumerConfig.class,
+            CanonicalEventListener.class,
+            DbConcurrencyLimiter.class
+    })
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        IngestionService ingestionService() {
+            return mock(IngestionService.class);
+        }
+    }
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaTemplate<String, String> producer;
+
+    // Committed offset seen from inside the failing ingestBatch; asserted
+    // on the test thread, since a failed assertion inside the listener
+    // would only look like one more failed batch
+    private volatile Long offsetDuringFailedAttempt;
+
+    @BeforeEach
+    void setUp() {
+
+        reset(ingestionService);
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
+        producerFactory = new DefaultKafkaProducerFactory<>(props);
+        producer = new KafkaTemplate<>(producerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        producerFactory.destroy();
+    }
+
+    private String event(String eventId) throws Exception {
+
+        EventEnvelope env = new EventEnvelope();
+        env.setEventId(eventId);
+        env.setEventName("PAYMENT");
+        env.setEventPayload("{}");
+
+        return objectMapper.writeValueAsString(env);
+    }
+
+    private long committedOffset() throws Exception {
+
+        OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(
+                broker.getBrokersAsString(), GROUP, TOPIC, 0);
+
+        return offset == null ? 0 : offset.offset();
+    }
+
+    private void awaitCommittedOffset(long expected) throws Exception {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+
+        while (committedOffset() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(expected, committedOffset());
+    }
+
+    @Test
+    void batchIngestedThenCommitted_retriedWhileDbFails() throws Exception {
+
+        long start = committedOffset();
+
+        List<String> ingested = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        when(ingestionService.ingestBatch(anyList())).thenAnswer(inv -> {
+
+            List<EventEnvelope> envelopes = inv.getArgument(0);
+
+            // First delivery: the DB commit fails, nothing may be acked
+            if (attempts.incrementAndGet() == 1) {
+                offsetDuringFailedAttempt = committedOffset();
+                throw new IllegalStateException("DB unavailable");
+            }
+
+            List<EventResult> results = new ArrayList<>();
+            for (EventEnvelope env : envelopes) {
+                ingested.add(env.getEventId());
+                results.add(new EventResult(env.getEventId(), EventResult.SUCCESS, null, null));
+            }
+            return results;
+        });
+
+        producer.send(TOPIC, "K", event("EVT_1"));
+        producer.send(TOPIC, "K", "{not json");
+        producer.send(TOPIC, "K", event("EVT_2"));
+        producer.flush();
+
+        awaitCommittedOffset(start + 3);
+
+        assertEquals(start, offsetDuringFailedAttempt);
+        assertTrue(attempts.get() >= 2);
+        assertTrue(ingested.containsAll(List.of("EVT_1", "EVT_2")));
+        assertFalse(ingested.contains(null));
+    }
+}
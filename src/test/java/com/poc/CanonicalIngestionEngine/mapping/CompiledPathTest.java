@@ -0,0 +1,99 @@
+package com.poc.CanonicalIngestionEngine.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPathTest {
+
+    private JsonNode payload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        payload = new ObjectMapper().readTree("""
+                {
+                  "a": {"b": [{"c": 1}, {"c": "x"}]},
+                  "n": null,
+                  "k.y": 2
+                }
+                """);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "a.b[1].c",
+            "$.a.b[1].c",
+            "$.a.b[-1].c",
+            "$.a['b'][1]['c']"
+    })
+    void simplePathsWalkTheTree(String path) {
+
+        CompiledPath compiled = CompiledPath.compile(path);
+
+        assertTrue(compiled.isSimple());
+        assertEquals("x", ((JsonNode) compiled.read(payload)).asText());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "$.zz.q",
+            "$.a.b[5].c",
+            "$.a.b.c",
+            "$.a.b[0].c.d"
+    })
+    void missingPathsReturnNull(String path) {
+
+        CompiledPath compiled = CompiledPath.compile(path);
+
+        assertTrue(compiled.isSimple());
+        assertNull(compiled.read(payload));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "$.a.b[*].c",
+            "$..c",
+            "$.a.b[?(@.c == 1)]",
+            "$.a.b[0:1]"
+    })
+    void nonSimplePathsFallBackToJsonPath(String path) {
+
+        CompiledPath compiled = CompiledPath.compile(path);
+
+        assertFalse(compiled.isSimple());
+        assertTrue(compiled.isValid());
+        assertNotNull(compiled.read(payload));
+    }
+
+    @Test
+    void quotedNameMayContainDots() {
+
+        CompiledPath compiled = CompiledPath.compile("$['k.y']");
+
+        assertEquals(List.of("k.y"), compiled.getSegments());
+        assertEquals(2, ((JsonNode) compiled.read(payload)).asInt());
+    }
+
+    @Test
+    void rootPathReturnsPayload() {
+
+        assertSame(payload, CompiledPath.compile("$").read(payload));
+    }
+
+    @Test
+    void invalidPathNeverThrows() {
+
+        CompiledPath compiled = CompiledPath.compile("$.bad[");
+
+        assertFalse(compiled.isValid());
+        assertNull(compiled.read(payload));
+    }
+}
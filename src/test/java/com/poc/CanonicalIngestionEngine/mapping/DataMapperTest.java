@@ -2,6 +2,8 @@ package com.poc.CanonicalIngestionEngine.mapping;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -657,8 +659,9 @@ class DataMapperTest {
                 result.get("PARENT_ID")
         );
 
-        assertNotNull(
-                result.get("ID")
+        // Set by the insert flow from the table's generator
+        assertFalse(
+                result.containsKey("ID")
         );
     }
 
@@ -828,4 +831,107 @@ class DataMapperTest {
                 result.get("NAME")
         );
     }
-}
\ No newline at end of file
+
+    // =====================================================
+    // COMPILED PATHS
+    // =====================================================
+
+    @Test
+    void testWildcardPathFallsBackToJsonPath() throws Exception {
+
+        JsonNode payload =
+                objectMapper.readTree("""
+                {"items":[{"id":"A"},{"id":"B"}]}
+                """);
+
+        Map<String, String> mapping =
+                new HashMap<>();
+
+        mapping.put(
+                "IDS",
+                "$.items[*].id"
+        );
+
+        Map<String, Object> result =
+                dataMapper.map(
+                        payload,
+                        mapping,
+                        null,
+                        false
+                );
+
+        assertEquals(
+                "[\"A\",\"B\"]",
+                result.get("IDS")
+        );
+    }
+
+    @Test
+    void testPrecompileThenMap() throws Exception {
+
+        TableConfig table = new TableConfig();
+        table.setTableName("T");
+        table.setMapping(Map.of(
+                "TRAN_ID", "$.tranId",
+                "CITY", "$.addr.city",
+                "BAD", "$.bad["
+        ));
+
+        EventConfig config = new EventConfig();
+        config.setEventName("E");
+        config.setTables(List.of(table));
+
+        assertDoesNotThrow(() -> dataMapper.precompile(config));
+        assertDoesNotThrow(() -> dataMapper.precompile(null));
+
+        JsonNode payload =
+                objectMapper.readTree("""
+                {"tranId":"T1","addr":{"city":"X"}}
+                """);
+
+        Map<String, Object> result =
+                dataMapper.map(
+                        payload,
+                        table.getMapping(),
+                        null,
+                        false
+                );
+
+        assertEquals("T1", result.get("TRAN_ID"));
+        assertEquals("X", result.get("CITY"));
+        assertNull(result.get("BAD"));
+    }
+
+    @Test
+    void testDateColumnAcceptsMixedFormatsInSequence() throws Exception {
+
+        Map<String, String> mapping =
+                Map.of("TRAN_DT", "$.dt");
+
+        String[][] cases = {
+                {"2025-02-04T12:30:00", "2025-02-04 12:30:00.0"},
+                {"2025-02-04T12:30:00", "2025-02-04 12:30:00.0"},
+                {"04-02-2025 12:30:00", "2025-02-04 12:30:00.0"},
+                {"2025-02-04", "2025-02-04 00:00:00.0"},
+                {"2025-02-04T12:30:00Z", "2025-02-04 12:30:00.0"},
+                {"2025-02-04 12:30:00", "2025-02-04 12:30:00.0"}
+        };
+
+        for (String[] c : cases) {
+
+            JsonNode payload =
+                    objectMapper.createObjectNode().put("dt", c[0]);
+
+            Object value =
+                    dataMapper.map(payload, mapping, null, false)
+                            .get("TRAN_DT");
+
+            assertInstanceOf(Timestamp.class, value, c[0]);
+
+            // Instant values are UTC; compare local-only ones exactly
+            if (!c[0].endsWith("Z")) {
+                assertEquals(c[1], value.toString(), c[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.poc.CanonicalIngestionEngine.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathTrieTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String PAYLOAD = """
+            {
+              "originalRequestPayload": {"raw": [1, 2, {"deep": true}]},
+              "a": {"b": [{"c": 1}, {"c": "x", "d": 9}], "s": "t"},
+              "items": [{"id": 1}, {"id": 2}],
+              "tail": [5, 6, 7],
+              "id": "T1"
+            }
+            """;
+
+    private JsonNode project(PathTrie trie) throws Exception {
+        return trie.project(objectMapper.createParser(PAYLOAD));
+    }
+
+    private static PathTrie trie(String... paths) {
+
+        PathTrie trie = new PathTrie();
+
+        for (String path : paths) {
+            trie.add(CompiledPath.compile(path));
+        }
+
+        return trie;
+    }
+
+    @Test
+    void keepsOnlyReferencedValues() throws Exception {
+
+        JsonNode projected = project(trie("$.a.b[1].c", "id"));
+
+        assertEquals("T1", projected.get("id").asText());
+        assertEquals("x", projected.at("/a/b/1/c").asText());
+        assertFalse(projected.has("originalRequestPayload"));
+        assertFalse(projected.has("items"));
+        assertFalse(projected.at("/a/b/1").has("d"));
+        assertFalse(projected.get("a").has("s"));
+    }
+
+    @Test
+    void projectedTreeAnswersSamePathsAsFullTree() throws Exception {
+
+        String[] paths = {
+                "$.a.b[1].c",
+                "$.a.b[0].c",
+                "$.tail[-1]",
+                "$.items[*].id",
+                "$.missing.q"
+        };
+
+        JsonNode full = objectMapper.readTree(PAYLOAD);
+        JsonNode projected = project(trie(paths));
+
+        for (String path : paths) {
+
+            CompiledPath compiled = CompiledPath.compile(path);
+
+            assertEquals(
+                    String.valueOf(compiled.read(full)),
+                    String.valueOf(compiled.read(projected)),
+                    path
+            );
+        }
+    }
+
+    @Test
+    void wildcardKeepsSubtreeUnderPlainPrefix() throws Exception {
+
+        JsonNode projected = project(trie("$.items[*].id"));
+
+        assertEquals(2, projected.get("items").size());
+        assertFalse(projected.has("a"));
+    }
+
+    @Test
+    void deepScanKeepsWholeDocument() throws Exception {
+
+        JsonNode projected = project(trie("$..c"));
+
+        assertEquals(objectMapper.readTree(PAYLOAD), projected);
+    }
+
+    @Test
+    void emptyTrieProjectsEmptyObject() throws Exception {
+
+        JsonNode projected = project(new PathTrie());
+
+        assertTrue(projected.isObject());
+        assertEquals(0, projected.size());
+    }
+}
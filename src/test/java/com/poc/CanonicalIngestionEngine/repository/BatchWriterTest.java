@@ -0,0 +1,309 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Batched inserts through TransactionRepository.beginBatch() against H2
+ * in Oracle mode, inside real transactions.
+ */
+class BatchWriterTest {
+
+    private static final String PARENT_SQL =
+            "INSERT INTO SEND_TRANSACTIONS (TRAN_ID, STATUS) VALUES (:TRAN_ID, :STATUS)";
+
+    private static final String CHILD_SQL =
+            "INSERT INTO SEND_TRAN_DTL (TRAN_ID, AMT) VALUES (:TRAN_ID, :AMT)";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:batch_" + UUID.randomUUID()
+                        + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+                "sa",
+                "");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE SEND_TRANSACTIONS (
+                    TRAN_ID VARCHAR2(36) PRIMARY KEY,
+                    STATUS  VARCHAR2(10)
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE SEND_TRAN_DTL (
+                    TRAN_ID VARCHAR2(36) REFERENCES SEND_TRANSACTIONS (TRAN_ID),
+                    AMT     NUMBER(12,2)
+                )
+                """);
+
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private TransactionRepository repository(int maxRows) {
+        return repository(new NamedParameterJdbcTemplate(dataSource), maxRows);
+    }
+
+    private TransactionRepository repository(
+            NamedParameterJdbcTemplate namedJdbc,
+            int maxRows
+    ) {
+
+        // H2 has no USER_TAB_COLUMNS; no metadata means values pass as is
+        TableMetadataRegistry registry = mock(TableMetadataRegistry.class);
+        when(registry.table(anyString())).thenAnswer(inv ->
+                new TableMetadata(inv.getArgument(0), List.of()));
+
+        return new TransactionRepository(
+                namedJdbc,
+                registry,
+                null,
+                maxRows);
+    }
+
+    private static Map<String, Object> row(Object... keyValues) {
+
+        Map<String, Object> data = new HashMap<>();
+
+        for (int i = 0; i < keyValues.length; i += 2) {
+            data.put((String) keyValues[i], keyValues[i + 1]);
+        }
+
+        return data;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    @DisplayName("inserts are held until the flush and written inside the caller's transaction")
+    void inserts_heldUntilFlush_thenCommittedWithTransaction() {
+
+        TransactionRepository repository = repository(500);
+        JdbcTemplate txJdbc = new JdbcTemplate(dataSource);
+
+        tx.executeWithoutResult(status -> {
+
+            assertTrue(repository.beginBatch());
+
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T2", "STATUS", "INIT"));
+
+            assertEquals(0, txJdbc.queryForObject(
+                    "SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class));
+
+            repository.flushBatch();
+            repository.endBatch();
+
+            assertEquals(2, txJdbc.queryForObject(
+                    "SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class));
+        });
+
+        assertEquals(2, count("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    @DisplayName("a rolled-back transaction leaves no flushed rows behind")
+    void flushedRows_rollBackWithTransaction() {
+
+        TransactionRepository repository = repository(500);
+
+        tx.executeWithoutResult(status -> {
+
+            repository.beginBatch();
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+            repository.flushBatch();
+
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    @DisplayName("parents are flushed before children even when events interleave them")
+    void flush_writesParentTableBeforeChildTable() {
+
+        TransactionRepository repository = repository(500);
+
+        tx.executeWithoutResult(status -> {
+
+            repository.beginBatch();
+
+            for (String tranId : List.of("T1", "T2", "T3")) {
+                repository.insert(PARENT_SQL, row("TRAN_ID", tranId, "STATUS", "INIT"));
+                repository.insert(CHILD_SQL, row("TRAN_ID", tranId, "AMT", 10));
+            }
+
+            repository.flushBatch();
+            repository.endBatch();
+        });
+
+        assertEquals(3, count("SEND_TRANSACTIONS"));
+        assertEquals(3, count("SEND_TRAN_DTL"));
+    }
+
+    @Test
+    @DisplayName("events with new TRAN_IDs share one JDBC batch per table")
+    void newTranIds_probedWithoutFlush_oneBatchPerTable() {
+
+        NamedParameterJdbcTemplate namedJdbc =
+                spy(new NamedParameterJdbcTemplate(dataSource));
+        TransactionRepository repository = repository(namedJdbc, 500);
+
+        tx.executeWithoutResult(status -> {
+
+            assertTrue(repository.beginBatch());
+
+            // The insert flow per event: probe each table, then insert
+            for (String tranId : List.of("T1", "T2")) {
+
+                assertFalse(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", tranId));
+                repository.insert(PARENT_SQL, row("TRAN_ID", tranId, "STATUS", "INIT"));
+
+                assertFalse(repository.exists("SEND_TRAN_DTL", "TRAN_ID", tranId));
+                repository.insert(CHILD_SQL, row("TRAN_ID", tranId, "AMT", 10));
+            }
+
+            repository.flushBatch();
+            repository.endBatch();
+        });
+
+        ArgumentCaptor<SqlParameterSource[]> parents =
+                ArgumentCaptor.forClass(SqlParameterSource[].class);
+        ArgumentCaptor<SqlParameterSource[]> children =
+                ArgumentCaptor.forClass(SqlParameterSource[].class);
+
+        verify(namedJdbc, times(1)).batchUpdate(eq(PARENT_SQL), parents.capture());
+        verify(namedJdbc, times(1)).batchUpdate(eq(CHILD_SQL), children.capture());
+        assertEquals(2, parents.getValue().length);
+        assertEquals(2, children.getValue().length);
+
+        assertEquals(2, count("SEND_TRANSACTIONS"));
+        assertEquals(2, count("SEND_TRAN_DTL"));
+    }
+
+    @Test
+    @DisplayName("rows still pending at commit are flushed before it")
+    void pendingRows_flushedAtCommit() {
+
+        TransactionRepository repository = repository(500);
+
+        tx.executeWithoutResult(status -> {
+            repository.beginBatch();
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+        });
+
+        assertEquals(1, count("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    @DisplayName("max-rows pending rows trigger a flush")
+    void maxRows_flushesEarly() {
+
+        TransactionRepository repository = repository(2);
+        JdbcTemplate txJdbc = new JdbcTemplate(dataSource);
+
+        tx.executeWithoutResult(status -> {
+
+            repository.beginBatch();
+
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T2", "STATUS", "INIT"));
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T3", "STATUS", "INIT"));
+
+            assertEquals(2, txJdbc.queryForObject(
+                    "SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class));
+
+            repository.endBatch();
+        });
+
+        assertEquals(2, count("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    @DisplayName("exists() sees pending rows; other statements flush them first")
+    void pendingRows_visibleToExistsAndUpdates() {
+
+        TransactionRepository repository = repository(500);
+
+        tx.executeWithoutResult(status -> {
+
+            repository.beginBatch();
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+
+            assertTrue(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
+
+            repository.updateStatus("T1", "DONE");
+
+            repository.endBatch();
+        });
+
+        assertEquals("DONE", jdbcTemplate.queryForObject(
+                "SELECT STATUS FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'T1'",
+                String.class));
+    }
+
+    @Test
+    @DisplayName("a duplicate key fails the flush instead of being skipped")
+    void duplicateKey_failsFlush() {
+
+        TransactionRepository repository = repository(500);
+
+        tx.executeWithoutResult(status -> {
+
+            repository.beginBatch();
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+            repository.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+
+            assertThrows(IllegalStateException.class, repository::flushBatch);
+
+            repository.endBatch();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    @DisplayName("no batch outside a transaction or with max-rows 0")
+    void beginBatch_needsTransactionAndPositiveMaxRows() {
+
+        assertFalse(repository(500).beginBatch());
+
+        TransactionRepository disabled = repository(0);
+
+        tx.executeWithoutResult(status -> {
+
+            assertFalse(disabled.beginBatch());
+
+            disabled.insert(PARENT_SQL, row("TRAN_ID", "T1", "STATUS", "INIT"));
+
+            assertEquals(1, new JdbcTemplate(dataSource).queryForObject(
+                    "SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class));
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnBinderTest {
+
+    @Test
+    @DisplayName("VARCHAR2 keeps date-looking strings as text")
+    void varchar_neverConverts() {
+        ColumnBinder binder = ColumnBinder.of("VARCHAR2", 20, null, null);
+
+        assertEquals("2025-01-15", binder.bind("2025-01-15"));
+        assertEquals(20, binder.getMaxLength());
+    }
+
+    @Test
+    @DisplayName("DATE binds date-only as Date and date-time as Timestamp")
+    void date_convertsByShape() {
+        ColumnBinder binder = ColumnBinder.of("DATE", 7, null, null);
+
+        assertInstanceOf(Date.class, binder.bind("1990-01-01"));
+        assertInstanceOf(Timestamp.class, binder.bind("2025-01-15T08:00:00"));
+        assertInstanceOf(Timestamp.class, binder.bind("2025-01-15 08:00:00"));
+        assertNull(binder.getMaxLength());
+    }
+
+    @Test
+    @DisplayName("TIMESTAMP binds date-only as midnight Timestamp")
+    void timestamp_dateOnlyBecomesTimestamp() {
+        ColumnBinder binder = ColumnBinder.of("TIMESTAMP(6)", 11, null, 6);
+
+        assertEquals(
+                Timestamp.valueOf("2025-01-15 00:00:00"),
+                binder.bind("2025-01-15"));
+    }
+
+    @Test
+    @DisplayName("NUMBER binds Integer for small integral, BigDecimal otherwise")
+    void number_convertsByPrecisionAndScale() {
+        assertEquals(42, ColumnBinder.of("NUMBER", 22, 5, 0).bind("42"));
+        assertEquals(
+                new BigDecimal("10.50"),
+                ColumnBinder.of("NUMBER", 22, 12, 2).bind("10.50"));
+        assertEquals(
+                new BigDecimal("12345678901"),
+                ColumnBinder.of("NUMBER", 22, null, null).bind("12345678901"));
+    }
+
+    @Test
+    @DisplayName("Unconvertible strings and typed values pass through unchanged")
+    void mismatchPassesThrough() {
+        assertEquals("abc", ColumnBinder.of("NUMBER", 22, 5, 0).bind("abc"));
+        assertEquals("2025-00-01", ColumnBinder.of("DATE", 7, null, null).bind("2025-00-01"));
+        assertEquals(7L, ColumnBinder.of("NUMBER", 22, 5, 0).bind(7L));
+        assertNull(ColumnBinder.of("DATE", 7, null, null).bind(null));
+    }
+}
@@ -0,0 +1,119 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MERGE upsert from DynamicSqlBuilder executed through
+ * TransactionRepository against H2 in Oracle mode.
+ */
+class MergeUpsertH2Test {
+
+    private JdbcTemplate jdbcTemplate;
+    private DynamicSqlBuilder sqlBuilder;
+    private TransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:merge_" + UUID.randomUUID()
+                        + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+                "sa",
+                "");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE SEND_TRANSACTIONS (
+                    ID      VARCHAR2(36),
+                    TRAN_ID VARCHAR2(36) PRIMARY KEY,
+                    STATUS  VARCHAR2(10),
+                    REF     VARCHAR2(20),
+                    AMT     NUMBER(12,2)
+                )
+                """);
+
+        // H2 has no USER_TAB_COLUMNS; feed the same metadata directly
+        TableMetadataRegistry registry = mock(TableMetadataRegistry.class);
+        when(registry.table(anyString())).thenReturn(new TableMetadata(
+                "SEND_TRANSACTIONS",
+                List.of(
+                        new ColumnMetadata("ID", "VARCHAR2", 36, null, null, true, false),
+                        new ColumnMetadata("TRAN_ID", "VARCHAR2", 36, null, null, false, true),
+                        new ColumnMetadata("STATUS", "VARCHAR2", 10, null, null, true, false),
+                        new ColumnMetadata("REF", "VARCHAR2", 20, null, null, true, false),
+                        new ColumnMetadata("AMT", "NUMBER", 22, 12, 2, true, false))));
+
+        sqlBuilder = new DynamicSqlBuilder(jdbcTemplate, registry);
+        repository = new TransactionRepository(
+                new NamedParameterJdbcTemplate(dataSource), registry);
+    }
+
+    private void merge(Map<String, Object> data) {
+
+        SqlTemplate template = sqlBuilder.buildMergeTemplate(
+                "SEND_TRANSACTIONS", data.keySet(), "TRAN_ID", true);
+
+        repository.merge(template, data);
+    }
+
+    private static Map<String, Object> row(Object... keyValues) {
+
+        Map<String, Object> data = new HashMap<>();
+
+        for (int i = 0; i < keyValues.length; i += 2) {
+            data.put((String) keyValues[i], keyValues[i + 1]);
+        }
+
+        return data;
+    }
+
+    @Test
+    @DisplayName("MERGE inserts a new TRAN_ID")
+    void merge_newKey_inserts() {
+
+        merge(row("ID", "id-1", "TRAN_ID", "T1", "STATUS", "INIT", "AMT", "10.50"));
+
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'T1'");
+
+        assertEquals("id-1", stored.get("ID"));
+        assertEquals("INIT", stored.get("STATUS"));
+        assertEquals(0, new BigDecimal("10.50").compareTo((BigDecimal) stored.get("AMT")));
+        assertNull(stored.get("REF"));
+    }
+
+    @Test
+    @DisplayName("MERGE on an existing TRAN_ID fills only null columns")
+    void merge_existingKey_fillsNullsOnly() {
+
+        merge(row("ID", "id-1", "TRAN_ID", "T2", "STATUS", "INIT"));
+        merge(row("ID", "id-2", "TRAN_ID", "T2", "STATUS", "SETTLED",
+                "REF", "R-9", "AMT", "5"));
+
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'T2'");
+
+        assertEquals("id-1", stored.get("ID"));
+        assertEquals("INIT", stored.get("STATUS"));
+        assertEquals("R-9", stored.get("REF"));
+        assertEquals(0, BigDecimal.valueOf(5).compareTo((BigDecimal) stored.get("AMT")));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class));
+    }
+}
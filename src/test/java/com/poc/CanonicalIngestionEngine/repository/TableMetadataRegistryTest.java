@@ -0,0 +1,171 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableMetadataRegistryTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EventConfigLoader eventConfigLoader;
+
+    private TableMetadataRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TableMetadataRegistry(jdbcTemplate, eventConfigLoader);
+    }
+
+    private static EventConfig config(String... tableNames) {
+
+        EventConfig config = new EventConfig();
+        config.setEventName("TEST");
+
+        List<TableConfig> tables = new ArrayList<>();
+
+        for (String name : tableNames) {
+            TableConfig table = new TableConfig();
+            table.setTableName(name);
+            tables.add(table);
+        }
+
+        config.setTables(tables);
+        return config;
+    }
+
+    /**
+     * Makes the metadata query return the given rows of
+     * { TABLE_NAME, COLUMN_NAME, DATA_TYPE, DATA_LENGTH, NULLABLE, PK }.
+     */
+    private void stubMetadata(Object[]... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("TABLE_NAME")).thenReturn((String) row[0]);
+                when(rs.getString("COLUMN_NAME")).thenReturn((String) row[1]);
+                when(rs.getString("DATA_TYPE")).thenReturn((String) row[2]);
+                when(rs.getInt("DATA_LENGTH")).thenReturn((Integer) row[3]);
+                when(rs.getString("NULLABLE")).thenReturn((String) row[4]);
+                when(rs.getString("PK")).thenReturn((String) row[5]);
+                when(rs.wasNull()).thenReturn(false, true, true);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(
+                contains("USER_TAB_COLUMNS"),
+                any(Map.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("preload() loads every configured table in one query")
+    @SuppressWarnings("unchecked")
+    void preload_singleQueryForAllConfiguredTables() {
+        when(eventConfigLoader.getAllConfigs()).thenReturn(List.of(
+                config("SEND_TRANSACTIONS", "SEND_TRAN_DTL"),
+                config("send_transactions")));
+        stubMetadata(
+                new Object[]{"SEND_TRANSACTIONS", "ID",      "VARCHAR2", 36, "N", "Y"},
+                new Object[]{"SEND_TRANSACTIONS", "TRAN_ID", "VARCHAR2", 36, "N", "N"},
+                new Object[]{"SEND_TRANSACTIONS", "STATUS",  "VARCHAR2", 10, "Y", "N"},
+                new Object[]{"SEND_TRAN_DTL",     "TRAN_ID", "VARCHAR2", 36, "N", "N"});
+
+        registry.preload();
+
+        ArgumentCaptor<Map> params = ArgumentCaptor.forClass(Map.class);
+        verify(jdbcTemplate, times(1)).query(
+                anyString(), params.capture(), any(RowCallbackHandler.class));
+        assertEquals(2, ((Collection<String>) params.getValue().get("tableNames")).size());
+
+        TableMetadata main = registry.table("send_transactions");
+        assertEquals(List.of("ID", "TRAN_ID", "STATUS"), main.getColumnNames());
+        assertEquals(List.of("ID"), main.getPrimaryKey());
+        assertTrue(main.getColumn("status").isNullable());
+        assertFalse(main.getColumn("TRAN_ID").isNullable());
+        assertEquals(10, main.getMaxLengths().get("STATUS"));
+        assertTrue(registry.table("SEND_TRAN_DTL").hasColumn("tran_id"));
+
+        assertEquals(1, registry.getVersion());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("table() loads an unconfigured table once, on first use")
+    void table_unknownTableLoadedLazilyOnce() {
+        when(eventConfigLoader.getAllConfigs()).thenReturn(List.of());
+        stubMetadata(
+                new Object[]{"OTHER", "C", "VARCHAR2", 5, "Y", "N"});
+
+        registry.preload();
+
+        assertTrue(registry.table("OTHER").hasColumn("C"));
+        assertTrue(registry.table("other").exists());
+
+        verify(jdbcTemplate, times(1)).query(
+                anyString(), any(Map.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("table() returns empty metadata for a missing table")
+    void table_missingTableHasNoColumns() {
+        stubMetadata();
+
+        TableMetadata missing = registry.table("NOPE");
+
+        assertFalse(missing.exists());
+        assertFalse(missing.hasColumn("ID"));
+        assertTrue(missing.getBinders().isEmpty());
+    }
+
+    @Test
+    @DisplayName("refresh() bumps the version")
+    void refresh_bumpsVersion() {
+        when(eventConfigLoader.getAllConfigs()).thenReturn(List.of(config("T")));
+        stubMetadata(new Object[]{"T", "C", "VARCHAR2", 5, "Y", "N"});
+
+        registry.preload();
+        long before = registry.getVersion();
+
+        registry.refresh();
+
+        assertEquals(before + 1, registry.getVersion());
+        assertTrue(registry.table("T").hasColumn("C"));
+    }
+
+    @Test
+    @DisplayName("preload() tolerates an unavailable dictionary")
+    void preload_failureFallsBackToLazy() {
+        when(eventConfigLoader.getAllConfigs()).thenReturn(List.of(config("T")));
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(
+                        anyString(), any(Map.class), any(RowCallbackHandler.class));
+
+        assertDoesNotThrow(() -> registry.preload());
+        assertEquals(0, registry.getVersion());
+    }
+}
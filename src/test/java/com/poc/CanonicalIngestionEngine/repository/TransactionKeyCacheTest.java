@@ -0,0 +1,173 @@
+package com.poc.CanonicalIngestionEngine.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionKeyCacheTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private TransactionKeyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TransactionKeyCache(100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Map<String, Object> row(Object... kv) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) {
+            row.put((String) kv[i], kv[i + 1]);
+        }
+        return row;
+    }
+
+    /** Ends the current test transaction with the given status. */
+    private static void complete(int status) {
+        List<TransactionSynchronization> syncs =
+                TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(s -> s.afterCompletion(status));
+    }
+
+    private boolean containsOnOtherThread(String tranId) {
+        return CompletableFuture.supplyAsync(() -> cache.contains(tranId)).join();
+    }
+
+    // =====================================================================
+    // Cache semantics
+    // =====================================================================
+
+    @Test
+    void add_thenContains() {
+        assertFalse(cache.contains("T1"));
+
+        cache.add("T1");
+
+        assertTrue(cache.contains("T1"));
+        assertEquals(1, cache.size());
+    }
+
+    // =====================================================================
+    // Transaction scope
+    // =====================================================================
+
+    @Test
+    void transactionalAdd_visibleToOwnThread_publishedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.add("T1");
+
+        assertTrue(cache.contains("T1"));
+        assertFalse(containsOnOtherThread("T1"));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertTrue(containsOnOtherThread("T1"));
+    }
+
+    @Test
+    void transactionalAdd_rollback_isNotPublished() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.add("T1");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(cache.contains("T1"));
+    }
+
+    @Test
+    void rollbackTo_dropsOnlyKeysAddedAfterMark() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.add("T1");
+        int mark = cache.mark();
+        cache.add("T2");
+        cache.add("T1");
+
+        cache.rollbackTo(mark);
+
+        assertTrue(cache.contains("T1"));
+        assertFalse(cache.contains("T2"));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertTrue(cache.contains("T1"));
+        assertFalse(cache.contains("T2"));
+    }
+
+    // =====================================================================
+    // Repository integration
+    // =====================================================================
+
+    @Test
+    void repository_insertThenExists_servedFromCache() {
+        TransactionRepository repository =
+                new TransactionRepository(jdbcTemplate, null, cache);
+        when(jdbcTemplate.update(anyString(), anyMap())).thenReturn(1);
+
+        repository.insert(
+                "INSERT INTO SEND_TRANSACTIONS (TRAN_ID, STATUS) VALUES (:TRAN_ID, :STATUS)",
+                row("TRAN_ID", "T1", "STATUS", "INIT"));
+
+        assertTrue(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
+        verify(jdbcTemplate, never()).query(anyString(), anyMap(), any(ResultSetExtractor.class));
+    }
+
+    @Test
+    void repository_existsFoundInDb_isCached() {
+        TransactionRepository repository =
+                new TransactionRepository(jdbcTemplate, null, cache);
+        when(jdbcTemplate.query(anyString(), anyMap(), any(ResultSetExtractor.class)))
+                .thenReturn(true);
+
+        assertTrue(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
+        assertTrue(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
+
+        verify(jdbcTemplate, times(1)).query(anyString(), anyMap(), any(ResultSetExtractor.class));
+    }
+
+    @Test
+    void repository_otherTables_alwaysQueryDb() {
+        TransactionRepository repository =
+                new TransactionRepository(jdbcTemplate, null, cache);
+        when(jdbcTemplate.update(anyString(), anyMap())).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), anyMap(), any(ResultSetExtractor.class)))
+                .thenReturn(false);
+
+        repository.insert(
+                "INSERT INTO SEND_TRAN_DTL (TRAN_ID) VALUES (:TRAN_ID)",
+                row("TRAN_ID", "T1"));
+
+        assertFalse(repository.exists("SEND_TRAN_DTL", "TRAN_ID", "T1"));
+        assertFalse(cache.contains("T1"));
+    }
+}
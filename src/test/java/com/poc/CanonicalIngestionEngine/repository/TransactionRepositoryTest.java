@@ -8,14 +8,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.sql.Date;
+import java.sql.ResultSet;
 import java.sql.Timestamp;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -181,118 +182,114 @@ class TransactionRepositoryTest {
     // =====================================================================
 
     @Test
-    @DisplayName("exists() returns true when count > 0")
+    @DisplayName("exists() returns true when a row is found")
     void exists_countGreaterThanZero_returnsTrue() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
-                .thenReturn(1);
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
+                .thenReturn(true);
 
         assertTrue(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
     }
 
     @Test
-    @DisplayName("exists() returns false when count == 0")
+    @DisplayName("exists() returns false when no row is found")
     void exists_countZero_returnsFalse() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
-                .thenReturn(0);
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
+                .thenReturn(false);
 
         assertFalse(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
     }
 
     @Test
-    @DisplayName("exists() returns false when count is null")
+    @DisplayName("exists() returns false when the probe returns null")
     void exists_countNull_returnsFalse() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
                 .thenReturn(null);
 
         assertFalse(repository.exists("SEND_TRANSACTIONS", "TRAN_ID", "T1"));
     }
 
     // =====================================================================
-    // FIND TRANSACTION
+    // FIND ALL RELATED DATA
     // =====================================================================
 
     @Test
-    @DisplayName("findTransaction() returns first row when result is non-empty")
-    void findTransaction_nonEmpty_returnsFirstRow() {
-        Map<String, Object> row = Map.of("TRAN_ID", "TXN-001");
+    @DisplayName("findAllRelatedData() returns map with all four table keys")
+    void findAllRelatedData_returnsFourKeys() {
         when(jdbcTemplate.queryForList(anyString(), any(Map.class)))
-                .thenReturn(List.of(row));
+                .thenReturn(List.of());
 
-        Map<String, Object> result = repository.findTransaction("TXN-001");
+        Map<String, List<Map<String, Object>>> result =
+                repository.findAllRelatedData("TXN-001");
 
-        assertNotNull(result);
-        assertEquals("TXN-001", result.get("TRAN_ID"));
+        assertEquals(4, result.size());
+        assertTrue(result.containsKey("SEND_TRANSACTIONS"));
+        assertTrue(result.containsKey("SEND_TRAN_DTL"));
+        assertTrue(result.containsKey("SEND_RECIP_DTL"));
+        assertTrue(result.containsKey("SEND_TRAN_ADDR_DTL"));
     }
 
     @Test
-    @DisplayName("findTransaction() returns null when result is empty")
-    void findTransaction_empty_returnsNull() {
+    @DisplayName("findAllRelatedData() issues exactly four SQL queries")
+    void findAllRelatedData_issuesFourQueries() {
         when(jdbcTemplate.queryForList(anyString(), any(Map.class)))
-                .thenReturn(Collections.emptyList());
+                .thenReturn(List.of());
 
-        assertNull(repository.findTransaction("TXN-404"));
+        repository.findAllRelatedData("TXN-001");
+
+        verify(jdbcTemplate, times(4)).queryForList(anyString(), any(Map.class));
     }
 
     // =====================================================================
-    // FIND COLUMN VALUE
+    // LOCK TRANSACTION
     // =====================================================================
 
     @Test
-    @DisplayName("findColumnValue() returns first result when present")
-    void findColumnValue_present_returnsValue() {
-        when(jdbcTemplate.query(
-                anyString(), any(Map.class), any(RowMapper.class)))
-                .thenReturn(List.of("ACTIVE"));
+    @DisplayName("lockTransaction() selects only the needed columns FOR UPDATE")
+    void lockTransaction_selectsNeededColumnsForUpdate() {
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.queryForList(sqlCaptor.capture(), any(Map.class)))
+                .thenReturn(List.of(Map.of("TRAN_ID", "T1", "STATUS", "INIT")));
 
-        Object result = repository.findColumnValue(
-                "SEND_TRANSACTIONS", "TRAN_ID", "TXN-001", "STATUS");
+        TransactionSnapshot snapshot = repository.lockTransaction(
+                "T1", List.of("status", "SW_SER_NUM", "BAD COL; --"));
 
-        assertEquals("ACTIVE", result);
+        assertEquals(
+                "SELECT TRAN_ID, STATUS, SW_SER_NUM FROM SEND_TRANSACTIONS"
+                        + " WHERE TRAN_ID = :tranId FOR UPDATE",
+                sqlCaptor.getValue());
+        assertEquals("INIT", snapshot.get("status"));
+        assertTrue(snapshot.isEmpty("SW_SER_NUM"));
     }
 
     @Test
-    @DisplayName("findColumnValue() returns null when result is empty")
-    void findColumnValue_empty_returnsNull() {
-        when(jdbcTemplate.query(
-                anyString(), any(Map.class), any(RowMapper.class)))
-                .thenReturn(Collections.emptyList());
-
-        assertNull(repository.findColumnValue(
-                "SEND_TRANSACTIONS", "TRAN_ID", "TXN-404", "STATUS"));
-    }
-
-    // =====================================================================
-    // FIND ALL RELATED DATA
-    // =====================================================================
-
-    @Test
-    @DisplayName("findAllRelatedData() returns map with all four table keys")
-    void findAllRelatedData_returnsFourKeys() {
+    @DisplayName("lockTransaction() returns null when the row does not exist")
+    void lockTransaction_missingRow_returnsNull() {
         when(jdbcTemplate.queryForList(anyString(), any(Map.class)))
                 .thenReturn(List.of());
 
-        Map<String, List<Map<String, Object>>> result =
-                repository.findAllRelatedData("TXN-001");
-
-        assertEquals(4, result.size());
-        assertTrue(result.containsKey("SEND_TRANSACTIONS"));
-        assertTrue(result.containsKey("SEND_TRAN_DTL"));
-        assertTrue(result.containsKey("SEND_RECIP_DTL"));
-        assertTrue(result.containsKey("SEND_TRAN_ADDR_DTL"));
+        assertNull(repository.lockTransaction("T404", List.of("STATUS")));
     }
 
     @Test
-    @DisplayName("findAllRelatedData() issues exactly four SQL queries")
-    void findAllRelatedData_issuesFourQueries() {
+    @DisplayName("lockTransaction() loads related tables only when asked, once")
+    void lockTransaction_relatedRowsAreLazy() {
         when(jdbcTemplate.queryForList(anyString(), any(Map.class)))
-                .thenReturn(List.of());
+                .thenReturn(List.of(Map.of("TRAN_ID", "T1")));
 
-        repository.findAllRelatedData("TXN-001");
+        TransactionSnapshot snapshot =
+                repository.lockTransaction("T1", List.of("STATUS"));
 
-        verify(jdbcTemplate, times(4)).queryForList(anyString(), any(Map.class));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), any(Map.class));
+
+        snapshot.getRelated("SEND_TRAN_DTL");
+        snapshot.getRelated("send_tran_dtl");
+
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), any(Map.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.getRelated("OTHER_TABLE"));
     }
 
     // =====================================================================
@@ -405,30 +402,30 @@ class TransactionRepositoryTest {
     // =====================================================================
 
     @Test
-    @DisplayName("columnExists() returns true when count is 1")
+    @DisplayName("columnExists() returns true when a row is found")
     void columnExists_returnsTrue() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
-                .thenReturn(1);
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
+                .thenReturn(true);
 
         assertTrue(repository.columnExists("SEND_TRANSACTIONS", "STATUS"));
     }
 
     @Test
-    @DisplayName("columnExists() returns false when count is 0")
+    @DisplayName("columnExists() returns false when no row is found")
     void columnExists_zero_returnsFalse() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
-                .thenReturn(0);
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
+                .thenReturn(false);
 
         assertFalse(repository.columnExists("SEND_TRANSACTIONS", "BAD_COL"));
     }
 
     @Test
-    @DisplayName("columnExists() returns false when count is null")
+    @DisplayName("columnExists() returns false when the probe returns null")
     void columnExists_null_returnsFalse() {
-        when(jdbcTemplate.queryForObject(
-                anyString(), any(Map.class), eq(Integer.class)))
+        when(jdbcTemplate.query(
+                anyString(), any(Map.class), any(ResultSetExtractor.class)))
                 .thenReturn(null);
 
         assertFalse(repository.columnExists("SEND_TRANSACTIONS", "BAD_COL"));
@@ -724,4 +721,86 @@ class TransactionRepositoryTest {
         assertEquals(100.0,              normalised.get("AMT"));
         assertEquals("Hello",            normalised.get("LABEL"));
     }
-}
\ No newline at end of file
+
+    // =====================================================================
+    // Metadata-driven binding (USER_TAB_COLUMNS)
+    // =====================================================================
+
+    /**
+     * Makes the USER_TAB_COLUMNS query return the given rows of
+     * { COLUMN_NAME, DATA_TYPE, DATA_LENGTH, DATA_PRECISION, DATA_SCALE }.
+     */
+    private void stubColumnMetadata(Object[]... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("COLUMN_NAME")).thenReturn((String) row[0]);
+                when(rs.getString("DATA_TYPE")).thenReturn((String) row[1]);
+                when(rs.getInt("DATA_LENGTH")).thenReturn(
+                        row[2] == null ? 0 : (Integer) row[2]);
+                when(rs.getInt("DATA_PRECISION")).thenReturn(
+                        row[3] == null ? 0 : (Integer) row[3]);
+                when(rs.getInt("DATA_SCALE")).thenReturn(
+                        row[4] == null ? 0 : (Integer) row[4]);
+                when(rs.wasNull()).thenReturn(
+                        row[2] == null, row[3] == null, row[4] == null);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(
+                contains("USER_TAB_COLUMNS"),
+                any(Map.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("insert() binds by column type and stops guessing for VARCHAR2")
+    void insert_bindsByColumnMetadata() {
+        stubColumnMetadata(
+                new Object[]{"REF",    "VARCHAR2",     5,  null, null},
+                new Object[]{"CRT_TS", "TIMESTAMP(6)", 11, null, 6},
+                new Object[]{"DOB",    "DATE",         7,  null, null},
+                new Object[]{"CNT",    "NUMBER",       22, 5,    0},
+                new Object[]{"AMT",    "NUMBER",       22, 12,   2}
+        );
+
+        ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+        when(jdbcTemplate.update(anyString(), captor.capture())).thenReturn(1);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("REF",    "2025-01-15T08:00:00");
+        params.put("CRT_TS", "2025-01-15");
+        params.put("DOB",    "1990-01-01");
+        params.put("CNT",    "42");
+        params.put("AMT",    "10.50");
+
+        repository.insert(
+                "INSERT INTO TYPED (REF,CRT_TS,DOB,CNT,AMT) "
+                        + "VALUES (:REF,:CRT_TS,:DOB,:CNT,:AMT)",
+                params);
+
+        Map<?, ?> bound = captor.getValue();
+        assertEquals("2025-",                      bound.get("REF"));
+        assertInstanceOf(Timestamp.class,           bound.get("CRT_TS"));
+        assertInstanceOf(Date.class,                bound.get("DOB"));
+        assertEquals(42,                            bound.get("CNT"));
+        assertEquals(new java.math.BigDecimal("10.50"), bound.get("AMT"));
+    }
+
+    @Test
+    @DisplayName("insert() loads column metadata once per table")
+    void insert_columnMetadataLoadedOnce() {
+        stubColumnMetadata(
+                new Object[]{"C", "VARCHAR2", 10, null, null});
+        when(jdbcTemplate.update(anyString(), any(Map.class))).thenReturn(1);
+
+        repository.insert("INSERT INTO ONCE (C) VALUES (:C)", Map.of("C", "a"));
+        repository.insert("INSERT INTO ONCE (C) VALUES (:C)", Map.of("C", "b"));
+
+        verify(jdbcTemplate, times(1)).query(
+                contains("USER_TAB_COLUMNS"),
+                any(Map.class),
+                any(RowCallbackHandler.class));
+    }
+}
@@ -1,6 +1,13 @@
 package com.poc.CanonicalIngestionEngine.rules;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.EventPlan;
+import com.poc.CanonicalIngestionEngine.config.PayloadExtractionMode;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
 import org.jeasy.rules.core.DefaultRulesEngine;
@@ -8,12 +15,14 @@ import org.jeasy.rules.mvel.MVELRule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -392,6 +401,55 @@ class RuleEngineTest {
         assertFalse(envelope.isIgnore());
     }
 
+    @Test
+    @DisplayName("Should expose the parsed payload as a fact for tree extraction")
+    void testParsedPayloadFact() {
+        EventEnvelope envelope = createEventEnvelope("AVS");
+
+        ruleEngine.apply(parsedEvent(envelope, PayloadExtractionMode.TREE));
+
+        assertNotNull(firedFacts().get("payload"));
+    }
+
+    @Test
+    @DisplayName("Should not expose the projected payload as a fact for streaming extraction")
+    void testNoPayloadFactForStreaming() {
+        EventEnvelope envelope = createEventEnvelope("AVS");
+
+        ruleEngine.apply(parsedEvent(envelope, PayloadExtractionMode.STREAMING));
+
+        Facts facts = firedFacts();
+        assertNull(facts.get("payload"));
+        assertEquals(envelope.getEventPayload(), facts.get("eventPayload"));
+    }
+
+    private ParsedEvent parsedEvent(EventEnvelope envelope, PayloadExtractionMode mode) {
+        EventConfig config = new EventConfig();
+        config.setEventName(envelope.getEventName());
+        config.setPayloadExtraction(mode);
+
+        Rules rules = new Rules();
+        rules.register(new MVELRule()
+                .name("Log Only")
+                .when("eventName == 'AVS'")
+                .then("System.out.println('AVS event detected')"));
+        when(ruleLoader.getRules("AVS")).thenReturn(rules);
+
+        return new ParsedEvent(
+                envelope,
+                MissingNode.getInstance(),
+                JsonNodeFactory.instance.objectNode().put("test", "data"),
+                null,
+                "I",
+                EventPlan.compile(config, null, null));
+    }
+
+    private Facts firedFacts() {
+        ArgumentCaptor<Facts> facts = ArgumentCaptor.forClass(Facts.class);
+        verify(rulesEngine).fire(any(Rules.class), facts.capture());
+        return facts.getValue();
+    }
+
     // Helper method
     private EventEnvelope createEventEnvelope(String eventName) {
         EventEnvelope envelope = new EventEnvelope();
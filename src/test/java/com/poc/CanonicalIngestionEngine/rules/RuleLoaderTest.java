@@ -1,16 +1,20 @@
 package com.poc.CanonicalIngestionEngine.rules;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.ConfigChanges;
+import com.poc.CanonicalIngestionEngine.config.ConfigSnapshot;
 import com.sun.net.httpserver.HttpServer;
 import org.jeasy.rules.api.Rule;
 import org.jeasy.rules.api.Rules;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -535,6 +539,67 @@ class RuleLoaderTest {
         assertEquals(1, countRules(rules)); // still one rule, but with 3 actions
     }
 
+    // =====================================================================
+    // 21. init() — COLD START WRITES SNAPSHOT
+    // =====================================================================
+
+    @Test
+    @DisplayName("init() writes a snapshot of the fetched rule sources")
+    void init_coldStart_writesSnapshot(@TempDir Path dir) {
+        ReflectionTestUtils.setField(ruleLoader, "configServerUrl", "http://localhost:" + serverPort);
+        ReflectionTestUtils.setField(ruleLoader, "snapshotDir", dir.toString());
+
+        ruleLoader.init();
+
+        Map<String, Map<String, Object>> snapshot =
+                ConfigSnapshot.in(dir.toString(), "rules.json").read();
+        assertTrue(snapshot.containsKey("ais-rules"));
+        assertEquals("RULE_AIS-RULES", snapshot.get("ais-rules").get("rules[0].name"));
+    }
+
+    // =====================================================================
+    // 22. init() — WARM START FROM SNAPSHOT, SERVER DOWN
+    // =====================================================================
+
+    @Test
+    @DisplayName("init() boots rules from the snapshot without the config server")
+    void init_warmStart_loadsFromSnapshot(@TempDir Path dir) {
+        ConfigSnapshot.in(dir.toString(), "rules.json").write(Map.of(
+                "payment-rules", Map.of(
+                        "rules[0].name", "FROM_SNAPSHOT",
+                        "rules[0].condition", "true",
+                        "rules[0].actions[0]", "System.out.println(\"ok\")"
+                )));
+        ReflectionTestUtils.setField(ruleLoader, "configServerUrl", "http://localhost:1");
+        ReflectionTestUtils.setField(ruleLoader, "snapshotDir", dir.toString());
+
+        ruleLoader.init();
+
+        assertEquals(Set.of("PAYMENT"), ruleLoader.getLoadedEventTypes());
+        assertEquals("FROM_SNAPSHOT",
+                ruleLoader.getRules("PAYMENT").iterator().next().getName());
+    }
+
+    // =====================================================================
+    // 23. reload() — SWAPS IN A NEW MAP, SKIPS UNCHANGED FILES
+    // =====================================================================
+
+    @Test
+    @DisplayName("reload() publishes a new rules map and rebuilds nothing when unchanged")
+    void reload_swapsMap_andSkipsUnchangedFiles(@TempDir Path dir) {
+        ReflectionTestUtils.setField(ruleLoader, "configServerUrl", "http://localhost:" + serverPort);
+        ReflectionTestUtils.setField(ruleLoader, "snapshotDir", dir.toString());
+        Set<String> before = ruleLoader.getLoadedEventTypes();
+
+        ConfigChanges first = ruleLoader.reload();
+        Rules ais = ruleLoader.getRules("AIS");
+
+        assertTrue(first.getChanged().contains("AIS"));
+        assertTrue(before.isEmpty(), "published map must be a new instance");
+        assertTrue(ruleLoader.reload().isEmpty());
+        assertSame(ais, ruleLoader.getRules("AIS"));
+    }
+
     // ─────────────────────────────────────────────────────────────────────
     // HELPERS
     // ─────────────────────────────────────────────────────────────────────
@@ -0,0 +1,228 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.InvalidEventException;
+import com.poc.CanonicalIngestionEngine.service.AsyncIngestionService.QueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncIngestionServiceTest {
+
+    @Mock
+    private IngestionService ingestionService;
+
+    private AsyncIngestionService async;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (async != null) {
+            async.shutdown();
+        }
+    }
+
+    private static EventEnvelope envelope(String eventId) {
+        EventEnvelope env = new EventEnvelope();
+        env.setEventId(eventId);
+        return env;
+    }
+
+    private EventResult awaitDone(String receiptId) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (System.nanoTime() < deadline) {
+            EventResult result = async.getReceipt(receiptId);
+            if (result != null && !EventResult.PENDING.equals(result.getStatus())) {
+                return result;
+            }
+            Thread.sleep(5);
+        }
+
+        return fail("Receipt " + receiptId + " still pending");
+    }
+
+    @Test
+    void receipt_pendingThenSuccess() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 1, 10, 100);
+
+        EventEnvelope env = envelope("EVT_1");
+        when(ingestionService.parse(env))
+                .thenReturn(new ParsedEvent(env, null, null, "TXN_1", "A"));
+
+        String receiptId = async.submit(env);
+
+        EventResult result = awaitDone(receiptId);
+
+        assertEquals(EventResult.SUCCESS, result.getStatus());
+        assertEquals("TXN_1", result.getTransactionId());
+        verify(ingestionService).ingest(any(ParsedEvent.class));
+    }
+
+    @Test
+    void receipt_failureRecorded() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 1, 10, 100);
+
+        when(ingestionService.parse(any())).thenAnswer(inv -> new ParsedEvent(
+                inv.getArgument(0), null, null, "TXN_1", "A"));
+        doThrow(new IllegalStateException("bad payload"))
+                .when(ingestionService).ingest(any(ParsedEvent.class));
+
+        EventResult result = awaitDone(async.submit(envelope("EVT_1")));
+
+        assertEquals(EventResult.FAILED, result.getStatus());
+        assertEquals("bad payload", result.getMessage());
+    }
+
+    @Test
+    void submit_unparseableEnvelope_throwsWithoutReceipt() {
+
+        async = new AsyncIngestionService(ingestionService, true, 1, 10, 100);
+
+        when(ingestionService.parse(any()))
+                .thenThrow(new IllegalStateException("bad envelope"));
+
+        InvalidEventException e = assertThrows(
+                InvalidEventException.class,
+                () -> async.submit(envelope("EVT_1")));
+
+        assertEquals("bad envelope", e.getMessage());
+        assertEquals(0, async.getQueuedCount());
+        verify(ingestionService, never()).ingest(any(ParsedEvent.class));
+    }
+
+    @Test
+    void submit_queueFull_rejectsImmediately() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 1, 1, 100);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(ingestionService.parse(any())).thenAnswer(inv -> new ParsedEvent(
+                inv.getArgument(0), null, null, "TXN_1", "U"));
+        doAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(ingestionService).ingest(any(ParsedEvent.class));
+
+        async.submit(envelope("RUNNING"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        String queued = async.submit(envelope("QUEUED"));
+
+        assertThrows(QueueFullException.class, () -> async.submit(envelope("REJECTED")));
+        assertEquals(EventResult.PENDING, async.getReceipt(queued).getStatus());
+
+        release.countDown();
+    }
+
+    @Test
+    void noTransactionIdOrEventId_keyedByReceipt() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 4, 10, 100);
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(ingestionService.parse(any())).thenAnswer(inv -> new ParsedEvent(
+                inv.getArgument(0), null, null, null, "A"));
+        doAnswer(inv -> {
+            release.await();
+            return null;
+        }).when(ingestionService).ingest(any(ParsedEvent.class));
+
+        String first = async.submit(envelope(null));
+        String second = async.submit(envelope(null));
+
+        Map<String, Integer> pending = async.getExecutor().getHottestKeys(10);
+
+        assertEquals(Map.of(first, 1, second, 1), pending);
+
+        release.countDown();
+        awaitDone(first);
+        awaitDone(second);
+    }
+
+    @Test
+    void finishedReceipts_evictedBeyondRetention() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 1, 10, 1);
+
+        when(ingestionService.parse(any())).thenAnswer(inv -> new ParsedEvent(
+                inv.getArgument(0), null, null, null, "A"));
+        doThrow(new IllegalStateException("x"))
+                .when(ingestionService).ingest(any(ParsedEvent.class));
+
+        String first = async.submit(envelope("EVT_1"));
+        awaitDone(first);
+
+        String second = async.submit(envelope("EVT_2"));
+        awaitDone(second);
+
+        // eviction runs right after the second receipt is published
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (async.getReceipt(first) != null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertNull(async.getReceipt(first));
+        assertNotNull(async.getReceipt(second));
+    }
+
+    @Test
+    void sameTransactionId_appliedInSubmitOrder() throws Exception {
+
+        async = new AsyncIngestionService(ingestionService, true, 4, 400, 1000);
+
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+        when(ingestionService.parse(any())).thenAnswer(inv -> {
+            EventEnvelope env = inv.getArgument(0);
+            String tranId = env.getEventId().startsWith("A") ? "TXN_A" : "TXN_B";
+            return new ParsedEvent(env, null, null, tranId, "U");
+        });
+        doAnswer(inv -> {
+            applied.add(((ParsedEvent) inv.getArgument(0)).getEnvelope().getEventId());
+            return null;
+        }).when(ingestionService).ingest(any(ParsedEvent.class));
+
+        List<String> expectedA = new ArrayList<>();
+        List<String> receiptIds = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            expectedA.add("A" + i);
+            receiptIds.add(async.submit(envelope("A" + i)));
+            receiptIds.add(async.submit(envelope("B" + i)));
+        }
+
+        for (String receiptId : receiptIds) {
+            awaitDone(receiptId);
+        }
+
+        List<String> appliedA = new ArrayList<>();
+        synchronized (applied) {
+            applied.stream().filter(id -> id.startsWith("A")).forEach(appliedA::add);
+        }
+
+        assertEquals(expectedA, appliedA);
+    }
+}
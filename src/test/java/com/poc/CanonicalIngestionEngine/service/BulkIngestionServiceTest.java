@@ -0,0 +1,123 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkIngestionServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private IngestionService ingestionService;
+
+    private BulkIngestionService bulk;
+
+    @BeforeEach
+    void setUp() {
+
+        bulk = new BulkIngestionService(ingestionService, objectMapper, 2);
+
+        lenient().when(ingestionService.ingestBatch(anyList())).thenAnswer(inv -> {
+            List<EventEnvelope> envelopes = inv.getArgument(0);
+            List<EventResult> results = new ArrayList<>();
+            for (EventEnvelope env : envelopes) {
+                results.add(new EventResult(
+                        env.getEventId(), EventResult.SUCCESS, "T-" + env.getEventId(), null));
+            }
+            return results;
+        });
+    }
+
+    private static String line(String eventId) {
+        return "{\"eventId\":\"" + eventId + "\",\"eventName\":\"PAYMENT\"}\n";
+    }
+
+    private List<JsonNode> run(String body) throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bulk.ingest(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                out);
+
+        List<JsonNode> lines = new ArrayList<>();
+
+        for (String text : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(text));
+        }
+
+        return lines;
+    }
+
+    @Test
+    void ingest_feedsChunksOfBatchSize() throws Exception {
+
+        List<JsonNode> results = run(line("E1") + line("E2") + line("E3") + line("E4") + line("E5"));
+
+        assertEquals(5, results.size());
+        assertEquals("E1", results.get(0).get("eventId").asText());
+        assertEquals("E5", results.get(4).get("eventId").asText());
+        assertEquals("SUCCESS", results.get(2).get("status").asText());
+        assertFalse(results.get(0).has("failed"));
+
+        // 2 + 2 + 1
+        verify(ingestionService, times(3)).ingestBatch(anyList());
+    }
+
+    @Test
+    void ingest_invalidLineFailsAlone_orderKept() throws Exception {
+
+        List<JsonNode> results = run(line("E1") + "{broken\n" + "\n" + line("E2"));
+
+        assertEquals(3, results.size());
+        assertEquals("E1", results.get(0).get("eventId").asText());
+        assertEquals("FAILED", results.get(1).get("status").asText());
+        assertTrue(results.get(1).get("message").asText().startsWith("Line 2"));
+        assertEquals("E2", results.get(2).get("eventId").asText());
+    }
+
+    @Test
+    void ingest_overlongLineFailsAlone_restOfItSkipped() throws Exception {
+
+        bulk = new BulkIngestionService(
+                ingestionService, objectMapper, 2, 64, DbConcurrencyLimiter.unlimited());
+
+        String huge = "{\"eventId\":\"" + "X".repeat(10_000) + "\"}\n";
+
+        List<JsonNode> results = run(line("E1") + huge + line("E2"));
+
+        assertEquals(3, results.size());
+        assertEquals("E1", results.get(0).get("eventId").asText());
+        assertEquals("FAILED", results.get(1).get("status").asText());
+        assertEquals("Line 2 exceeds 64 characters", results.get(1).get("message").asText());
+        assertEquals("E2", results.get(2).get("eventId").asText());
+    }
+
+    @Test
+    void ingest_emptyBody_writesNothing() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, bulk.ingest(new ByteArrayInputStream(new byte[0]), out));
+        assertEquals(0, out.size());
+        verifyNoInteractions(ingestionService);
+    }
+}
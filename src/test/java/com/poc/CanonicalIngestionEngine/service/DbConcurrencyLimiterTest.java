@@ -0,0 +1,80 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.poc.CanonicalIngestionEngine.service.DbConcurrencyLimiter.NoCapacityException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbConcurrencyLimiterTest {
+
+    @Test
+    void workBeyondLimit_rejected_permitReleasedAfterwards() {
+
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(1, 10);
+
+        // The outer unit of work holds the only permit while the nested one asks
+        String result = limiter.call(() -> {
+            assertThrows(NoCapacityException.class,
+                    () -> limiter.run(() -> fail("must not run without a permit")));
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void failingWork_releasesPermit() {
+
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(1, 10);
+
+        assertThrows(IllegalStateException.class, () -> limiter.run(() -> {
+            throw new IllegalStateException("DB down");
+        }));
+
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void waiter_getsPermitWhenReleased() throws Exception {
+
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(1, 5_000);
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                limiter.run(() -> {
+                    holding.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> waiter =
+                CompletableFuture.supplyAsync(() -> limiter.call(() -> "ran"));
+
+        release.countDown();
+
+        assertEquals("ran", waiter.get(5, TimeUnit.SECONDS));
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void unlimited_neverWaits() {
+
+        DbConcurrencyLimiter limiter = DbConcurrencyLimiter.unlimited();
+
+        assertEquals("nested", limiter.call(() -> limiter.call(() -> "nested")));
+        assertEquals(-1, limiter.getAvailablePermits());
+    }
+}
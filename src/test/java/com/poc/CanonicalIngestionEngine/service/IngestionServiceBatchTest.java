@@ -0,0 +1,277 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.config.EventConfig;
+import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
+import com.poc.CanonicalIngestionEngine.config.TableConfig;
+import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
+import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.repository.TransactionRepository;
+import com.poc.CanonicalIngestionEngine.rules.RuleEngine;
+import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ingestBatch through a real transactional proxy, counting commits and
+ * savepoints on a stub transaction manager.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IngestionServiceBatchTest {
+
+    @Mock private RuleEngine ruleEngine;
+    @Mock private EventConfigLoader eventConfigLoader;
+    @Mock private DataMapper dataMapper;
+    @Mock private DynamicSqlBuilder sqlBuilder;
+    @Mock private TransactionRepository repository;
+
+    private CountingTransactionManager txManager;
+    private IngestionService service;
+
+    @BeforeEach
+    void setUp() {
+
+        IngestionService target = new IngestionService(
+                new ObjectMapper(),
+                ruleEngine,
+                eventConfigLoader,
+                dataMapper,
+                sqlBuilder,
+                repository
+        );
+
+        txManager = new CountingTransactionManager();
+
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(
+                txManager, new AnnotationTransactionAttributeSource()));
+        service = (IngestionService) factory.getProxy();
+
+        TableConfig table = new TableConfig();
+        table.setTableName("SEND_TRANSACTIONS");
+        table.setType("main");
+        table.setMapping(Map.of("TRAN_ID", "$.transactionId"));
+
+        EventConfig config = new EventConfig();
+        config.setEventName("PAYMENT");
+        config.setTables(List.of(table));
+
+        when(eventConfigLoader.get(any())).thenReturn(config);
+        when(dataMapper.map(any(), any(), any(), anyBoolean()))
+                .thenAnswer(inv -> new HashMap<>(Map.of(
+                        "TRAN_ID",
+                        ((JsonNode) inv.getArgument(0))
+                                .path("transactionId").asText())));
+        when(sqlBuilder.buildInsertSql(any(), any(), anyBoolean()))
+                .thenReturn("INSERT SQL");
+    }
+
+    private static EventEnvelope envelope(String tranId) {
+        EventEnvelope env = new EventEnvelope();
+        env.setEventId("EVT_" + tranId);
+        env.setEventName("PAYMENT");
+        env.setEventMetadata("{\"operation\":\"A\"}");
+        env.setEventPayload("{\"transactionId\":\"" + tranId + "\"}");
+        return env;
+    }
+
+    private static List<EventEnvelope> envelopes(int count) {
+        List<EventEnvelope> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(envelope("TXN_" + i));
+        }
+        return list;
+    }
+
+    @Test
+    void batch_commitsOnceInsteadOfPerEvent() {
+
+        for (EventEnvelope env : envelopes(20)) {
+            service.ingest(env);
+        }
+
+        assertEquals(20, txManager.commits);
+
+        txManager.commits = 0;
+
+        List<EventResult> results = service.ingestBatch(envelopes(20));
+
+        assertEquals(1, txManager.commits);
+        assertEquals(20, txManager.savepoints);
+        assertEquals(20, results.size());
+        assertTrue(results.stream().noneMatch(EventResult::isFailed));
+        verify(repository, times(40)).insert(anyString(), anyMap());
+    }
+
+    @Test
+    void batch_failedEventRolledBackToItsSavepoint() {
+
+        doThrow(new IllegalStateException("Database INSERT failed"))
+                .when(repository)
+                .insert(anyString(), argThat(m -> "BAD".equals(m.get("TRAN_ID"))));
+
+        List<EventResult> results = service.ingestBatch(List.of(
+                envelope("OK_1"), envelope("BAD"), envelope("OK_2")));
+
+        assertEquals(EventResult.SUCCESS, results.get(0).getStatus());
+        assertEquals(EventResult.FAILED, results.get(1).getStatus());
+        assertEquals("BAD", results.get(1).getTransactionId());
+        assertNotNull(results.get(1).getMessage());
+        assertEquals(EventResult.SUCCESS, results.get(2).getStatus());
+
+        assertEquals(1, txManager.savepointRollbacks);
+        assertEquals(1, txManager.commits);
+        assertEquals(0, txManager.rollbacks);
+    }
+
+    @Test
+    void batch_unparsableEventFailsWithoutSavepoint() {
+
+        EventEnvelope broken = envelope("X");
+        broken.setEventPayload("{not json");
+
+        List<EventResult> results = service.ingestBatch(List.of(
+                envelope("OK_1"), broken));
+
+        assertEquals(EventResult.SUCCESS, results.get(0).getStatus());
+        assertTrue(results.get(1).isFailed());
+        assertNull(results.get(1).getTransactionId());
+        assertEquals(1, txManager.savepoints);
+        assertEquals(1, txManager.commits);
+    }
+
+    @Test
+    void batch_batchedWrites_oneSavepointAndOneFlush() {
+
+        when(repository.beginBatch()).thenReturn(true);
+
+        List<EventResult> results = service.ingestBatch(envelopes(20));
+
+        assertTrue(results.stream().noneMatch(EventResult::isFailed));
+        assertEquals(1, txManager.savepoints);
+        assertEquals(1, txManager.commits);
+        verify(repository, times(1)).flushBatch();
+        verify(repository, times(1)).endBatch();
+    }
+
+    @Test
+    void batch_batchedWriteFails_retriedEventByEvent() {
+
+        when(repository.beginBatch()).thenReturn(true);
+        doThrow(new IllegalStateException("Database INSERT failed"))
+                .when(repository)
+                .insert(anyString(), argThat(m -> "BAD".equals(m.get("TRAN_ID"))));
+
+        List<EventResult> results = service.ingestBatch(List.of(
+                envelope("OK_1"), envelope("BAD"), envelope("OK_2")));
+
+        assertEquals(EventResult.SUCCESS, results.get(0).getStatus());
+        assertEquals(EventResult.FAILED, results.get(1).getStatus());
+        assertEquals(EventResult.SUCCESS, results.get(2).getStatus());
+
+        // Batched pass, then one savepoint per event
+        assertEquals(4, txManager.savepoints);
+        assertEquals(2, txManager.savepointRollbacks);
+        assertEquals(1, txManager.commits);
+        verify(repository, never()).flushBatch();
+        verify(repository, times(2)).rollbackCachedKeys(anyInt());
+    }
+
+    @Test
+    void batch_withoutTransaction_stillIsolatesResults() {
+
+        IngestionService bare = new IngestionService(
+                new ObjectMapper(),
+                ruleEngine,
+                eventConfigLoader,
+                dataMapper,
+                sqlBuilder,
+                repository
+        );
+
+        doThrow(new IllegalStateException("boom"))
+                .when(repository)
+                .insert(anyString(), argThat(m -> "BAD".equals(m.get("TRAN_ID"))));
+
+        List<EventResult> results = bare.ingestBatch(List.of(
+                envelope("BAD"), envelope("OK")));
+
+        assertTrue(results.get(0).isFailed());
+        assertFalse(results.get(1).isFailed());
+    }
+
+    // =====================================================
+    // STUB TRANSACTION MANAGER
+    // =====================================================
+
+    static final class CountingTransactionManager
+            extends AbstractPlatformTransactionManager {
+
+        int commits;
+        int rollbacks;
+        int savepoints;
+        int savepointRollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new CountingTransaction();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+
+        final class CountingTransaction implements SavepointManager {
+
+            @Override
+            public Object createSavepoint() {
+                savepoints++;
+                return new Object();
+            }
+
+            @Override
+            public void rollbackToSavepoint(Object savepoint) {
+                savepointRollbacks++;
+            }
+
+            @Override
+            public void releaseSavepoint(Object savepoint) {
+            }
+        }
+    }
+}
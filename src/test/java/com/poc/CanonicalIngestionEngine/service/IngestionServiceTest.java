@@ -3,12 +3,18 @@ package com.poc.CanonicalIngestionEngine.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.poc.CanonicalIngestionEngine.config.EventConfig;
 import com.poc.CanonicalIngestionEngine.config.EventConfigLoader;
+import com.poc.CanonicalIngestionEngine.config.PayloadExtractionMode;
+import com.poc.CanonicalIngestionEngine.config.PayloadValidationMode;
 import com.poc.CanonicalIngestionEngine.config.TableConfig;
 import com.poc.CanonicalIngestionEngine.mapping.DataMapper;
 import com.poc.CanonicalIngestionEngine.model.EventEnvelope;
+import com.poc.CanonicalIngestionEngine.model.EventResult;
+import com.poc.CanonicalIngestionEngine.model.ParsedEvent;
 import com.poc.CanonicalIngestionEngine.repository.TransactionRepository;
+import com.poc.CanonicalIngestionEngine.repository.TransactionSnapshot;
 import com.poc.CanonicalIngestionEngine.rules.RuleEngine;
 import com.poc.CanonicalIngestionEngine.sql.DynamicSqlBuilder;
+import com.poc.CanonicalIngestionEngine.sql.SqlTemplate;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -84,7 +90,20 @@ class IngestionServiceTest {
         return env;
     }
 
+    private static TransactionSnapshot snapshot(Map<String, Object> row) {
+
+        return new TransactionSnapshot(
+                "TXN",
+                row,
+                table -> List.of()
+        );
+    }
+
     private EventConfig config() {
+        return config("PAYMENT");
+    }
+
+    private EventConfig config(String eventName) {
 
         TableConfig table = new TableConfig();
 
@@ -98,7 +117,7 @@ class IngestionServiceTest {
 
         EventConfig config = new EventConfig();
 
-        config.setEventName("PAYMENT");
+        config.setEventName(eventName);
         config.setTables(List.of(table));
 
         return config;
@@ -182,9 +201,6 @@ class IngestionServiceTest {
         when(repository.exists(any(), any(), any()))
                 .thenReturn(true);
 
-        when(repository.findTransaction(any()))
-                .thenReturn(new HashMap<>());
-
         service.ingest(env);
 
         verify(repository, never())
@@ -203,14 +219,14 @@ class IngestionServiceTest {
 
         doAnswer(invocation -> {
 
-            EventEnvelope e =
+            ParsedEvent e =
                     invocation.getArgument(0);
 
-            e.setIgnore(true);
+            e.getEnvelope().setIgnore(true);
 
             return null;
 
-        }).when(ruleEngine).apply(any());
+        }).when(ruleEngine).apply(any(ParsedEvent.class));
 
         service.ingest(env);
 
@@ -218,6 +234,70 @@ class IngestionServiceTest {
                 .insert(any(), any());
     }
 
+    @Test
+    void ignoredEvent_invalidPayload_reportedIgnored() {
+
+        EventEnvelope env =
+                envelope("PAYMENT", "A", "{invalid}");
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config());
+
+        doAnswer(invocation -> {
+
+            ParsedEvent e =
+                    invocation.getArgument(0);
+
+            e.getEnvelope().setIgnore(true);
+
+            return null;
+
+        }).when(ruleEngine).apply(any(ParsedEvent.class));
+
+        List<EventResult> results =
+                service.ingestBatch(List.of(env));
+
+        assertEquals(EventResult.IGNORED, results.get(0).getStatus());
+
+        verify(repository, never())
+                .insert(any(), any());
+    }
+
+    @Test
+    void payloadRewrittenByRule_isParsedAgain() {
+
+        EventEnvelope env =
+                envelope("PAYMENT", "A", "{invalid}");
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config());
+
+        doAnswer(invocation -> {
+
+            ParsedEvent e =
+                    invocation.getArgument(0);
+
+            e.getEnvelope().setEventPayload(
+                    "{\"transactionId\":\"TXN_R\"}");
+
+            return null;
+
+        }).when(ruleEngine).apply(any(ParsedEvent.class));
+
+        when(dataMapper.map(any(), any(), any(), anyBoolean()))
+                .thenReturn(new HashMap<>());
+
+        service.ingest(env);
+
+        verify(dataMapper).map(
+                argThat(payload ->
+                        "TXN_R".equals(payload.path("transactionId").asText())),
+                any(),
+                any(),
+                anyBoolean()
+        );
+    }
+
     // =====================================================
     // STATUS VALIDATION
     // =====================================================
@@ -239,13 +319,10 @@ class IngestionServiceTest {
         when(eventConfigLoader.get(any()))
                 .thenReturn(config());
 
-        when(repository.exists(any(), any(), any()))
-                .thenReturn(true);
-
-        when(repository.findTransaction(any()))
-                .thenReturn(Map.of(
+        when(repository.lockTransaction(any(), any()))
+                .thenReturn(snapshot(Map.of(
                         "STATUS", "SETTLED"
-                ));
+                )));
 
         service.ingest(env);
 
@@ -270,16 +347,10 @@ class IngestionServiceTest {
         when(eventConfigLoader.get(any()))
                 .thenReturn(config());
 
-        when(repository.exists(any(), any(), any()))
-                .thenReturn(true);
-
-        when(repository.findTransaction(any()))
-                .thenReturn(Map.of(
+        when(repository.lockTransaction(any(), any()))
+                .thenReturn(snapshot(Map.of(
                         "STATUS", "INIT"
-                ));
-
-        when(repository.findAllRelatedData(any()))
-                .thenReturn(new HashMap<>());
+                )));
 
         when(repository.columnExists(any(), any()))
                 .thenReturn(true);
@@ -296,7 +367,61 @@ class IngestionServiceTest {
     }
 
     @Test
-    void statusValidation_repositoryException_defaultsTrue() {
+    void clearing_readsOneLockedSnapshot_andMergesOnlyEmptyColumns() {
+
+        EventEnvelope env = envelope(
+                "CLEARING",
+                "U",
+                """
+                {
+                  "transactionId":"TXN9",
+                  "status":"SETTLED"
+                }
+                """
+        );
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config());
+
+        Map<String, Object> db = new HashMap<>();
+
+        db.put("STATUS", "INIT");
+        db.put("SW_SER_NUM", "111");
+        db.put("AUTH_CD", null);
+
+        when(repository.lockTransaction(any(), any()))
+                .thenReturn(snapshot(db));
+
+        when(dataMapper.map(any(), any(), any(), anyBoolean()))
+                .thenReturn(new HashMap<>(Map.of(
+                        "STATUS", "SETTLED",
+                        "SW_SER_NUM", "999",
+                        "AUTH_CD", "A1"
+                )));
+
+        service.ingest(env);
+
+        verify(repository)
+                .lockTransaction(
+                        eq("TXN9"),
+                        argThat(cols -> cols.containsAll(
+                                List.of("STATUS", "SW_SER_NUM", "AUTH_CD")))
+                );
+
+        verify(sqlBuilder)
+                .buildMergeNullsTemplate(
+                        eq("SEND_TRANSACTIONS"),
+                        argThat(cols -> cols.equals(
+                                Set.of("AUTH_CD", "TRAN_ID"))),
+                        eq("TRAN_ID")
+                );
+
+        verify(repository, never()).exists(any(), any(), any());
+        verify(repository, never()).findAllRelatedData(any());
+    }
+
+    @Test
+    void statusValidation_repositoryException_failsEvent() {
 
         EventEnvelope env = envelope(
                 "CLEARING",
@@ -312,7 +437,7 @@ class IngestionServiceTest {
         when(eventConfigLoader.get(any()))
                 .thenReturn(config());
 
-        when(repository.exists(any(), any(), any()))
+        when(repository.lockTransaction(any(), any()))
                 .thenThrow(new RuntimeException("DB ERROR"));
 
         assertThrows(
@@ -340,17 +465,14 @@ class IngestionServiceTest {
         );
 
         when(eventConfigLoader.get(any()))
-                .thenReturn(config());
-
-        when(repository.exists(any(), any(), any()))
-                .thenReturn(true);
+                .thenReturn(config("AIS2"));
 
         Map<String, Object> db = new HashMap<>();
 
         db.put("SW_SER_NUM", null);
 
-        when(repository.findTransaction(any()))
-                .thenReturn(db);
+        when(repository.lockTransaction(any(), any()))
+                .thenReturn(snapshot(db));
 
         service.ingest(env);
 
@@ -379,15 +501,12 @@ class IngestionServiceTest {
         );
 
         when(eventConfigLoader.get(any()))
-                .thenReturn(config());
+                .thenReturn(config("AIS2"));
 
-        when(repository.exists(any(), any(), any()))
-                .thenReturn(true);
-
-        when(repository.findTransaction(any()))
-                .thenReturn(Map.of(
+        when(repository.lockTransaction(any(), any()))
+                .thenReturn(snapshot(Map.of(
                         "SW_SER_NUM", "111"
-                ));
+                )));
 
         service.ingest(env);
 
@@ -417,11 +536,8 @@ class IngestionServiceTest {
 
         incoming.put("BAD_COLUMN", "X");
 
-        when(repository.findTransaction(any()))
-                .thenReturn(Map.of());
-
-        when(repository.columnExists(any(), any()))
-                .thenReturn(false);
+        when(sqlBuilder.buildMergeNullsTemplate(any(), any(), any()))
+                .thenReturn(null);
 
         method.invoke(
                 service,
@@ -431,7 +547,7 @@ class IngestionServiceTest {
         );
 
         verify(repository, never())
-                .updateColumn(any(), any(), any(), any(), any());
+                .update(any(SqlTemplate.class), any());
     }
 
     // =====================================================
@@ -569,24 +685,170 @@ class IngestionServiceTest {
     }
 
     @Test
-    void invalidMetadata_returnsFalseUpdateOperation() throws Exception {
-
-        Method method =
-                IngestionService.class.getDeclaredMethod(
-                        "isUpdateOperation",
-                        EventEnvelope.class
-                );
-
-        method.setAccessible(true);
+    void invalidMetadata_returnsFalseUpdateOperation() {
 
         EventEnvelope env =
                 new EventEnvelope();
 
         env.setEventMetadata("{bad-json}");
+        env.setEventPayload("{}");
+
+        ParsedEvent event =
+                service.parse(env);
+
+        assertFalse(event.isUpdateOperation());
+    }
+
+    // =====================================================
+    // PARSED EVENT
+    // =====================================================
+
+    @Test
+    void parse_resolvesTransactionIdAndOperationOnce() {
+
+        EventEnvelope env = envelope(
+                "CLEARING",
+                "U",
+                """
+                {
+                  "transactionId":"TXN_T",
+                  "paymentTransactionId":"TXN_P",
+                  "status":"SETTLED"
+                }
+                """
+        );
+
+        ParsedEvent event = service.parse(env);
+
+        assertSame(env, event.getEnvelope());
+        assertEquals("TXN_P", event.getTransactionId());
+        assertEquals("U", event.getOperation());
+        assertTrue(event.isUpdateOperation());
+        assertEquals(
+                "SETTLED",
+                event.getPayload().path("status").asText()
+        );
+    }
+
+    @Test
+    void parse_blankIdFieldsSkipped() {
+
+        EventEnvelope env = envelope(
+                "PAYMENT",
+                "A",
+                """
+                {
+                  "accountInformationId":"  ",
+                  "avsTranId":"AVS_1"
+                }
+                """
+        );
+
+        assertEquals(
+                "AVS_1",
+                service.parse(env).getTransactionId()
+        );
+    }
+
+    // =====================================================
+    // PAYLOAD VALIDATION MODES
+    // =====================================================
+
+    @Test
+    void streamingCheck_rejectsMistypedField() {
+
+        EventConfig config = config();
+        config.setPayloadValidation(PayloadValidationMode.STREAMING_CHECK);
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config);
+
+        EventEnvelope env = envelope(
+                "CLEARING",
+                "A",
+                "{\"transactionId\":\"TXN_S\",\"tranId\":{\"a\":1}}"
+        );
+
+        assertThrows(
+                IngestionService.IngestionProcessingException.class,
+                () -> service.ingest(env)
+        );
+    }
+
+    @Test
+    void validationOff_acceptsMistypedField() {
+
+        EventConfig config = config();
+        config.setPayloadValidation(PayloadValidationMode.OFF);
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config);
+
+        EventEnvelope env = envelope(
+                "CLEARING",
+                "A",
+                "{\"transactionId\":\"TXN_O\",\"tranId\":{\"a\":1}}"
+        );
+
+        assertEquals(
+                "TXN_O",
+                service.parse(env).getTransactionId()
+        );
+    }
+
+    @Test
+    void streamingExtraction_keepsOnlyMappedAndFlowFields() {
+
+        EventConfig config = config();
+        config.setPayloadExtraction(PayloadExtractionMode.STREAMING);
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config);
+
+        IngestionService streamingService = new IngestionService(
+                new ObjectMapper(),
+                ruleEngine,
+                eventConfigLoader,
+                new DataMapper(),
+                sqlBuilder,
+                repository
+        );
+
+        EventEnvelope env = envelope(
+                "PAYMENT",
+                "U",
+                "{\"originalRequestPayload\":\"REQ\","
+                        + "\"transactionId\":\"TXN_P\","
+                        + "\"switchSerialNumber\":\"42\","
+                        + "\"status\":\"APPROVED\"}"
+        );
 
-        boolean result =
-                (boolean) method.invoke(service, env);
+        ParsedEvent event = streamingService.parse(env);
 
-        assertFalse(result);
+        assertEquals("TXN_P", event.getTransactionId());
+        assertEquals("APPROVED", event.getPayload().path("status").asText());
+        assertEquals("42", event.getPayload().path("switchSerialNumber").asText());
+        assertFalse(event.getPayload().has("originalRequestPayload"));
+    }
+
+    @Test
+    void streamingExtraction_stillValidatesFullPayload() {
+
+        EventConfig config = config();
+        config.setPayloadExtraction(PayloadExtractionMode.STREAMING);
+
+        when(eventConfigLoader.get(any()))
+                .thenReturn(config);
+
+        EventEnvelope env = envelope(
+                "PAYMENT",
+                "A",
+                "{\"transactionId\":\"TXN_V\",\"tranId\":{\"a\":1}}"
+        );
+
+        assertThrows(
+                IngestionService.IngestionProcessingException.class,
+                () -> service.ingest(env)
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.poc.CanonicalIngestionEngine.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedExecutorTest {
+
+    private KeyOrderedExecutor executor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Finds a key that maps to a different lane than the given one. */
+    private String keyOnOtherLane(String key) {
+        for (int i = 0; ; i++) {
+            String candidate = "TXN_" + i;
+            if (executor.laneOf(candidate) != executor.laneOf(key)) {
+                return candidate;
+            }
+        }
+    }
+
+    @Test
+    void sameKey_runsInSubmitOrder() throws Exception {
+
+        executor = new KeyOrderedExecutor("test", 4, 1000);
+
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            executor.execute("TXN_1", () -> {
+                seen.add(n);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void differentLanes_runConcurrently() throws Exception {
+
+        executor = new KeyOrderedExecutor("test", 4, 10);
+
+        String first = "TXN_1";
+        String second = keyOnOtherLane(first);
+
+        // Each task waits for the other; only passes if both run at once
+        CountDownLatch both = new CountDownLatch(2);
+        CountDownLatch finished = new CountDownLatch(2);
+
+        Runnable task = () -> {
+            both.countDown();
+            try {
+                if (both.await(5, TimeUnit.SECONDS)) {
+                    finished.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(first, task);
+        executor.execute(second, task);
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullLane_rejectsAndTracksHotKeys() throws Exception {
+
+        executor = new KeyOrderedExecutor("test", 2, 2);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute("HOT", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        executor.execute("HOT", () -> { });
+        executor.execute("HOT", () -> { });
+
+        assertThrows(RejectedExecutionException.class,
+                () -> executor.execute("HOT", () -> { }));
+
+        assertEquals(2, executor.getQueueDepth(executor.laneOf("HOT")));
+        assertEquals(Map.of("HOT", 3), executor.getHottestKeys(5));
+
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!executor.getHottestKeys(5).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(executor.getHottestKeys(5).isEmpty());
+    }
+}
@@ -1,11 +1,17 @@
 package com.poc.CanonicalIngestionEngine.sql;
 
+import com.poc.CanonicalIngestionEngine.repository.ColumnMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadata;
+import com.poc.CanonicalIngestionEngine.repository.TableMetadataRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.*;
@@ -432,6 +438,285 @@ class DynamicSqlBuilderTest {
         );
     }
 
+    // =====================================================
+    // TEMPLATE CACHE TESTS
+    // =====================================================
+
+    @Test
+    @DisplayName("TEMPLATE - hits and misses are published to Micrometer")
+    void testTemplate_MetricsRegistered() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+
+        DynamicSqlBuilder builder =
+                new DynamicSqlBuilder(
+                        jdbcTemplate,
+                        null,
+                        beans.getBeanProvider(MeterRegistry.class));
+
+        mockDbColumns(
+                "SEND_TRANSACTIONS",
+                Arrays.asList("TRAN_ID", "STATUS")
+        );
+
+        Set<String> columns = Set.of("TRAN_ID", "STATUS");
+
+        builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+        builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+        builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+
+        assertEquals(2.0, registry.get("ingestion.sql.template.gets")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("ingestion.sql.template.gets")
+                .tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("ingestion.sql.template.size")
+                .gauge().value());
+    }
+
+    @Test
+    @DisplayName("TEMPLATE - same columns in any order hit one template")
+    void testTemplate_OrderIndependentHit() {
+
+        mockDbColumns(
+                "SEND_TRANSACTIONS",
+                Arrays.asList(
+                        "ID",
+                        "TRAN_ID",
+                        "STATUS"
+                )
+        );
+
+        SqlTemplate first =
+                sqlBuilder.buildInsertTemplate(
+                        "SEND_TRANSACTIONS",
+                        new LinkedHashSet<>(
+                                Arrays.asList("STATUS", "TRAN_ID", "BAD")
+                        ),
+                        true
+                );
+
+        SqlTemplate second =
+                sqlBuilder.buildInsertTemplate(
+                        "SEND_TRANSACTIONS",
+                        new LinkedHashSet<>(
+                                Arrays.asList("TRAN_ID", "STATUS")
+                        ),
+                        true
+                );
+
+        assertSame(first, second);
+
+        assertEquals(
+                "INSERT INTO SEND_TRANSACTIONS (ID, TRAN_ID, STATUS) "
+                        + "VALUES (:ID, :TRAN_ID, :STATUS)",
+                first.getSql()
+        );
+
+        assertEquals("SEND_TRANSACTIONS", first.getTableName());
+
+        assertEquals(
+                Arrays.asList("ID", "TRAN_ID", "STATUS"),
+                first.getParameterNames()
+        );
+
+        assertEquals(1, sqlBuilder.getTemplateCacheMisses());
+        assertEquals(1, sqlBuilder.getTemplateCacheHits());
+    }
+
+    @Test
+    @DisplayName("TEMPLATE - insert, update and where column are separate entries")
+    void testTemplate_KeyedByStatementShape() {
+
+        mockDbColumns(
+                "SEND_TRANSACTIONS",
+                Arrays.asList(
+                        "TRAN_ID",
+                        "STATUS",
+                        "AMOUNT"
+                )
+        );
+
+        Set<String> columns =
+                new LinkedHashSet<>(
+                        Arrays.asList("TRAN_ID", "STATUS")
+                );
+
+        sqlBuilder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+
+        SqlTemplate update =
+                sqlBuilder.buildUpdateTemplate(
+                        "SEND_TRANSACTIONS",
+                        columns,
+                        "TRAN_ID"
+                );
+
+        sqlBuilder.buildUpdateSql("SEND_TRANSACTIONS", columns, "STATUS");
+        sqlBuilder.buildUpdateSql("SEND_TRANSACTIONS", columns, "TRAN_ID");
+
+        assertEquals(
+                "UPDATE SEND_TRANSACTIONS SET STATUS = :STATUS "
+                        + "WHERE TRAN_ID = :TRAN_ID",
+                update.getSql()
+        );
+
+        assertEquals(
+                Arrays.asList("STATUS", "TRAN_ID"),
+                update.getParameterNames()
+        );
+
+        assertEquals(3, sqlBuilder.getTemplateCacheMisses());
+        assertEquals(1, sqlBuilder.getTemplateCacheHits());
+        assertEquals(3, sqlBuilder.getTemplateCacheSize());
+    }
+
+    @Test
+    @DisplayName("REGISTRY - columns from shared metadata, rebuilt on new version")
+    void testRegistry_RebuildsOnVersionChange() {
+
+        TableMetadataRegistry registry =
+                mock(TableMetadataRegistry.class);
+
+        DynamicSqlBuilder builder =
+                new DynamicSqlBuilder(jdbcTemplate, registry);
+
+        when(registry.getVersion()).thenReturn(1L, 1L, 2L);
+
+        when(registry.table("SEND_TRANSACTIONS")).thenReturn(
+                metadata("TRAN_ID", "STATUS"),
+                metadata("STATUS", "TRAN_ID")
+        );
+
+        Set<String> columns =
+                new LinkedHashSet<>(
+                        Arrays.asList("TRAN_ID", "STATUS")
+                );
+
+        String before =
+                builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+
+        builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+
+        String after =
+                builder.buildInsertSql("SEND_TRANSACTIONS", columns, false);
+
+        assertTrue(before.contains("(TRAN_ID, STATUS)"));
+        assertTrue(after.contains("(STATUS, TRAN_ID)"));
+
+        assertEquals(2, builder.getTemplateCacheMisses());
+        assertEquals(1, builder.getTemplateCacheHits());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // =====================================================
+    // NULL-MERGE TESTS
+    // =====================================================
+
+    @Test
+    @DisplayName("MERGE NULLS - one UPDATE, blank-aware per column")
+    void testMergeNulls_SingleStatement() {
+
+        mockDbColumns(
+                "SEND_TRANSACTIONS",
+                Arrays.asList(
+                        "TRAN_ID",
+                        "STATUS",
+                        "REF"
+                )
+        );
+
+        SqlTemplate template =
+                sqlBuilder.buildMergeNullsTemplate(
+                        "SEND_TRANSACTIONS",
+                        new LinkedHashSet<>(
+                                Arrays.asList("REF", "BAD", "TRAN_ID", "STATUS")
+                        ),
+                        "TRAN_ID"
+                );
+
+        assertEquals(
+                "UPDATE SEND_TRANSACTIONS SET "
+                        + "STATUS = CASE WHEN NULLIF(TRIM(STATUS), '') IS NULL "
+                        + "THEN :STATUS ELSE STATUS END, "
+                        + "REF = CASE WHEN NULLIF(TRIM(REF), '') IS NULL "
+                        + "THEN :REF ELSE REF END "
+                        + "WHERE TRAN_ID = :TRAN_ID",
+                template.getSql()
+        );
+
+        assertEquals(
+                Arrays.asList("STATUS", "REF", "TRAN_ID"),
+                template.getParameterNames()
+        );
+    }
+
+    @Test
+    @DisplayName("MERGE NULLS - COALESCE for non-character columns")
+    void testMergeNulls_CoalesceForTypedColumns() {
+
+        TableMetadataRegistry registry =
+                mock(TableMetadataRegistry.class);
+
+        when(registry.table("SEND_TRANSACTIONS")).thenReturn(
+                new TableMetadata(
+                        "SEND_TRANSACTIONS",
+                        Arrays.asList(
+                                new ColumnMetadata("TRAN_ID", "VARCHAR2", 36, null, null, false, true),
+                                new ColumnMetadata("AMT", "NUMBER", 22, 12, 2, true, false),
+                                new ColumnMetadata("REF", "VARCHAR2", 20, null, null, true, false)
+                        )
+                )
+        );
+
+        SqlTemplate template =
+                new DynamicSqlBuilder(jdbcTemplate, registry)
+                        .buildMergeNullsTemplate(
+                                "SEND_TRANSACTIONS",
+                                new LinkedHashSet<>(
+                                        Arrays.asList("AMT", "REF")
+                                ),
+                                "TRAN_ID"
+                        );
+
+        assertTrue(template.getSql().contains("AMT = COALESCE(AMT, :AMT)"));
+        assertTrue(template.getSql().contains("REF = CASE WHEN NULLIF(TRIM(REF), '')"));
+    }
+
+    @Test
+    @DisplayName("MERGE NULLS - null when no column exists")
+    void testMergeNulls_NoKnownColumns() {
+
+        mockDbColumns(
+                "SEND_TRANSACTIONS",
+                Collections.singletonList("TRAN_ID")
+        );
+
+        assertNull(
+                sqlBuilder.buildMergeNullsTemplate(
+                        "SEND_TRANSACTIONS",
+                        new LinkedHashSet<>(
+                                Arrays.asList("BAD", "TRAN_ID")
+                        ),
+                        "TRAN_ID"
+                )
+        );
+    }
+
+    private static TableMetadata metadata(String... columns) {
+
+        List<ColumnMetadata> list = new ArrayList<>();
+
+        for (String column : columns) {
+            list.add(new ColumnMetadata(
+                    column, "VARCHAR2", 36, null, null, true, false));
+        }
+
+        return new TableMetadata("SEND_TRANSACTIONS", list);
+    }
+
     // =====================================================
     // CACHE CLEAR TEST
     // =====================================================
@@ -0,0 +1,146 @@
+package com.poc.CanonicalIngestionEngine.validation;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.CanonicalIngestionEngine.model.TransactionEventAxonMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The streaming check must accept and reject exactly what binding
+ * TransactionEventAxonMessage accepts and rejects.
+ */
+class PayloadSchemaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final PayloadSchema schema =
+            PayloadSchema.derive(
+                    objectMapper,
+                    TransactionEventAxonMessage.class
+            );
+
+    private void check(String json) throws Exception {
+        schema.check(objectMapper.getFactory().createParser(json));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Payloads that bind are accepted")
+    @ValueSource(strings = {
+            "{}",
+            "{\"tranId\":\"T1\",\"unknown\":{\"a\":[1,{\"b\":2}]}}",
+            "{\"tranId\":5,\"tranAmt\":true}",
+            "{\"senderEligible\":\"12\",\"nonFinTxn\":1.5}",
+            "{\"amount\":\"\",\"senderEligible\":null}",
+            "{\"sndrGovtId\":[{\"type\":\"P\",\"value\":\"1\"},null]}"
+    })
+    void acceptsBindablePayloads(String json) throws Exception {
+
+        assertDoesNotThrow(() -> check(json));
+
+        assertDoesNotThrow(() ->
+                objectMapper.readValue(
+                        json,
+                        TransactionEventAxonMessage.class
+                ));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Payloads that fail binding are rejected")
+    @ValueSource(strings = {
+            "[1]",
+            "{\"tranId\":{\"a\":1}}",
+            "{\"tranId\":[\"x\"]}",
+            "{\"senderEligible\":\"abc\"}",
+            "{\"senderEligible\":true}",
+            "{\"senderEligible\":99999999999}",
+            "{\"sndrGovtId\":\"x\"}",
+            "{\"sndrGovtId\":[{\"type\":{}}]}"
+    })
+    void rejectsUnbindablePayloads(String json) {
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> check(json)
+        );
+
+        assertThrows(
+                Exception.class,
+                () -> objectMapper.readValue(
+                        json,
+                        TransactionEventAxonMessage.class
+                ));
+    }
+
+    @Test
+    @DisplayName("Mismatch message points at the offending field")
+    void mismatchMessageCarriesPath() {
+
+        IllegalArgumentException ex =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () -> check("{\"rcvrGovtId\":[{\"value\":[]}]}")
+                );
+
+        assertTrue(
+                ex.getMessage().contains("$.rcvrGovtId[0].value")
+        );
+    }
+
+    // =====================================================
+    // BIG NUMBERS / NUMERIC STRINGS
+    // =====================================================
+
+    static class Amounts {
+        public BigInteger count;
+        public BigDecimal amount;
+        public double rate;
+    }
+
+    private final PayloadSchema amounts =
+            PayloadSchema.derive(objectMapper, Amounts.class);
+
+    @ParameterizedTest
+    @DisplayName("BigInteger and decimal fields accept what binding accepts")
+    @ValueSource(strings = {
+            "{\"count\":123456789012345678901234567890}",
+            "{\"count\":\"123456789012345678901234567890\"}",
+            "{\"amount\":\"12.50\",\"rate\":\"0.25\"}",
+            "{\"amount\":1e3,\"rate\":2}"
+    })
+    void acceptsBindableNumbers(String json) {
+
+        assertDoesNotThrow(() ->
+                amounts.check(objectMapper.getFactory().createParser(json)));
+
+        assertDoesNotThrow(() -> objectMapper.readValue(json, Amounts.class));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Non-numeric strings for BigInteger and decimal fields are rejected")
+    @ValueSource(strings = {
+            "{\"count\":\"abc\"}",
+            "{\"amount\":\"abc\"}",
+            "{\"rate\":\"abc\"}"
+    })
+    void rejectsNonNumericStrings(String json) {
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> amounts.check(objectMapper.getFactory().createParser(json))
+        );
+
+        assertThrows(
+                Exception.class,
+                () -> objectMapper.readValue(json, Amounts.class)
+        );
+    }
+}